@@ -0,0 +1,29 @@
+package asteroids.benchmarks;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * An interface for one operation that is measured by the benchmark runner.
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+public interface Benchmark {
+
+	/**
+	 * Prepare the state of this benchmark. This method is called before every
+	 * iteration, and is not measured.
+	 */
+	void setUp();
+
+	/**
+	 * Execute the measured operation once.
+	 *
+	 * @return	A value computed by the operation. The runner consumes this value, so
+	 * 			the operation cannot be optimised away.
+	 */
+	Object run();
+}
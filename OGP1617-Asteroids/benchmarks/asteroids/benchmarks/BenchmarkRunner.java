@@ -0,0 +1,175 @@
+package asteroids.benchmarks;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * A class representing a runner that measures benchmarks.
+ *
+ * - Every benchmark is first executed during a number of warm-up iterations, whose
+ *   results are thrown away, and then during a number of measurement iterations.
+ * - Every iteration executes the benchmark repeatedly during a fixed amount of time.
+ * - The runner reports the throughput (operations per second), the average time
+ *   per operation and the number of bytes allocated per operation, as averages over
+ *   the measurement iterations.
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+public class BenchmarkRunner {
+
+	/**
+	 * Initialize this new runner with the given number of iterations and iteration time.
+	 *
+	 * @param nbWarmupIterations
+	 * 			The number of iterations whose results are thrown away.
+	 * @param nbMeasurementIterations
+	 * 			The number of iterations whose results are reported.
+	 * @param iterationMillis
+	 * 			The duration of one iteration, in milliseconds.
+	 * @throws	IllegalArgumentException
+	 * 			| nbWarmupIterations < 0 || nbMeasurementIterations < 1 || iterationMillis < 1
+	 */
+	public BenchmarkRunner(int nbWarmupIterations, int nbMeasurementIterations, long iterationMillis)
+			throws IllegalArgumentException{
+		if (nbWarmupIterations < 0 || nbMeasurementIterations < 1 || iterationMillis < 1)
+			throw new IllegalArgumentException("Invalid benchmark configuration.");
+		this.nbWarmupIterations = nbWarmupIterations;
+		this.nbMeasurementIterations = nbMeasurementIterations;
+		this.iterationNanos = iterationMillis*1000000L;
+
+		java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (threads instanceof com.sun.management.ThreadMXBean){
+			com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean)threads;
+			if (allocations.isThreadAllocatedMemorySupported()){
+				allocations.setThreadAllocatedMemoryEnabled(true);
+				this.allocations = allocations;
+			}
+		}
+	}
+
+	/**
+	 * Measure the given benchmark and print its results.
+	 *
+	 * @param name
+	 * 			The name of the benchmark.
+	 * @param size
+	 * 			The size of the world of the benchmark.
+	 * @param benchmark
+	 * 			The benchmark that has to be measured.
+	 * @effect	| run(name, size, benchmark, Long.MAX_VALUE)
+	 */
+	public void run(String name, int size, Benchmark benchmark){
+		run(name, size, benchmark, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Measure the given benchmark and print its results, executing the benchmark at most
+	 * the given number of times per iteration. This is used for benchmarks whose state
+	 * drifts away from the prepared state when they are executed too often.
+	 *
+	 * @param name
+	 * 			The name of the benchmark.
+	 * @param size
+	 * 			The size of the world of the benchmark.
+	 * @param benchmark
+	 * 			The benchmark that has to be measured.
+	 * @param maxOperations
+	 * 			The maximal number of operations per iteration.
+	 * @throws	IllegalArgumentException
+	 * 			| maxOperations < 1
+	 */
+	public void run(String name, int size, Benchmark benchmark, long maxOperations) throws IllegalArgumentException{
+		if (maxOperations < 1)
+			throw new IllegalArgumentException("At least one operation per iteration is required.");
+		for (int iteration=0; iteration < nbWarmupIterations; iteration++)
+			iterate(benchmark, maxOperations);
+
+		long nbOperations = 0;
+		long nanos = 0;
+		long bytes = 0;
+		for (int iteration=0; iteration < nbMeasurementIterations; iteration++){
+			long[] result = iterate(benchmark, maxOperations);
+			nbOperations += result[0];
+			nanos += result[1];
+			bytes += result[2];
+		}
+
+		double throughput = nbOperations/(nanos/1e9);
+		double averageTime = (nanos/1e3)/nbOperations;
+		String allocation = (allocations == null) ? "n/a" : String.format("%.1f", (double)bytes/nbOperations);
+		System.out.println(String.format("%-24s %7d %14.2f %14.3f %14s", name, size, throughput, averageTime, allocation));
+	}
+
+	/**
+	 * Print the header of the table of results.
+	 */
+	public void printHeader(){
+		System.out.println(String.format("%-24s %7s %14s %14s %14s", "Benchmark", "size", "thrpt [ops/s]", "avgt [us/op]", "alloc [B/op]"));
+	}
+
+	/**
+	 * Prepare the given benchmark and execute it during one iteration, or until it has
+	 * been executed the given number of times.
+	 *
+	 * @return	An array with the number of operations, the elapsed time in nanoseconds
+	 * 			and the number of allocated bytes.
+	 */
+	private long[] iterate(Benchmark benchmark, long maxOperations){
+		benchmark.setUp();
+		long threadId = Thread.currentThread().getId();
+		long startBytes = (allocations == null) ? 0 : allocations.getThreadAllocatedBytes(threadId);
+		long start = System.nanoTime();
+		long end = start+iterationNanos;
+		long nbOperations = 0;
+		long now;
+		do {
+			consume(benchmark.run());
+			nbOperations++;
+			now = System.nanoTime();
+		} while (now < end && nbOperations < maxOperations);
+		long endBytes = (allocations == null) ? 0 : allocations.getThreadAllocatedBytes(threadId);
+		return new long[] {nbOperations, now-start, endBytes-startBytes};
+	}
+
+	/**
+	 * Consume the given result of a benchmark, so it cannot be optimised away.
+	 */
+	private void consume(Object result){
+		if (result != null)
+			sink ^= System.identityHashCode(result);
+	}
+
+	/**
+	 * Return the value in which the results of the benchmarks are consumed.
+	 * It has no meaning, but reading it keeps the results alive.
+	 */
+	public int getSink(){
+		return this.sink;
+	}
+
+	/**
+	 * Variable in which the results of the benchmarks are consumed.
+	 */
+	private volatile int sink;
+
+	/**
+	 * Variables registering the number of warm-up and measurement iterations.
+	 */
+	private final int nbWarmupIterations, nbMeasurementIterations;
+
+	/**
+	 * Variable registering the duration of one iteration, in nanoseconds.
+	 */
+	private final long iterationNanos;
+
+	/**
+	 * Variable registering the bean that counts the allocated bytes of a thread,
+	 * null if the virtual machine does not support that.
+	 */
+	private com.sun.management.ThreadMXBean allocations = null;
+}
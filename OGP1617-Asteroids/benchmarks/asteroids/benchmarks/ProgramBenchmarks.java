@@ -0,0 +1,93 @@
+package asteroids.benchmarks;
+
+import asteroids.model.Program;
+import asteroids.model.Ship;
+import asteroids.model.World;
+import asteroids.model.programs.CompilationMode;
+import asteroids.model.programs.ProgramFactory;
+import asteroids.part3.programs.internal.ProgramParser;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * A class containing the benchmarks of the execution of ship programs.
+ *
+ * - Every benchmark executes a compute-heavy program, that only loops and computes with
+ *   the position and radius of its ship, once in every compilation mode.
+ * - The size of a benchmark is the number of iterations of the loop of the program.
+ *
+ * Usage: java -cp bin asteroids.benchmarks.ProgramBenchmarks [sizes] [filter]
+ * 	- sizes is a comma separated list of numbers of iterations (default 10,100,1000,10000).
+ * 	- only the benchmarks whose name contains filter are run (default all).
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+public class ProgramBenchmarks {
+
+	/**
+	 * Run the benchmarks for the given sizes.
+	 *
+	 * @param args
+	 * 			The sizes of the programs and the filter on the names of the benchmarks.
+	 */
+	public static void main(String[] args){
+		String[] sizes = ((args.length > 0) ? args[0] : "10,100,1000,10000").split(",");
+		String filter = (args.length > 1) ? args[1] : "";
+
+		BenchmarkRunner runner = new BenchmarkRunner(3, 5, 1000);
+		runner.printHeader();
+		for (String size: sizes){
+			int nbIterations = Integer.parseInt(size.trim());
+			for (CompilationMode mode: CompilationMode.values()){
+				String name = "Program." + mode.name().toLowerCase();
+				if (name.contains(filter))
+					runner.run(name, nbIterations, execute(nbIterations, mode));
+			}
+		}
+		if (runner.getSink() == 42)
+			System.out.println();
+	}
+
+	/**
+	 * Return a benchmark that loads the compute-heavy program with the given number of
+	 * iterations, compiled in the given mode, on a ship and executes it to its end.
+	 */
+	public static Benchmark execute(final int nbIterations, final CompilationMode mode){
+		return new Benchmark(){
+			@Override
+			public void setUp(){
+				if (ship == null){
+					World world = new World(1000, 1000);
+					ship = new Ship(100, 100, 0, 0, 20, 0);
+					world.addEntity(ship);
+					program = ProgramParser.parseProgramFromString(getCode(nbIterations), new ProgramFactory(mode));
+				}
+			}
+			@Override
+			public Object run(){
+				// Loading the program again starts a new execution.
+				ship.loadProgram(program);
+				return ship.executeProgram(0);
+			}
+			private Ship ship;
+			private Program program;
+		};
+	}
+
+	/**
+	 * Return the code of a program that loops the given number of times, computing with
+	 * the position and radius of its ship, and prints the result.
+	 */
+	public static String getCode(int nbIterations){
+		return "i := 0.0; sum := 0.0; "
+				+ "while i < " + nbIterations + ".0 { "
+				+ "d := sqrt(((getx self) * (getx self)) + ((gety self) * (gety self))); "
+				+ "if d < (getradius self) { sum := sum + 1.0; } else { sum := sum + (d * -0.5); } "
+				+ "i := i + 1.0; } "
+				+ "print sum;";
+	}
+}
@@ -0,0 +1,344 @@
+package asteroids.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import asteroids.model.Bullet;
+import asteroids.model.Entity;
+import asteroids.model.Ship;
+import asteroids.model.World;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * A class containing the benchmarks of game worlds and their collision prediction.
+ *
+ * - Every benchmark runs on a seeded world, so two runs measure exactly the same scene.
+ * - The entities of a world are spread over a grid of cells, one entity per cell, so
+ *   worlds of every size have the same density. A quarter of the entities are ships,
+ *   the others are bullets.
+ *
+ * Usage: java -cp bin asteroids.benchmarks.WorldBenchmarks [sizes] [filter]
+ * 	- sizes is a comma separated list of world sizes (default 10,100,1000,10000).
+ * 	- only the benchmarks whose name contains filter are run (default all).
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+public class WorldBenchmarks {
+
+	/**
+	 * Run the benchmarks for the given sizes.
+	 *
+	 * @param args
+	 * 			The sizes of the worlds and the filter on the names of the benchmarks.
+	 */
+	public static void main(String[] args){
+		String[] sizes = ((args.length > 0) ? args[0] : "10,100,1000,10000").split(",");
+		String filter = (args.length > 1) ? args[1] : "";
+
+		BenchmarkRunner runner = new BenchmarkRunner(3, 5, 1000);
+		runner.printHeader();
+		for (String size: sizes){
+			int nbEntities = Integer.parseInt(size.trim());
+			if ("World.evolve".contains(filter))
+				runner.run("World.evolve", nbEntities, evolve(nbEntities), getFramesPerIteration());
+			if ("World.getFirstCollision".contains(filter))
+				runner.run("World.getFirstCollision", nbEntities, getFirstCollision(nbEntities));
+			if ("Entity.getTimeToCollision".contains(filter))
+				runner.run("Entity.getTimeToCollision", nbEntities, getTimeToCollision(nbEntities));
+			if ("Entity.pairTest".contains(filter))
+				runner.run("Entity.pairTest", nbEntities, pairTest(nbEntities));
+			if ("Ship.fireBullet".contains(filter)){
+				Benchmark fireBullet = fireBullet(nbEntities);
+				if (fireBullet == null)
+					System.out.println(String.format("%-24s %7d   skipped: bullets cannot be loaded on a ship",
+							"Ship.fireBullet", nbEntities));
+				else
+					runner.run("Ship.fireBullet", nbEntities, fireBullet);
+			}
+			if ("World.queryEntities".contains(filter))
+				runner.run("World.queryEntities", nbEntities, queryEntities(nbEntities));
+			if ("World.getNearestEntity".contains(filter))
+				runner.run("World.getNearestEntity", nbEntities, getNearestEntity(nbEntities));
+			if ("World.addEntity".contains(filter))
+				runner.run("World.addEntity", nbEntities, addEntity(nbEntities));
+		}
+		if (runner.getSink() == 42)
+			System.out.println();
+	}
+
+	/**
+	 * Return a benchmark that evolves a world of the given size during one frame.
+	 * Every iteration starts from a new world, since entities die and bounce while the
+	 * world evolves.
+	 */
+	public static Benchmark evolve(final int nbEntities){
+		return new Benchmark(){
+			@Override
+			public void setUp(){
+				world = createWorld(nbEntities, getSeed());
+			}
+			@Override
+			public Object run(){
+				world.evolve(getFrameTime(), null);
+				return world;
+			}
+			private World world;
+		};
+	}
+
+	/**
+	 * Return a benchmark that looks for the first collision in a world of the given size.
+	 */
+	public static Benchmark getFirstCollision(final int nbEntities){
+		return new Benchmark(){
+			@Override
+			public void setUp(){
+				if (world == null)
+					world = createWorld(nbEntities, getSeed());
+			}
+			@Override
+			public Object run(){
+				return world.getFirstCollision();
+			}
+			private World world;
+		};
+	}
+
+	/**
+	 * Return a benchmark that computes the time to collision of successive pairs of
+	 * entities in a world of the given size. One operation handles one pair.
+	 */
+	public static Benchmark getTimeToCollision(final int nbEntities){
+		return new Benchmark(){
+			@Override
+			public void setUp(){
+				if (entities == null)
+					entities = createWorld(nbEntities, getSeed()).queryEntities().toArray(new Entity[0]);
+			}
+			@Override
+			public Object run(){
+				index = (index+1) % entities.length;
+				Entity first = entities[index];
+				Entity second = entities[(index+1) % entities.length];
+				if (first == second)
+					return null;
+				return first.getTimeToCollision(second);
+			}
+			private Entity[] entities;
+			private int index = 0;
+		};
+	}
+
+	/**
+	 * Return a benchmark that tests successive pairs of entities of a world of the given
+	 * size for overlap, distance and time to collision, the way collision prediction does.
+	 * One operation tests one pair; the result is one of both entities, so the benchmark
+	 * itself does not allocate.
+	 */
+	public static Benchmark pairTest(final int nbEntities){
+		return new Benchmark(){
+			@Override
+			public void setUp(){
+				if (entities == null)
+					entities = createWorld(nbEntities, getSeed()).queryEntities().toArray(new Entity[0]);
+			}
+			@Override
+			public Object run(){
+				index = (index+1) % entities.length;
+				Entity first = entities[index];
+				Entity second = entities[(index+1) % entities.length];
+				if (first == second || first.overlapSignificantly(second))
+					return null;
+				double time = first.getTimeToCollision(second);
+				return (time < first.getDistanceBetween(second)) ? first : second;
+			}
+			private Entity[] entities;
+			private int index = 0;
+		};
+	}
+
+	/**
+	 * Return a benchmark that fires a bullet from a ship in a world of the given size and
+	 * loads a new bullet on that ship, or null if bullets cannot be loaded on ships.
+	 * Every iteration starts from a new world, since fired bullets stay in the world.
+	 */
+	public static Benchmark fireBullet(final int nbEntities){
+		try {
+			new Ship().loadBullets(new Bullet());
+		} catch (IllegalArgumentException exc){
+			return null;
+		}
+		return new Benchmark(){
+			@Override
+			public void setUp(){
+				World world = createWorld(nbEntities, getSeed());
+				ship = world.queryShips().iterator().next();
+				ship.loadBullets(new Bullet());
+			}
+			@Override
+			public Object run(){
+				ship.fireBullet();
+				ship.loadBullets(new Bullet());
+				return ship;
+			}
+			private Ship ship;
+		};
+	}
+
+	/**
+	 * Return a benchmark that queries all entities of a world of the given size.
+	 */
+	public static Benchmark queryEntities(final int nbEntities){
+		return new Benchmark(){
+			@Override
+			public void setUp(){
+				if (world == null)
+					world = createWorld(nbEntities, getSeed());
+			}
+			@Override
+			public Object run(){
+				return world.queryEntities();
+			}
+			private World world;
+		};
+	}
+
+	/**
+	 * Return a benchmark that looks for the ship nearest to successive entities of a world
+	 * of the given size. One operation handles one entity; the world does not change, so
+	 * its index is only built once.
+	 */
+	public static Benchmark getNearestEntity(final int nbEntities){
+		return new Benchmark(){
+			@Override
+			public void setUp(){
+				if (world == null){
+					world = createWorld(nbEntities, getSeed());
+					entities = world.queryEntities().toArray(new Entity[0]);
+				}
+			}
+			@Override
+			public Object run(){
+				index = (index+1) % entities.length;
+				return world.getNearestEntity(entities[index], Ship.class);
+			}
+			private World world;
+			private Entity[] entities;
+			private int index = 0;
+		};
+	}
+
+	/**
+	 * Return a benchmark that places a bullet at successive positions in a world of the
+	 * given size, and removes it again if it could be placed. One operation handles one
+	 * position; no entity moves, so the index of the world is only built again after many
+	 * bullets were placed and removed.
+	 */
+	public static Benchmark addEntity(final int nbEntities){
+		return new Benchmark(){
+			@Override
+			public void setUp(){
+				if (world == null){
+					world = createWorld(nbEntities, getSeed());
+					Random random = new Random(getSeed());
+					bullets = new Bullet[1024];
+					for (int index=0; index < bullets.length; index++)
+						bullets[index] = new Bullet(world.getWidth()*random.nextDouble(),
+								world.getHeight()*random.nextDouble(), 0, 0, 1);
+				}
+			}
+			@Override
+			public Object run(){
+				index = (index+1) % bullets.length;
+				Bullet bullet = bullets[index];
+				if (!world.canHaveAsEntity(bullet))
+					return null;
+				world.addEntity(bullet);
+				world.removeEntity(bullet);
+				return bullet;
+			}
+			private World world;
+			private Bullet[] bullets;
+			private int index = 0;
+		};
+	}
+
+	/**
+	 * Create a world with the given number of entities, based on the given seed.
+	 *
+	 * @param nbEntities
+	 * 			The number of entities in the new world.
+	 * @param seed
+	 * 			The seed of the random placement of the entities.
+	 * @return	A world with nbEntities entities, of which every fourth is a ship and
+	 * 			the others are bullets. The entities do not overlap.
+	 */
+	public static World createWorld(int nbEntities, long seed){
+		Random random = new Random(seed);
+		int nbCells = (int)Math.ceil(Math.sqrt(nbEntities));
+		double cellSize = getCellSize();
+		World world = new World(nbCells*cellSize, nbCells*cellSize);
+
+		List<Entity> entities = new ArrayList<Entity>();
+		for (int index=0; index < nbEntities; index++){
+			boolean isShip = (index % 4 == 0);
+			double radius = isShip ? 10+5*random.nextDouble() : 2+3*random.nextDouble();
+			// Keep the entity inside its own cell, so it cannot overlap with any other.
+			double margin = radius+1;
+			double x = (index % nbCells)*cellSize+margin+(cellSize-2*margin)*random.nextDouble();
+			double y = (index / nbCells)*cellSize+margin+(cellSize-2*margin)*random.nextDouble();
+			double velocityX = 100*random.nextDouble()-50;
+			double velocityY = 100*random.nextDouble()-50;
+
+			if (isShip)
+				entities.add(new Ship(x, y, velocityX, velocityY, radius, 2*Math.PI*random.nextDouble()));
+			else
+				entities.add(new Bullet(x, y, velocityX, velocityY, radius));
+		}
+		for (Entity entity: entities)
+			world.addEntity(entity);
+		return world;
+	}
+
+	/**
+	 * Return the seed of the worlds of the benchmarks.
+	 *
+	 * @see implementation
+	 */
+	public static long getSeed(){
+		return 1617;
+	}
+
+	/**
+	 * Return the duration of one frame of an evolving world, in seconds.
+	 *
+	 * @see implementation
+	 */
+	public static double getFrameTime(){
+		return 1.0/30;
+	}
+
+	/**
+	 * Return the maximal number of frames a world evolves during one iteration.
+	 *
+	 * @see implementation
+	 */
+	public static int getFramesPerIteration(){
+		return 300;
+	}
+
+	/**
+	 * Return the length of the sides of the cells over which entities are spread.
+	 *
+	 * @see implementation
+	 */
+	public static double getCellSize(){
+		return 50;
+	}
+}
@@ -2,6 +2,7 @@ package asteroids.facade;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import asteroids.model.Bullet;
@@ -12,6 +13,7 @@ import asteroids.model.World;
 import asteroids.model.Asteroid;
 import asteroids.model.Planetoid;
 import asteroids.model.Program;
+import asteroids.model.programs.ProgramFactory;
 
 import asteroids.part2.CollisionListener;
 import asteroids.part3.programs.IProgramFactory;
@@ -563,7 +565,8 @@ public class Facade implements asteroids.part3.facade.IFacade{
 	@Override
 	public Set<? extends Ship> getWorldShips(World world) throws ModelException {
 		try {
-			return world.queryShips();
+			// The GUI fires bullets from these ships while it iterates them.
+			return world.queryShipsSnapshot();
 		} catch (IllegalArgumentException E){
 			throw new ModelException("IllegalArgumentException");
 		} catch (AssertionError E){
@@ -842,8 +845,15 @@ public class Facade implements asteroids.part3.facade.IFacade{
 
 	@Override
 	public Set<? extends Asteroid> getWorldAsteroids(World world) throws ModelException {
-		// TODO Auto-generated method stub
-		return null;
+		try {
+			return world.queryAsteroids();
+		} catch (IllegalArgumentException E){
+			throw new ModelException("IllegalArgumentException");
+		} catch (AssertionError E){
+			throw new ModelException("AssertionError");
+		} catch (NullPointerException E){
+			throw new ModelException("NullPointerException");
+		}
 	}
 
 	@Override
@@ -860,8 +870,15 @@ public class Facade implements asteroids.part3.facade.IFacade{
 
 	@Override
 	public Set<? extends Planetoid> getWorldPlanetoids(World world) throws ModelException {
-		// TODO Auto-generated method stub
-		return null;
+		try {
+			return world.queryPlanetoids();
+		} catch (IllegalArgumentException E){
+			throw new ModelException("IllegalArgumentException");
+		} catch (AssertionError E){
+			throw new ModelException("AssertionError");
+		} catch (NullPointerException E){
+			throw new ModelException("NullPointerException");
+		}
 	}
 
 	@Override
@@ -982,25 +999,70 @@ public class Facade implements asteroids.part3.facade.IFacade{
 
 	@Override
 	public Program getShipProgram(Ship ship) throws ModelException {
-		// TODO Auto-generated method stub
-		return null;
+		try {
+			return ship.getProgram();
+		} catch (IllegalArgumentException E){
+			throw new ModelException("IllegalArgumentException");
+		} catch (AssertionError E){
+			throw new ModelException("AssertionError");
+		} catch (NullPointerException E){
+			throw new ModelException("NullPointerException");
+		}
 	}
 
 	@Override
 	public void loadProgramOnShip(Ship ship, Program program) throws ModelException {
-		// TODO Auto-generated method stub
-		
+		try {
+			ship.loadProgram(program);
+		} catch (IllegalArgumentException E){
+			throw new ModelException("IllegalArgumentException");
+		} catch (AssertionError E){
+			throw new ModelException("AssertionError");
+		} catch (NullPointerException E){
+			throw new ModelException("NullPointerException");
+		}
 	}
 
 	@Override
 	public List<Object> executeProgram(Ship ship, double dt) throws ModelException {
-		// TODO Auto-generated method stub
-		return null;
+		try {
+			return ship.executeProgram(dt);
+		} catch (IllegalArgumentException E){
+			throw new ModelException("IllegalArgumentException");
+		} catch (IllegalStateException E){
+			throw new ModelException("IllegalStateException");
+		} catch (AssertionError E){
+			throw new ModelException("AssertionError");
+		} catch (NullPointerException E){
+			throw new ModelException("NullPointerException");
+		}
+	}
+
+	/**
+	 * Execute the programs of all the ships in the given world during the given amount
+	 * of time. The programs are executed in parallel, and their actions are applied
+	 * afterwards, in the order in which the ships were added to the world.
+	 * 
+	 * Return a map with every ship of the world that has a program as key. The value of
+	 * a ship is the list of values that its program printed if it is finished, and null
+	 * otherwise.
+	 */
+	public Map<Ship, List<Object>> executeAllPrograms(World world, double dt) throws ModelException {
+		try {
+			return world.executeAllPrograms(dt);
+		} catch (IllegalArgumentException E){
+			throw new ModelException("IllegalArgumentException");
+		} catch (IllegalStateException E){
+			throw new ModelException("IllegalStateException");
+		} catch (AssertionError E){
+			throw new ModelException("AssertionError");
+		} catch (NullPointerException E){
+			throw new ModelException("NullPointerException");
+		}
 	}
 
 	@Override
 	public IProgramFactory<?, ?, ?, ? extends Program> createProgramFactory() throws ModelException {
-		// TODO Auto-generated method stub
-		return null;
+		return new ProgramFactory();
 	}
 }
@@ -0,0 +1,32 @@
+package asteroids.model;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * An interface for the broad phase of the collision prediction in a game world.
+ *
+ * - A broad phase is built from a list of entities and a time horizon.
+ * - Two entities that can collide within that time horizon must be reported as
+ *   candidates of each other. Entities that are reported may still never collide.
+ * - Entities are referred to by their index in the list the broad phase was built from.
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+interface BroadPhase {
+
+	/**
+	 * Return the indices of all the entities that may collide with the entity
+	 * at the given index during the horizon of this broad phase.
+	 * Only indices that are larger than the given index are returned, so every
+	 * candidate pair is reported exactly once.
+	 *
+	 * @param index
+	 * 			The index of the entity whose candidates have to be returned.
+	 * @return	An array of indices in ascending order, all larger than the given index.
+	 */
+	int[] getCandidates(int index);
+}
@@ -0,0 +1,32 @@
+package asteroids.model;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * An enumeration of the broad phases that a game world can use to predict its collisions.
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+public enum BroadPhaseMode {
+
+	/**
+	 * Every pair of entities is checked.
+	 */
+	PAIRWISE,
+
+	/**
+	 * Entities are registered in a uniform grid, that is only used for large worlds
+	 * and finite time horizons.
+	 */
+	GRID,
+
+	/**
+	 * Entities are kept sorted on the x-axis between predictions, and only the entities
+	 * whose intervals overlap are checked.
+	 */
+	SWEEP_AND_PRUNE
+}
@@ -140,7 +140,7 @@ public class Bullet extends Entity {
 	/**
 	 * Variable registering the minimal radius of every bullet.
 	 */
-	private static double minimumRadius = 1;
+	private static final double minimumRadius = 1;
 	
 	
 	// Mass [TOTAL]
@@ -168,7 +168,7 @@ public class Bullet extends Entity {
 	/**
 	 * Variable registering the density of bullets.
 	 */
-	private static double density = 7.12*Math.pow(10.0, 12.0);
+	private static final double density = 7.12*Math.pow(10.0, 12.0);
 	
 	
 	// Bounce counter
@@ -340,5 +340,5 @@ public class Bullet extends Entity {
 	/**
 	 * Variable registering the Speed of light.
 	 */
-   	static double c = 300000.0;	 
+   	static final double c = 300000.0;	 
 }
@@ -0,0 +1,222 @@
+package asteroids.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * A class representing a uniform grid that is used as the broad phase of the
+ * collision prediction in a game world.
+ *
+ * - Every entity is registered in each cell that is touched by the bounding box
+ *   it sweeps during a given time horizon.
+ * - Two entities can only collide within that time horizon if their swept
+ *   bounding boxes overlap, and thus if they share at least one cell.
+ * - Entities are referred to by their index in the list the grid was built from.
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+class CollisionGrid implements BroadPhase {
+
+	/**
+	 * Initialize this new grid with the given entities of the given world,
+	 * swept over the given time horizon.
+	 *
+	 * @param world
+	 * 			The world in which all the given entities lie.
+	 * @param entities
+	 * 			The entities that have to be registered in this grid.
+	 * @param horizon
+	 * 			The time interval over which the movement of the entities is considered.
+	 * @pre		The given horizon is finite and not negative.
+	 * 			| 0 <= horizon < Double.POSITIVE_INFINITY
+	 */
+	CollisionGrid(World world, List<Entity> entities, double horizon){
+		int nbEntities = entities.size();
+		double[] bounds = new double[4*nbEntities];
+		double totalExtent = 0;
+
+		// -- Step 1: compute the swept bounding box of every entity
+		for (int index=0; index < nbEntities; index++){
+			Entity entity = entities.get(index);
+			double x = entity.getPositionX();
+			double y = entity.getPositionY();
+			double radius = entity.getRadius();
+			double endX = x+entity.getVelocityX()*horizon;
+			double endY = y+entity.getVelocityY()*horizon;
+
+			// An entity never leaves its world, so its box can be clipped to the
+			// boundaries (widened with its own radius).
+			bounds[4*index] = Math.max(Math.min(x, endX)-radius, -radius);
+			bounds[4*index+1] = Math.max(Math.min(y, endY)-radius, -radius);
+			bounds[4*index+2] = Math.min(Math.max(x, endX)+radius, world.getWidth()+radius);
+			bounds[4*index+3] = Math.min(Math.max(y, endY)+radius, world.getHeight()+radius);
+
+			totalExtent += Math.max(bounds[4*index+2]-bounds[4*index], bounds[4*index+3]-bounds[4*index+1]);
+		}
+
+		// -- Step 2: choose the size of the cells
+		double minimalCellSize = Math.max(world.getWidth(), world.getHeight())/getMaxCellsPerAxis();
+		this.cellSize = Math.max(totalExtent/Math.max(nbEntities, 1), minimalCellSize);
+
+		// -- Step 3: register every entity in the cells touched by its box
+		this.entityCells = new long[nbEntities][];
+		this.isOversized = new boolean[nbEntities];
+		this.oversizedEntities = new int[nbEntities];
+		for (int index=0; index < nbEntities; index++){
+			int minCellX = toCell(bounds[4*index]);
+			int minCellY = toCell(bounds[4*index+1]);
+			int maxCellX = toCell(bounds[4*index+2]);
+			int maxCellY = toCell(bounds[4*index+3]);
+
+			// Entities that sweep a very large area are compared with every other entity.
+			if (maxCellX-minCellX >= getMaxCellsPerEntityAxis() || maxCellY-minCellY >= getMaxCellsPerEntityAxis()){
+				isOversized[index] = true;
+				oversizedEntities[nbOversizedEntities++] = index;
+				entityCells[index] = new long[0];
+				continue;
+			}
+
+			long[] keys = new long[(maxCellX-minCellX+1)*(maxCellY-minCellY+1)];
+			int nbKeys = 0;
+			for (int cellX=minCellX; cellX <= maxCellX; cellX++){
+				for (int cellY=minCellY; cellY <= maxCellY; cellY++){
+					long key = toKey(cellX, cellY);
+					keys[nbKeys++] = key;
+
+					List<Integer> cell = cells.get(key);
+					if (cell == null){
+						cell = new ArrayList<Integer>();
+						cells.put(key, cell);
+					}
+					cell.add(index);
+				}
+			}
+			entityCells[index] = keys;
+		}
+		this.marks = new int[nbEntities];
+		Arrays.fill(marks, -1);
+	}
+
+	/**
+	 * Return the indices of all the entities that may collide with the entity
+	 * at the given index during the horizon of this grid.
+	 * Only indices that are larger than the given index are returned, so every
+	 * candidate pair is reported exactly once.
+	 *
+	 * @param index
+	 * 			The index of the entity whose candidates have to be returned.
+	 * @return	An array of indices in ascending order, all larger than the given index.
+	 */
+	@Override
+	public int[] getCandidates(int index){
+		int[] result = new int[8];
+		int nbCandidates = 0;
+
+		// An oversized entity has to be compared with every other entity.
+		if (isOversized[index]){
+			result = new int[Math.max(marks.length-index-1, 0)];
+			for (int other=index+1; other < marks.length; other++)
+				result[nbCandidates++] = other;
+			return result;
+		}
+
+		for (long key: entityCells[index]){
+			for (int other: cells.get(key)){
+				if (other > index && marks[other] != index){
+					marks[other] = index;
+					if (nbCandidates == result.length)
+						result = Arrays.copyOf(result, 2*nbCandidates);
+					result[nbCandidates++] = other;
+				}
+			}
+		}
+		for (int i=0; i < nbOversizedEntities; i++){
+			int other = oversizedEntities[i];
+			if (other > index && marks[other] != index){
+				marks[other] = index;
+				if (nbCandidates == result.length)
+					result = Arrays.copyOf(result, 2*nbCandidates);
+				result[nbCandidates++] = other;
+			}
+		}
+		result = Arrays.copyOf(result, nbCandidates);
+		Arrays.sort(result);
+		return result;
+	}
+
+	/**
+	 * Return the index of the cell that contains the given coordinate.
+	 */
+	private int toCell(double coordinate){
+		return (int)Math.floor(coordinate/cellSize);
+	}
+
+	/**
+	 * Return the key of the cell with the given indices.
+	 */
+	private static long toKey(int cellX, int cellY){
+		return (((long)cellX) << 32) ^ (cellY & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Return the maximal number of cells along one axis of the world.
+	 *
+	 * @see implementation
+	 */
+	private static int getMaxCellsPerAxis(){
+		return 256;
+	}
+
+	/**
+	 * Return the maximal number of cells that one entity can span along one axis
+	 * before it is compared with every other entity.
+	 *
+	 * @see implementation
+	 */
+	private static int getMaxCellsPerEntityAxis(){
+		return 16;
+	}
+
+	/**
+	 * Variable registering the length of the sides of the cells of this grid.
+	 */
+	private final double cellSize;
+
+	/**
+	 * A Map that contains the indices of the entities registered in a cell as value
+	 * and the key of that cell as the corresponding key.
+	 */
+	private final Map<Long, List<Integer>> cells = new HashMap<Long, List<Integer>>();
+
+	/**
+	 * Variable registering the keys of the cells of every entity, by index.
+	 */
+	private final long[][] entityCells;
+
+	/**
+	 * Variable registering, for every entity, whether it is compared with every other entity.
+	 */
+	private final boolean[] isOversized;
+
+	/**
+	 * Variables registering the indices of the entities that are compared with every other
+	 * entity, in ascending order, and their number.
+	 */
+	private final int[] oversizedEntities;
+	private int nbOversizedEntities = 0;
+
+	/**
+	 * Variable registering, for every entity, the last index for which it was reported
+	 * as a candidate.
+	 */
+	private final int[] marks;
+}
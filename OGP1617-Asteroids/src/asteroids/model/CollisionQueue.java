@@ -0,0 +1,251 @@
+package asteroids.model;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * A class representing a queue of the predicted collisions in a game world during
+ * one evolution of that world.
+ *
+ * - Predicted collisions are ordered by the absolute time (the time of the world) at
+ *   which they happen. Collisions that happen at the same time are ordered in the
+ *   order in which they were predicted.
+ * - Every predicted collision remembers the motion versions of its entities. When the
+ *   motion of one of those entities changes, the prediction is stale and is skipped.
+ * - Only the collisions that happen before the end of the evolution are kept.
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+class CollisionQueue {
+
+	/**
+	 * Initialize this new queue with all collisions that will happen in the given world
+	 * before the given end time.
+	 *
+	 * @param world
+	 * 			The world whose collisions have to be predicted.
+	 * @param endTime
+	 * 			The absolute time at which the evolution of the given world ends.
+	 */
+	CollisionQueue(World world, double endTime){
+		this.world = world;
+		this.endTime = endTime;
+
+		List<Entity> entities = world.getEntityList();
+		BroadPhase broadPhase = world.getBroadPhase(endTime-world.getTime());
+
+		for (int firstIndex=0; firstIndex < entities.size(); firstIndex++){
+			Entity firstEntity = entities.get(firstIndex);
+
+			for (int secondIndex: broadPhase.getCandidates(firstIndex))
+				schedule(firstEntity, entities.get(secondIndex));
+			scheduleBoundary(firstEntity);
+			scheduledVersions.put(firstEntity, firstEntity.getMotionVersion());
+		}
+	}
+
+	/**
+	 * Remove and return the first collision of this queue that is still valid.
+	 *
+	 * @return	The first predicted collision whose entities still lie in the world of this
+	 * 			queue and did not change their motion since the prediction, or null if there
+	 * 			is no such collision.
+	 */
+	Event poll(){
+		Event event = events.poll();
+		while (event != null && !event.isValid(world))
+			event = events.poll();
+		return event;
+	}
+
+	/**
+	 * Return the first collision of this queue that is still valid, without removing it.
+	 *
+	 * @return	The collision that would be returned by poll(), or null if there is no
+	 * 			such collision.
+	 */
+	Event peek(){
+		Event event = events.peek();
+		while (event != null && !event.isValid(world)){
+			events.poll();
+			event = events.peek();
+		}
+		return event;
+	}
+
+	/**
+	 * Predict the collisions of the given entity again, if its motion changed since its
+	 * collisions were predicted for the last time.
+	 *
+	 * @param entity
+	 * 			The entity whose collisions have to be predicted again.
+	 * @post	If the entity still lies in the world of this queue and its motion changed,
+	 * 			its collisions with all other entities of that world and with the boundaries
+	 * 			are predicted again.
+	 */
+	void reschedule(Entity entity){
+		if (entity.getWorld() != world)
+			return;
+		Long scheduledVersion = scheduledVersions.get(entity);
+		if (scheduledVersion != null && scheduledVersion == entity.getMotionVersion())
+			return;
+
+		for (Entity otherEntity: world.getEntityList())
+			if (otherEntity != entity)
+				schedule(entity, otherEntity);
+		scheduleBoundary(entity);
+		scheduledVersions.put(entity, entity.getMotionVersion());
+	}
+
+	/**
+	 * Predict the collision between the given entities and add it to this queue if it
+	 * happens before the end time of this queue.
+	 */
+	private void schedule(Entity firstEntity, Entity secondEntity){
+		double time = world.getTime()+world.predictTimeToCollision(firstEntity, secondEntity);
+		if (time <= endTime)
+			events.add(new Event(time, firstEntity, secondEntity, nbScheduledEvents++));
+	}
+
+	/**
+	 * Predict the collision between the given entity and a boundary of the world of this
+	 * queue and add it to this queue if it happens before the end time of this queue.
+	 */
+	private void scheduleBoundary(Entity entity){
+		double time = world.getTime()+world.getTimeToCollisionWithBoundaries(entity);
+		if (time <= endTime)
+			events.add(new Event(time, entity, null, nbScheduledEvents++));
+	}
+
+	/**
+	 * Variable registering the world whose collisions are predicted by this queue.
+	 */
+	private final World world;
+
+	/**
+	 * Variable registering the absolute time after which collisions are no longer predicted.
+	 */
+	private final double endTime;
+
+	/**
+	 * A priority queue registering the predicted collisions, the first collision at its head.
+	 */
+	private final PriorityQueue<Event> events = new PriorityQueue<Event>();
+
+	/**
+	 * A Map that contains the motion version of an entity at the moment its collisions
+	 * were last predicted as value and that entity as the corresponding key.
+	 */
+	private final Map<Entity, Long> scheduledVersions = new IdentityHashMap<Entity, Long>();
+
+	/**
+	 * Variable registering the number of collisions that have been added to this queue.
+	 */
+	private long nbScheduledEvents = 0;
+
+
+	/**
+	 * A class representing one predicted collision in a collision queue.
+	 */
+	static class Event implements Comparable<Event> {
+
+		/**
+		 * Initialize this new event with the given time, entities and sequence number.
+		 *
+		 * @param time
+		 * 			The absolute time at which the collision happens.
+		 * @param firstEntity
+		 * 			The first entity involved in the collision.
+		 * @param secondEntity
+		 * 			The second entity involved in the collision, or null if the first
+		 * 			entity collides with a boundary.
+		 * @param sequence
+		 * 			The number of events that were predicted before this event.
+		 */
+		private Event(double time, Entity firstEntity, Entity secondEntity, long sequence){
+			this.time = time;
+			this.firstEntity = firstEntity;
+			this.secondEntity = secondEntity;
+			this.firstVersion = firstEntity.getMotionVersion();
+			this.secondVersion = (secondEntity == null) ? 0 : secondEntity.getMotionVersion();
+			this.sequence = sequence;
+		}
+
+		/**
+		 * Return the absolute time at which this collision happens.
+		 */
+		double getTime(){
+			return this.time;
+		}
+
+		/**
+		 * Return the first entity involved in this collision.
+		 */
+		Entity getFirstEntity(){
+			return this.firstEntity;
+		}
+
+		/**
+		 * Return the second entity involved in this collision, null for a collision
+		 * with a boundary.
+		 */
+		Entity getSecondEntity(){
+			return this.secondEntity;
+		}
+
+		/**
+		 * Check whether this predicted collision is still valid in the given world.
+		 *
+		 * @return	True if and only if all involved entities still lie in the given world
+		 * 			and their motion versions did not change since the prediction.
+		 */
+		boolean isValid(World world){
+			if (firstEntity.getWorld() != world || firstEntity.getMotionVersion() != firstVersion)
+				return false;
+			if (secondEntity == null)
+				return true;
+			return secondEntity.getWorld() == world && secondEntity.getMotionVersion() == secondVersion;
+		}
+
+		/**
+		 * Compare this event with the given other event.
+		 * Events are ordered by time, events at the same time by sequence number.
+		 */
+		@Override
+		public int compareTo(Event other){
+			int result = Double.compare(time, other.time);
+			if (result == 0)
+				result = Long.compare(sequence, other.sequence);
+			return result;
+		}
+
+		/**
+		 * Variable registering the absolute time of this collision.
+		 */
+		private final double time;
+
+		/**
+		 * Variables registering the entities involved in this collision.
+		 */
+		private final Entity firstEntity, secondEntity;
+
+		/**
+		 * Variables registering the motion versions of the involved entities at the
+		 * moment of the prediction.
+		 */
+		private final long firstVersion, secondVersion;
+
+		/**
+		 * Variable registering the number of events that were predicted before this event.
+		 */
+		private final long sequence;
+	}
+}
@@ -125,7 +125,29 @@ public abstract class Entity {
 	 */
 	@Basic
 	public Vector getPosition() {
-		return this.position;
+		return new Vector(getPositionX(), getPositionY());
+	}
+	
+	/**
+	 * Return the x-component of the position of this entity.
+	 * 
+	 * @return	| result == getPosition().getX()
+	 */
+	public double getPositionX(){
+		if (store != null)
+			return store.x[slot];
+		return this.positionX;
+	}
+	
+	/**
+	 * Return the y-component of the position of this entity.
+	 * 
+	 * @return	| result == getPosition().getY()
+	 */
+	public double getPositionY(){
+		if (store != null)
+			return store.y[slot];
+		return this.positionY;
 	}
 	
 	/**
@@ -153,7 +175,16 @@ public abstract class Entity {
 		if (!isValidPositionComponent(y))
 			throw new IllegalArgumentException("The given Y-component is not valid.");
 		
-		this.position = new Vector(x, y);
+		if (store != null){
+			store.x[slot] = x;
+			store.y[slot] = y;
+		} else {
+			this.positionX = x;
+			this.positionY = y;
+		}
+		this.motionVersion++;
+		if (getWorld() != null)
+			getWorld().invalidatePositionIndexes();
 	}
 		
 	/**
@@ -186,15 +217,42 @@ public abstract class Entity {
 	public void move(double duration) throws IllegalArgumentException{
 		if (Double.isNaN(duration))
 			throw new IllegalArgumentException("Duration cannot be NaN");
-		Vector current_pos = getPosition();
-		Vector current_vel = getVelocity();
-		setPosition(current_pos.getX()+current_vel.getX()*duration, current_pos.getY()+current_vel.getY()*duration);
+		setPosition(getPositionX()+getVelocityX()*duration, getPositionY()+getVelocityY()*duration);
 	}
 	
 	/**
-	 * Variable registering the position of this entity.
+	 * Change the position of this entity along its current trajectory, based on the 
+	 * current position, velocity and given duration.
+	 * 
+	 * Unlike move, this method does not change the motion version of this entity, since
+	 * the entity stays on the trajectory that was used to predict its collisions.
+	 * 
+	 * @param duration
+	 * 				The considered duration of the movement.
+	 * @post		The position of this entity will be set to the position it has after the
+	 * 				considered amount of time.
+	 * 				| new.getPosition().getX() == getPosition().getX()+duration*getVelocity().getX()
+	 * 				| new.getPosition().getY() == getPosition().getY()+duration*getVelocity().getY()
+	 * @post		The motion version of this entity is not changed.
+	 * 				| new.getMotionVersion() == getMotionVersion()
+	 * @throws	IllegalArgumentException
+	 * 				The resulting position is not valid.
+	 * 				| !isValidPositionComponent(new.getPosition().getX()) ||
+	 * 				| !isValidPositionComponent(new.getPosition().getY())
+	 * 
+	 * This is a helper method for the evolution of a world.
 	 */
-	private Vector position = new Vector(0, 0);
+	void advance(double duration) throws IllegalArgumentException{
+		long version = getMotionVersion();
+		move(duration);
+		this.motionVersion = version;
+	}
+	
+	/**
+	 * Variables registering the position of this entity while it is not stored
+	 * in an entity store.
+	 */
+	private double positionX, positionY;
 
 
 	// Velocity [TOTAL]
@@ -206,7 +264,29 @@ public abstract class Entity {
 	 */	
 	@Basic
 	public Vector getVelocity() {
-		return this.velocity;
+		return new Vector(getVelocityX(), getVelocityY());
+	}
+	
+	/**
+	 * Return the x-component of the velocity of this entity.
+	 * 
+	 * @return	| result == getVelocity().getX()
+	 */
+	public double getVelocityX(){
+		if (store != null)
+			return store.vx[slot];
+		return this.velocityX;
+	}
+	
+	/**
+	 * Return the y-component of the velocity of this entity.
+	 * 
+	 * @return	| result == getVelocity().getY()
+	 */
+	public double getVelocityY(){
+		if (store != null)
+			return store.vy[slot];
+		return this.velocityY;
 	}
 
 	/**
@@ -232,7 +312,7 @@ public abstract class Entity {
 		if (Double.isNaN(velocityX) || (Double.isNaN(velocityY)))
 			return;
 		if (isValidVelocity(velocityX, velocityY)){
-			this.velocity = new Vector(velocityX, velocityY);
+			storeVelocity(velocityX, velocityY);
 		} else if (Double.isInfinite(velocityX) || Double.isInfinite(velocityY))
 			// Do nothing when one of the two components is infinite.
 			return;
@@ -240,7 +320,21 @@ public abstract class Entity {
 		// If isValidVelocity returns False, it means that the total velocity > c
 		// So we will have to rescale the length of the vector and keep the original orientation.
 		double theta = Math.atan2(velocityY, velocityX);
-		this.velocity = new Vector(c*Math.cos(theta), c*Math.sin(theta));
+		storeVelocity(c*Math.cos(theta), c*Math.sin(theta));
+		}
+		this.motionVersion++;
+	}
+	
+	/**
+	 * Write the given components to the velocity of this entity, without any checks.
+	 */
+	private void storeVelocity(double velocityX, double velocityY){
+		if (store != null){
+			store.vx[slot] = velocityX;
+			store.vy[slot] = velocityY;
+		} else {
+			this.velocityX = velocityX;
+			this.velocityY = velocityY;
 		}
 	}
 	
@@ -263,7 +357,7 @@ public abstract class Entity {
    	 */
 	@Basic
 	public double getTotalVelocity(){
-		return getVelocity().norm();
+		return Math.sqrt(getVelocityX()*getVelocityX()+getVelocityY()*getVelocityY());
 	}
 	
 	/**
@@ -278,8 +372,7 @@ public abstract class Entity {
 	 */
 	@Basic
 	public boolean isValidVelocity(double velocityX, double velocityY){
-		Vector velocity = new Vector(velocityX,velocityY);
-		return velocity.norm() <= getSpeedLimit();
+		return Math.sqrt(velocityX*velocityX+velocityY*velocityY) <= getSpeedLimit();
 	}
 	
 	/**
@@ -298,9 +391,10 @@ public abstract class Entity {
 	}
 	
 	/**
-	 * Variable registering the velocity of this entity.
+	 * Variables registering the velocity of this entity while it is not stored
+	 * in an entity store.
 	 */
-	private Vector velocity = new Vector(0, 0);
+	private double velocityX, velocityY;
 	
 	/**
 	 * Variable registering the maximum velocity of this entity expressed in kilometers/s
@@ -308,6 +402,164 @@ public abstract class Entity {
 	private final double speedLimit;
 	
 	
+	// Motion version [TOTAL]
+	/**
+	 * Return the motion version of this entity.
+	 * 
+	 * The motion version is incremented every time the position or the velocity of
+	 * this entity is set, so collisions that were predicted with an older motion version
+	 * of this entity are no longer valid.
+	 * 
+	 * @see implementation
+	 */
+	@Basic
+	public long getMotionVersion(){
+		return this.motionVersion;
+	}
+	
+	/**
+	 * Variable registering the motion version of this entity.
+	 */
+	private long motionVersion = 0;
+	
+	
+	// Boundary collision cache [TOTAL]
+	/**
+	 * Return the time until this entity collides with a boundary of the given world at
+	 * the given time, as cached by the last call to cacheTimeToBoundary, or NaN if that
+	 * cached time is out of date.
+	 * 
+	 * @param world
+	 * 			The world whose boundaries are involved.
+	 * @param time
+	 * 			The time of the given world at which the time to collision is needed.
+	 * @return	NaN if no time was cached for the given world, or if the position or the
+	 * 			velocity of this entity was set since it was cached.
+	 * @return	Otherwise, the cached time to collision minus the time the given world
+	 * 			evolved since it was cached.
+	 * 
+	 * The time to collision with a boundary only depends on the motion of this entity,
+	 * which does not change while this entity moves freely.
+	 */
+	double getCachedTimeToBoundary(World world, double time){
+		if (world != boundaryCacheWorld || motionVersion != boundaryCacheVersion)
+			return Double.NaN;
+		if (time == boundaryCacheTime)
+			return timeToBoundary;
+		return timeToBoundary-(time-boundaryCacheTime);
+	}
+	
+	/**
+	 * Cache the given time until this entity collides with a boundary of the given world,
+	 * computed at the given time of that world.
+	 * 
+	 * @param world
+	 * 			The world whose boundaries are involved.
+	 * @param time
+	 * 			The time of the given world at which the time to collision was computed.
+	 * @param timeToBoundary
+	 * 			The time until this entity collides with a boundary of the given world.
+	 * @post	| new.getCachedTimeToBoundary(world, time) == timeToBoundary
+	 */
+	void cacheTimeToBoundary(World world, double time, double timeToBoundary){
+		this.boundaryCacheWorld = world;
+		this.boundaryCacheVersion = motionVersion;
+		this.boundaryCacheTime = time;
+		this.timeToBoundary = timeToBoundary;
+	}
+	
+	/**
+	 * Variables registering the world and the motion version of this entity for which
+	 * the time to collision with a boundary was cached; null if no time was cached.
+	 */
+	private World boundaryCacheWorld = null;
+	private long boundaryCacheVersion;
+	
+	/**
+	 * Variables registering the time of the world at which the time to collision with a
+	 * boundary was cached, and that time to collision.
+	 */
+	private double boundaryCacheTime, timeToBoundary;
+	
+	
+	// Impact cache [TOTAL]
+	/**
+	 * Return the row of predicted times to collision of this entity with the other
+	 * entities of its world.
+	 * 
+	 * @return	| result != null
+	 */
+	ImpactCache getImpactCache(){
+		if (impactCache == null)
+			impactCache = new ImpactCache();
+		return impactCache;
+	}
+	
+	/**
+	 * Drop all predicted times to collision of this entity.
+	 * 
+	 * This is a helper method for the world of this entity, when this entity leaves it.
+	 */
+	void clearImpactCache(){
+		this.impactCache = null;
+	}
+	
+	/**
+	 * Variable registering the row of predicted times to collision of this entity,
+	 * null as long as no time was predicted.
+	 */
+	private ImpactCache impactCache = null;
+	
+	
+	// Entity store [TOTAL]
+	/**
+	 * Store the position and velocity of this entity in the given store.
+	 * From now on, the position and velocity of this entity are read from and written
+	 * to that store.
+	 * 
+	 * @param store
+	 * 			The store in which this entity has to be stored.
+	 * @post	| new.getPosition().equals(getPosition()) && new.getVelocity().equals(getVelocity())
+	 * 
+	 * This is a helper method for the structure-of-arrays storage mode of a world.
+	 */
+	void attachToStore(EntityStore store){
+		if (this.store != null)
+			detachFromStore();
+		this.slot = store.add(this);
+		this.store = store;
+	}
+	
+	/**
+	 * Copy the position and velocity of this entity back from its store and remove
+	 * this entity from that store.
+	 * 
+	 * @post	| new.getPosition().equals(getPosition()) && new.getVelocity().equals(getVelocity())
+	 */
+	void detachFromStore(){
+		if (this.store == null)
+			return;
+		this.positionX = store.x[slot];
+		this.positionY = store.y[slot];
+		this.velocityX = store.vx[slot];
+		this.velocityY = store.vy[slot];
+		store.remove(slot);
+		this.store = null;
+		this.slot = -1;
+	}
+	
+	/**
+	 * Variable registering the store in which the state of this entity is kept,
+	 * null if this entity keeps its own state.
+	 */
+	private EntityStore store = null;
+	
+	/**
+	 * Variable registering the slot of this entity in its store.
+	 */
+	private int slot = -1;
+	
+	
 	// Radius [DEFENSIVE]
 	/**
 	 * get the radius of an Entity
@@ -388,6 +640,65 @@ public abstract class Entity {
    	 */
    	private World world;
    	
+   	/**
+   	 * Return the index of this entity in the list of entities of its world, or -1
+   	 * if this entity does not lie in a world.
+   	 * 
+   	 * @see implementation
+   	 */
+   	int getWorldIndex(){
+   		return this.worldIndex;
+   	}
+   	
+   	/**
+   	 * Set the index of this entity in the list of entities of its world to the given index.
+   	 * 
+   	 * @param index
+   	 * 			The new index of this entity.
+   	 * @post	| new.getWorldIndex() == index
+   	 * 
+   	 * This is a helper method for the world of this entity, which keeps the index up to date.
+   	 */
+   	void setWorldIndex(int index){
+   		this.worldIndex = index;
+   	}
+   	
+   	/**
+   	 * Variable registering the index of this entity in the list of entities of its world.
+   	 */
+   	private int worldIndex = -1;
+   	
+   	/**
+   	 * Return the identifier of this entity in its world, or -1 if this entity does not
+   	 * lie in a world.
+   	 * A world gives every entity that is added to it a new identifier, so the identifier
+   	 * of an entity does not change while it lies in the same world.
+   	 * 
+   	 * @see implementation
+   	 */
+   	@Basic
+   	public int getId(){
+   		return this.id;
+   	}
+   	
+   	/**
+   	 * Set the identifier of this entity in its world to the given identifier.
+   	 * 
+   	 * @param id
+   	 * 			The new identifier of this entity.
+   	 * @post	| new.getId() == id
+   	 * 
+   	 * This is a helper method for the world of this entity.
+   	 */
+   	void setId(int id){
+   		this.id = id;
+   	}
+   	
+   	/**
+   	 * Variable registering the identifier of this entity in its world.
+   	 */
+   	private int id = -1;
+   	
    	
    	// ------- Other functions --------
    	/**
@@ -398,9 +709,8 @@ public abstract class Entity {
    	 * @see implementation
    	 */
    	public double getDistanceBetweenCenters(Entity otherEntity){
- 		Vector differenceBetweenVectors = getPosition().subtract(otherEntity.getPosition());
- 		
-   		return differenceBetweenVectors.norm(); 
+   		return Kinematics.distance(getPositionX(), getPositionY(),
+   				otherEntity.getPositionX(), otherEntity.getPositionY());
    	}
    	
    	/**
@@ -467,11 +777,7 @@ public abstract class Entity {
 		if (this == otherEntity)
 			return 0;
 		
-		Vector thisPos = getPosition();
-		Vector otherPos = otherEntity.getPosition();
-				
-		Vector deltaPos = thisPos.subtract(otherPos);
-		double distanceBetweenMid = deltaPos.norm(); 
+		double distanceBetweenMid = getDistanceBetweenCenters(otherEntity);
 		double minRadius = Math.min(getRadius(), otherEntity.getRadius());
 		double maxRadius = Math.max(getRadius(), otherEntity.getRadius());
 		// The center of a ship is in the others radius.
@@ -539,26 +845,9 @@ public abstract class Entity {
 		if (getWorld() != otherEntity.getWorld())
 			return Double.POSITIVE_INFINITY;
 			
-		double totalRadius = getRadius()+otherEntity.getRadius();
-		
-		Vector thisPos = getPosition();
-		Vector otherPos = otherEntity.getPosition();
-		Vector deltaPos = otherPos.subtract(thisPos);
-		
-		Vector thisVel = getVelocity();
-		Vector otherVel = otherEntity.getVelocity();
-		Vector deltaVel = otherVel.subtract(thisVel);
-		
-		double VTimesR = deltaPos.dot(deltaVel);
-		double Vquad = deltaVel.squaredNorm(); 
-		double Rquad = deltaPos.squaredNorm();
-		
-		double d = Math.pow(VTimesR, 2.0)- Vquad*(Rquad-Math.pow(totalRadius, 2.0));
-		
-		if (VTimesR >= 0 || d <= 0)
-			return Double.POSITIVE_INFINITY;
-		
-		return -(VTimesR+Math.sqrt(d))/Vquad;
+		return Kinematics.getTimeToCollision(otherEntity.getPositionX()-getPositionX(),
+				otherEntity.getPositionY()-getPositionY(), otherEntity.getVelocityX()-getVelocityX(),
+				otherEntity.getVelocityY()-getVelocityY(), getRadius()+otherEntity.getRadius());
 	}
 
 	/** 
@@ -594,16 +883,17 @@ public abstract class Entity {
 		if (Double.isInfinite(deltaT))
 			return null;
 		
-		Vector pos = getPosition();
-		Vector vel = getVelocity();
-		Vector pos1 = otherEntity.getPosition();
-		Vector vel1 = otherEntity.getVelocity();
+		// The centers of both entities at the time of the collision
+		double x = getPositionX()+getVelocityX()*deltaT;
+		double y = getPositionY()+getVelocityY()*deltaT;
+		double x1 = otherEntity.getPositionX()+otherEntity.getVelocityX()*deltaT;
+		double y1 = otherEntity.getPositionY()+otherEntity.getVelocityY()*deltaT;
 		
-		double theta = Math.acos(( (pos1.getX()+vel1.getX()*deltaT) - (pos.getX()+vel.getX()*deltaT))/(getRadius()+otherEntity.getRadius()));
-		if (pos.getY() +vel.getY()*deltaT < pos1.getY() + vel1.getY()*deltaT)
-			return new Vector(pos.getX()+vel.getX()*deltaT+getRadius()*Math.cos(theta), pos.getY()+vel.getY()*deltaT+getRadius()*Math.sin(theta));
+		double theta = Math.acos((x1 - x)/(getRadius()+otherEntity.getRadius()));
+		if (y < y1)
+			return new Vector(x+getRadius()*Math.cos(theta), y+getRadius()*Math.sin(theta));
 		else
-			return new Vector(pos.getX()+vel.getX()*deltaT+ getRadius()*Math.cos(-theta), pos.getY()+vel.getY()*deltaT+getRadius()*Math.sin(-theta));
+			return new Vector(x+ getRadius()*Math.cos(-theta), y+getRadius()*Math.sin(-theta));
 	}
 	
 	// Entity termination
@@ -635,7 +925,7 @@ public abstract class Entity {
 	/**
 	 * Variable registering the Speed of light [km/s].
 	 */
-   	private static double c = 300000.0;
+   	private static final double c = 300000.0;
 
 }
  
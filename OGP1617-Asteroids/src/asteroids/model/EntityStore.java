@@ -0,0 +1,121 @@
+package asteroids.model;
+
+import java.util.Arrays;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * A class representing a structure-of-arrays store for the state of the entities
+ * that lie in a game world.
+ *
+ * - The position and velocity of every stored entity are kept in parallel arrays
+ *   of doubles, indexed by the slot of that entity.
+ * - The slot of an entity does not change as long as the entity is stored.
+ *   Slots of removed entities are reused by entities that are added later.
+ * - Entities that are stored read and write their position and velocity through
+ *   this store, so the world can move all of them in loops over primitives.
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+class EntityStore {
+
+	/**
+	 * Initialize this new store with room for the given number of entities.
+	 *
+	 * @param capacity
+	 * 			The initial number of slots of this store.
+	 */
+	EntityStore(int capacity){
+		int initialCapacity = Math.max(capacity, 8);
+		x = new double[initialCapacity];
+		y = new double[initialCapacity];
+		vx = new double[initialCapacity];
+		vy = new double[initialCapacity];
+		freeSlots = new int[initialCapacity];
+	}
+
+	/**
+	 * Store the state of the given entity in a free slot of this store.
+	 *
+	 * @param entity
+	 * 			The entity that has to be stored.
+	 * @return	The slot of the given entity.
+	 */
+	int add(Entity entity){
+		int slot;
+		if (nbFreeSlots > 0)
+			slot = freeSlots[--nbFreeSlots];
+		else {
+			if (size == x.length)
+				grow();
+			slot = size++;
+		}
+		x[slot] = entity.getPositionX();
+		y[slot] = entity.getPositionY();
+		vx[slot] = entity.getVelocityX();
+		vy[slot] = entity.getVelocityY();
+		return slot;
+	}
+
+	/**
+	 * Free the given slot of this store.
+	 *
+	 * @param slot
+	 * 			The slot that has to be freed.
+	 */
+	void remove(int slot){
+		// A free slot does not move while the stored entities are advanced.
+		vx[slot] = 0;
+		vy[slot] = 0;
+		freeSlots[nbFreeSlots++] = slot;
+	}
+
+	/**
+	 * Double the number of slots of this store.
+	 */
+	private void grow(){
+		int capacity = 2*x.length;
+		x = Arrays.copyOf(x, capacity);
+		y = Arrays.copyOf(y, capacity);
+		vx = Arrays.copyOf(vx, capacity);
+		vy = Arrays.copyOf(vy, capacity);
+		freeSlots = Arrays.copyOf(freeSlots, capacity);
+	}
+
+	/**
+	 * Move every stored entity along its trajectory during the given time.
+	 *
+	 * @param deltaT
+	 * 			The considered duration of the movement.
+	 */
+	void advance(double deltaT){
+		for (int slot=0; slot < size; slot++){
+			x[slot] += vx[slot]*deltaT;
+			y[slot] += vy[slot]*deltaT;
+		}
+	}
+
+	/**
+	 * Arrays registering the positions and velocities of the stored entities, by slot.
+	 */
+	double[] x, y, vx, vy;
+
+	/**
+	 * Variable registering the slots that were freed and can be reused.
+	 */
+	private int[] freeSlots;
+
+	/**
+	 * Variable registering the number of freed slots.
+	 */
+	private int nbFreeSlots = 0;
+
+	/**
+	 * Variable registering the number of slots that have ever been used.
+	 */
+	private int size = 0;
+}
@@ -0,0 +1,113 @@
+package asteroids.model;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * An immutable class that contains the statistics of one evolution of a game world.
+ *
+ * - An evolution is split in sub-steps: the entities are advanced to the next collision,
+ *   the collision is handled, and so on until the end of the evolution.
+ * - The number of collisions that can be handled during one evolution is limited by the
+ *   collision budget of the world. When that budget is exceeded, the evolution stops right
+ *   after the last collision it handled and the rest of the time is not simulated.
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+@Value
+public class EvolveStatistics {
+
+	/**
+	 * Initialize this new statistics object with the given values.
+	 *
+	 * @param nbSubSteps
+	 * 			The number of times the entities were advanced during the evolution.
+	 * @param nbCollisions
+	 * 			The number of collisions that were handled during the evolution.
+	 * @param unsimulatedTime
+	 * 			The time that was not simulated because the collision budget was exceeded.
+	 * @post	| new.getNbSubSteps() == nbSubSteps
+	 * @post	| new.getNbCollisions() == nbCollisions
+	 * @post	| new.getUnsimulatedTime() == unsimulatedTime
+	 */
+	public EvolveStatistics(int nbSubSteps, int nbCollisions, double unsimulatedTime){
+		this.nbSubSteps = nbSubSteps;
+		this.nbCollisions = nbCollisions;
+		this.unsimulatedTime = unsimulatedTime;
+	}
+
+	/**
+	 * Initialize this new statistics object as the statistics of a world that has
+	 * not evolved yet.
+	 *
+	 * @effect	| this(0, 0, 0)
+	 */
+	public EvolveStatistics(){
+		this(0, 0, 0);
+	}
+
+	/**
+	 * Return the number of times the entities were advanced during the evolution.
+	 */
+	@Basic @Immutable
+	public int getNbSubSteps(){
+		return this.nbSubSteps;
+	}
+
+	/**
+	 * Variable registering the number of sub-steps of the evolution.
+	 */
+	private final int nbSubSteps;
+
+	/**
+	 * Return the number of collisions that were handled during the evolution.
+	 */
+	@Basic @Immutable
+	public int getNbCollisions(){
+		return this.nbCollisions;
+	}
+
+	/**
+	 * Variable registering the number of collisions of the evolution.
+	 */
+	private final int nbCollisions;
+
+	/**
+	 * Return the time that was not simulated because the collision budget was exceeded.
+	 */
+	@Basic @Immutable
+	public double getUnsimulatedTime(){
+		return this.unsimulatedTime;
+	}
+
+	/**
+	 * Variable registering the time that was not simulated during the evolution.
+	 */
+	private final double unsimulatedTime;
+
+	/**
+	 * Check whether the collision budget was exceeded during the evolution.
+	 *
+	 * @return	| result == (getUnsimulatedTime() > 0)
+	 */
+	public boolean isBudgetExceeded(){
+		return getUnsimulatedTime() > 0;
+	}
+
+	/**
+	 * Return a textual representation of these statistics.
+	 *
+	 * @return	| result.equals("EvolveStatistics [subSteps=" + getNbSubSteps() + ", collisions=" +
+	 * 			|		getNbCollisions() + ", unsimulatedTime=" + getUnsimulatedTime() + "]")
+	 */
+	@Override
+	public String toString(){
+		return "EvolveStatistics [subSteps=" + getNbSubSteps() + ", collisions=" + getNbCollisions() +
+				", unsimulatedTime=" + getUnsimulatedTime() + "]";
+	}
+}
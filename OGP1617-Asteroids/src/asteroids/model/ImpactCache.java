@@ -0,0 +1,136 @@
+package asteroids.model;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * A class representing the row of predicted times to collision of one entity with the
+ * other entities of its world.
+ *
+ * - Every prediction is stored with the motion versions of both entities when it was
+ *   made. It is out of date as soon as one of both versions changed, so an entity whose
+ *   motion changes only makes its own predictions out of date.
+ * - A prediction that both entities never collide stays valid as long as both move
+ *   freely. Any other prediction is only valid at the time of the world at which it was
+ *   made, so cached predictions are always exactly equal to a new prediction.
+ * - Most pairs of a world never collide, so most predictions are reused while the world
+ *   evolves.
+ * - Predictions for entities that left the world are dropped whenever the row has grown
+ *   to twice its size after the last clean-up.
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+final class ImpactCache {
+
+	/**
+	 * Return the predicted time until the given owner of this row collides with the given
+	 * other entity, at the given time of their world; NaN if there is no prediction for
+	 * the other entity that is valid at the given time.
+	 * A prediction is not valid if the motion of one of both entities changed since it was
+	 * made, or if it is finite and was made at another time.
+	 *
+	 * @param owner
+	 * 			The entity that owns this row.
+	 * @param other
+	 * 			The other entity of the pair.
+	 * @param time
+	 * 			The time of the world of both entities.
+	 */
+	double get(Entity owner, Entity other, double time){
+		Impact impact = impacts.get(other);
+		if (impact == null || impact.ownerVersion != owner.getMotionVersion()
+				|| impact.otherVersion != other.getMotionVersion())
+			return Double.NaN;
+		if (impact.timeToCollision == Double.POSITIVE_INFINITY || time == impact.time)
+			return impact.timeToCollision;
+		return Double.NaN;
+	}
+
+	/**
+	 * Store the given predicted time until the given owner of this row collides with the
+	 * given other entity, made at the given time of their world.
+	 *
+	 * @param owner
+	 * 			The entity that owns this row.
+	 * @param other
+	 * 			The other entity of the pair.
+	 * @param time
+	 * 			The time of the world of both entities at which the prediction was made.
+	 * @param timeToCollision
+	 * 			The predicted time until both entities collide.
+	 * @post	| new.get(owner, other, time) == timeToCollision
+	 */
+	void put(Entity owner, Entity other, double time, double timeToCollision){
+		Impact impact = impacts.get(other);
+		if (impact == null){
+			if (impacts.size() >= cleanUpSize)
+				cleanUp(owner);
+			impact = new Impact();
+			impacts.put(other, impact);
+		}
+		impact.ownerVersion = owner.getMotionVersion();
+		impact.otherVersion = other.getMotionVersion();
+		impact.time = time;
+		impact.timeToCollision = timeToCollision;
+	}
+
+	/**
+	 * Remove the predictions for all entities that no longer lie in the world of the given
+	 * owner of this row.
+	 */
+	private void cleanUp(Entity owner){
+		Iterator<Entity> others = impacts.keySet().iterator();
+		while (others.hasNext()){
+			Entity other = others.next();
+			if (other.getWorld() == null || other.getWorld() != owner.getWorld())
+				others.remove();
+		}
+		cleanUpSize = Math.max(2*impacts.size(), getMinCleanUpSize());
+	}
+
+	/**
+	 * Return the number of predictions a row holds before it is cleaned up for the first time.
+	 *
+	 * @see implementation
+	 */
+	static int getMinCleanUpSize(){
+		return 16;
+	}
+
+	/**
+	 * A map registering the predictions of this row, by other entity.
+	 */
+	private final Map<Entity, Impact> impacts = new IdentityHashMap<Entity, Impact>();
+
+	/**
+	 * Variable registering the number of predictions at which this row is cleaned up next.
+	 */
+	private int cleanUpSize = getMinCleanUpSize();
+
+	/**
+	 * A class of predicted times to collision, with the motion versions of both entities
+	 * and the time at which they were predicted. An impact is overwritten when the
+	 * prediction for the same pair is made again.
+	 */
+	private static final class Impact {
+
+		/**
+		 * Variables registering the motion versions of the owner of the row and of the
+		 * other entity when this impact was predicted.
+		 */
+		private long ownerVersion, otherVersion;
+
+		/**
+		 * Variables registering the time at which this impact was predicted, and the
+		 * predicted time to collision at that time.
+		 */
+		private double time, timeToCollision;
+	}
+}
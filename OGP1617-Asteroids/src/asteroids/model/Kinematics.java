@@ -0,0 +1,93 @@
+package asteroids.model;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * A class of static helper methods for the geometry and motion of circular entities,
+ * on raw coordinates.
+ *
+ * - These methods compute the same values as the corresponding methods of Vector,
+ *   without creating intermediate vectors, so tests on pairs of entities do not allocate.
+ * - Vectors remain the values that are handed out by the model.
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+final class Kinematics {
+
+	/**
+	 * This class only has static methods.
+	 */
+	private Kinematics(){
+	}
+
+	/**
+	 * Return the squared Euclidean norm of the vector with the given components.
+	 *
+	 * @return	| result == x*x + y*y
+	 */
+	static double squaredNorm(double x, double y){
+		return x*x + y*y;
+	}
+
+	/**
+	 * Return the Euclidean norm of the vector with the given components.
+	 *
+	 * @return	| result == Math.sqrt(squaredNorm(x, y))
+	 */
+	static double norm(double x, double y){
+		return Math.sqrt(x*x + y*y);
+	}
+
+	/**
+	 * Return the dot product of the vectors with the given components.
+	 *
+	 * @return	| result == x1*x2 + y1*y2
+	 */
+	static double dot(double x1, double y1, double x2, double y2){
+		return x1*x2 + y1*y2;
+	}
+
+	/**
+	 * Return the distance between the given positions.
+	 *
+	 * @return	| result == norm(x2-x1, y2-y1)
+	 */
+	static double distance(double x1, double y1, double x2, double y2){
+		return norm(x2-x1, y2-y1);
+	}
+
+	/**
+	 * Return the time until two circles touch, given their relative position and velocity.
+	 *
+	 * @param deltaX
+	 * 			The x-coordinate of the center of the second circle relative to the first.
+	 * @param deltaY
+	 * 			The y-coordinate of the center of the second circle relative to the first.
+	 * @param deltaVelocityX
+	 * 			The x-component of the velocity of the second circle relative to the first.
+	 * @param deltaVelocityY
+	 * 			The y-component of the velocity of the second circle relative to the first.
+	 * @param totalRadius
+	 * 			The sum of the radii of both circles.
+	 * @return	Positive infinity if the circles move apart or pass each other,
+	 * 			the earliest time at which the distance between their centers equals the
+	 * 			given total radius otherwise.
+	 */
+	static double getTimeToCollision(double deltaX, double deltaY, double deltaVelocityX, double deltaVelocityY,
+			double totalRadius){
+		double VTimesR = dot(deltaX, deltaY, deltaVelocityX, deltaVelocityY);
+		double Vquad = squaredNorm(deltaVelocityX, deltaVelocityY);
+		double Rquad = squaredNorm(deltaX, deltaY);
+
+		double d = VTimesR*VTimesR - Vquad*(Rquad - totalRadius*totalRadius);
+
+		if (VTimesR >= 0 || d <= 0)
+			return Double.POSITIVE_INFINITY;
+
+		return -(VTimesR+Math.sqrt(d))/Vquad;
+	}
+}
@@ -0,0 +1,42 @@
+package asteroids.model;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * A class representing the simplest broad phase, in which every entity is a
+ * candidate of every other entity.
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+class PairwiseBroadPhase implements BroadPhase {
+
+	/**
+	 * Initialize this new broad phase for the given number of entities.
+	 *
+	 * @param nbEntities
+	 * 			The number of entities in the list this broad phase is built from.
+	 */
+	PairwiseBroadPhase(int nbEntities){
+		this.nbEntities = nbEntities;
+	}
+
+	/**
+	 * Return the indices of all the entities after the entity at the given index.
+	 */
+	@Override
+	public int[] getCandidates(int index){
+		int[] result = new int[Math.max(nbEntities-index-1, 0)];
+		for (int other=index+1; other < nbEntities; other++)
+			result[other-index-1] = other;
+		return result;
+	}
+
+	/**
+	 * Variable registering the number of entities of this broad phase.
+	 */
+	private final int nbEntities;
+}
@@ -1,5 +1,153 @@
 package asteroids.model;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import asteroids.model.programs.CompiledProgram;
+import asteroids.model.programs.ProgramExecution;
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * A class representing a program that controls a ship.
+ *
+ * - A program is compiled once, when it is created by a program factory.
+ * - A program can be loaded on at most one ship. Loading it on a ship starts a new
+ *   execution of the program for that ship.
+ *
+ * @invar	| getShip() == null || getShip().getProgram() == this
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
 public class Program {
 
+	/**
+	 * Initialize this new program with the given compiled code.
+	 *
+	 * @param code
+	 * 			The compiled code of the program.
+	 * @post	| new.getCode() == code
+	 * @post	| new.getShip() == null
+	 * @throws	NullPointerException
+	 * 			| code == null
+	 */
+	public Program(CompiledProgram code) throws NullPointerException{
+		if (code == null)
+			throw new NullPointerException("The code of a program cannot be null.");
+		this.code = code;
+	}
+
+	/**
+	 * Return the compiled code of this program.
+	 */
+	@Basic @Immutable
+	public CompiledProgram getCode(){
+		return this.code;
+	}
+
+	/**
+	 * Variable registering the compiled code of this program.
+	 */
+	private final CompiledProgram code;
+
+
+	// Relation Program-Ship
+	/**
+	 * Return the ship on which this program is loaded.
+	 */
+	@Basic
+	public Ship getShip(){
+		return this.ship;
+	}
+
+	/**
+	 * Set the ship on which this program is loaded, and start a new execution for it.
+	 *
+	 * @param ship
+	 * 			The new ship, null if this program is unloaded.
+	 * @post	| new.getShip() == ship
+	 * @post	| new.isFinished() == false
+	 */
+	@Raw
+	void setShip(Ship ship){
+		this.ship = ship;
+		this.execution = (ship == null) ? null : code.start(ship);
+	}
+
+	/**
+	 * Variable registering the ship on which this program is loaded.
+	 */
+	private Ship ship = null;
+
+
+	// Execution
+	/**
+	 * Execute this program during the given amount of time.
+	 *
+	 * @param duration
+	 * 			The amount of time during which the program is executed, in seconds.
+	 * @return	If the program is finished, all the values it printed since it was loaded,
+	 * 			in the order in which they were printed; null otherwise.
+	 * @throws	IllegalStateException
+	 * 			| getShip() == null
+	 * @throws	IllegalArgumentException
+	 * 			| Double.isNaN(duration) || Double.isInfinite(duration) || duration < 0
+	 * @throws	IllegalArgumentException
+	 * 			A value of the wrong type is used in the program.
+	 * @throws	IllegalStateException
+	 * 			The program refers to a variable, parameter or function that does not exist,
+	 * 			or executes a statement where it is not allowed, or failed before.
+	 */
+	public List<Object> execute(double duration) throws IllegalStateException, IllegalArgumentException{
+		return execute(duration, false);
+	}
+
+	/**
+	 * Execute this program during the given amount of time, buffering its actions if so
+	 * requested.
+	 *
+	 * @param duration
+	 * 			The amount of time during which the program is executed, in seconds.
+	 * @param bufferActions
+	 * 			True if the actions of the program have to be buffered until
+	 * 			applyBufferedActions() is invoked, false if they have to be applied at once.
+	 * @see	#execute(double)
+	 */
+	List<Object> execute(double duration, boolean bufferActions) throws IllegalStateException, IllegalArgumentException{
+		if (execution == null)
+			throw new IllegalStateException("This program is not loaded on a ship.");
+		if (!execution.resume(duration, bufferActions))
+			return null;
+		return new ArrayList<Object>(execution.getPrintedValues());
+	}
+
+	/**
+	 * Apply the actions that were buffered while this program was executed to its ship.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			One of the actions cannot be applied to the ship.
+	 */
+	void applyBufferedActions() throws IllegalArgumentException{
+		if (execution != null)
+			execution.applyBufferedActions();
+	}
+
+	/**
+	 * Check whether this program has been executed completely on its ship.
+	 *
+	 * @return	| result == (getShip() != null && the execution of this program is finished)
+	 */
+	public boolean isFinished(){
+		return execution != null && execution.isFinished();
+	}
+
+	/**
+	 * Variable registering the execution of this program on its ship.
+	 */
+	private ProgramExecution execution = null;
 }
@@ -174,9 +174,9 @@ public class Ship extends Entity {
 	 * 			|					    		   getVelocity().getY()+getShipAcceleration()*sin(getAngle())*timeAmount)
 	 */
 	public void thrust(double timeAmount){
-		Vector newVelocity = getVelocity().add(getShipAcceleration().multiply(timeAmount));
-
-		setVelocity(newVelocity.getX(), newVelocity.getY());
+		double a = getTotalAcceleration();
+		
+		setVelocity(getVelocityX()+a*Math.cos(getAngle())*timeAmount, getVelocityY()+a*Math.sin(getAngle())*timeAmount);
 	}
 	
 	/**
@@ -370,7 +370,7 @@ public class Ship extends Entity {
 	/**
    	 * Variable registering the minimal radius of a spaceship
    	 */
-   	static double rMin = 10;
+   	static final double rMin = 10;
    	
    	
    	// Mass [TOTAL]
@@ -513,14 +513,13 @@ public class Ship extends Entity {
     	if (!getWorld().contains(bullet))
     		bullet.die();
     	else {
-    		Set<Entity> worldEntities = getWorld().queryEntities();
-    		for (Entity entity: worldEntities){
-    			if (entity != this && bullet.overlapSignificantly(entity)) {
-    				bullet.die();
-    				entity.die();
-    				return;
-    			}
-    		} // end for
+    		Entity entity = getWorld().getIntersectingEntity(bullet,
+    				(other) -> other != this && bullet.overlapSignificantly(other));
+    		if (entity != null) {
+    			bullet.die();
+    			entity.die();
+    			return;
+    		}
     		getWorld().addEntity(bullet);
     	} 
     }
@@ -591,6 +590,40 @@ public class Ship extends Entity {
    	}
    	
 	
+   	/**
+   	 * Load the given bullet, which does not lie in a world, into this ship without moving it.
+   	 * 
+   	 * @param bullet
+   	 * 			The bullet that has to be loaded.
+   	 * @post	| new.getBullets().contains(bullet)
+   	 * 			| (new bullet).getShip() == this
+   	 * @throws	NullPointerException
+   	 * 			| bullet == null
+   	 * @throws	IllegalArgumentException
+   	 * 			| !canHaveAsBullet(bullet) || bullet.getWorld() != null || bullet.isDead()
+   	 * 
+   	 * This is a helper method to restore the bullets of a ship, in the order in which
+   	 * they are fired.
+   	 */
+   	void restoreBullet(Bullet bullet) throws NullPointerException, IllegalArgumentException{
+   		if (bullet == null)
+   			throw new NullPointerException();
+   		if (!canHaveAsBullet(bullet) || bullet.getWorld() != null || bullet.isDead())
+   			throw new IllegalArgumentException("The given bullet cannot be loaded into this ship.");
+   		bullet.setShip(this);
+   		loadedBullets.add(bullet);
+   	}
+   	
+   	/**
+   	 * Return the bullets loaded on this ship, in the order in which they are fired, the
+   	 * last one first.
+   	 * 
+   	 * This list is not a copy and may not be modified.
+   	 */
+   	List<Bullet> getBulletList(){
+   		return loadedBullets;
+   	}
+   	
    	/**
    	 * Return the bullets loaded on this ship.
    	 * 
@@ -657,12 +690,72 @@ public class Ship extends Entity {
    	 * A variable registering the initial speed of a bullet when fired from this ship.
    	 */
    	private double fireSpeed = 250;
-   	
-   	
+
+
+   	// Relation Ship-Program
+   	/**
+   	 * Return the program that is loaded on this ship.
+   	 *
+   	 * @return	Null if no program is loaded on this ship.
+   	 */
+   	@Basic
+   	public Program getProgram(){
+   		return this.program;
+   	}
+
+   	/**
+   	 * Load the given program on this ship.
+   	 *
+   	 * @param program
+   	 * 			The program that has to be loaded.
+   	 * @post	The given program is loaded on this ship, and starts from the beginning.
+   	 * 			| new.getProgram() == program
+   	 * 			| (new program).getShip() == this
+   	 * @post	The program that was loaded on this ship before is unloaded.
+   	 * 			| if (getProgram() != null && getProgram() != program)
+   	 * 			|  then (new getProgram()).getShip() == null
+   	 * @post	If the given program was loaded on another ship, it is unloaded from that ship.
+   	 * 			| if (program.getShip() != null && program.getShip() != this)
+   	 * 			|  then (new program.getShip()).getProgram() == null
+   	 * @throws	NullPointerException
+   	 * 			| program == null
+   	 */
+   	public void loadProgram(Program program) throws NullPointerException{
+   		if (program == null)
+   			throw new NullPointerException("The program cannot be null.");
+   		if (this.program != null)
+   			this.program.setShip(null);
+   		if (program.getShip() != null)
+   			program.getShip().program = null;
+   		this.program = program;
+   		program.setShip(this);
+   	}
+
+   	/**
+   	 * Execute the program of this ship during the given amount of time.
+   	 *
+   	 * @param duration
+   	 * 			The amount of time during which the program is executed, in seconds.
+   	 * @effect	| getProgram().execute(duration)
+   	 * @throws	IllegalStateException
+   	 * 			| getProgram() == null
+   	 */
+   	public List<Object> executeProgram(double duration) throws IllegalStateException, IllegalArgumentException{
+   		if (program == null)
+   			throw new IllegalStateException("No program is loaded on this ship.");
+   		return program.execute(duration);
+   	}
+
+   	/**
+   	 * Variable registering the program that is loaded on this ship.
+   	 */
+   	private Program program = null;
+
+
 	/**
 	 * Variable registering the Speed of light.
 	 */
-   	static double c = 300000.0;
+   	static final double c = 300000.0;
 
 
 	 
@@ -0,0 +1,398 @@
+package asteroids.model;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * A class representing a uniform grid over a game world that is used to find the entity
+ * nearest to a given entity, and the entities whose circles intersect a given circle.
+ *
+ * - The entities are bucketed per cell of the grid and, within every cell, per kind:
+ *   ships, bullets, asteroids, planetoids and other entities. A nearest entity query
+ *   only visits the buckets of the kinds it looks for.
+ * - A nearest entity query visits the cells in rings around the cell of the given entity,
+ *   and stops as soon as no entity in a ring further out can lie nearer than the nearest
+ *   one found.
+ * - The grid is a snapshot of the positions of the entities when it was built; the world
+ *   builds a new grid when it is queried after one of its entities moved.
+ * - Entities that are added to the world after the grid was built are chained to the cell
+ *   that contains them. Entries of entities that no longer lie in the world at the
+ *   registered position are skipped by the queries. Once too many entities were added
+ *   or removed, the world builds a new grid.
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+class SpatialIndex {
+
+	/**
+	 * Initialize this new index with the given entities of the given world.
+	 *
+	 * @param world
+	 * 			The world in which all the given entities lie.
+	 * @param entities
+	 * 			The entities that have to be registered in this index.
+	 */
+	SpatialIndex(World world, List<Entity> entities){
+		int nbEntities = entities.size();
+		this.world = world;
+		this.nbCellsPerAxis = Math.max(1, Math.min(getMaxCellsPerAxis(), (int)Math.ceil(Math.sqrt(nbEntities/2.0))));
+		this.nbCells = nbCellsPerAxis*nbCellsPerAxis;
+		this.cellWidth = world.getWidth()/nbCellsPerAxis;
+		this.cellHeight = world.getHeight()/nbCellsPerAxis;
+
+		// -- Step 1: count the entities per bucket
+		int[] buckets = new int[nbEntities];
+		this.bucketStarts = new int[KINDS.length*nbCells+1];
+		for (int index=0; index < nbEntities; index++){
+			Entity entity = entities.get(index);
+			buckets[index] = getKind(entity)*nbCells+getCell(entity.getPositionX(), entity.getPositionY());
+			bucketStarts[buckets[index]+1]++;
+		}
+		for (int bucket=0; bucket < KINDS.length*nbCells; bucket++)
+			bucketStarts[bucket+1] += bucketStarts[bucket];
+
+		// -- Step 2: store the entities and their positions bucket by bucket
+		this.entities = new Entity[nbEntities];
+		this.positionsX = new double[nbEntities];
+		this.positionsY = new double[nbEntities];
+		this.radii = new double[nbEntities];
+		int[] next = new int[KINDS.length*nbCells];
+		for (int index=0; index < nbEntities; index++){
+			int bucket = buckets[index];
+			int position = bucketStarts[bucket]+next[bucket]++;
+			Entity entity = entities.get(index);
+			this.entities[position] = entity;
+			this.positionsX[position] = entity.getPositionX();
+			this.positionsY[position] = entity.getPositionY();
+			this.radii[position] = entity.getRadius();
+			this.maxRadius = Math.max(maxRadius, radii[position]);
+		}
+	}
+
+	/**
+	 * Register the given entity, that was added to the world of this index.
+	 *
+	 * @param entity
+	 * 			The entity that has to be registered.
+	 * @return	False if this index cannot register the given entity and has to be built
+	 * 			again, because too many entities were added to or removed from its world.
+	 */
+	boolean add(Entity entity){
+		if (nbAdded+nbRemoved >= getCapacity())
+			return false;
+		if (addedEntities == null){
+			addedEntities = new Entity[getCapacity()];
+			addedPositionsX = new double[getCapacity()];
+			addedPositionsY = new double[getCapacity()];
+			addedRadii = new double[getCapacity()];
+			addedNext = new int[getCapacity()];
+			addedHeads = new int[nbCells];
+			Arrays.fill(addedHeads, -1);
+		}
+		int cell = getCell(entity.getPositionX(), entity.getPositionY());
+		addedEntities[nbAdded] = entity;
+		addedPositionsX[nbAdded] = entity.getPositionX();
+		addedPositionsY[nbAdded] = entity.getPositionY();
+		addedRadii[nbAdded] = entity.getRadius();
+		addedNext[nbAdded] = addedHeads[cell];
+		addedHeads[cell] = nbAdded++;
+		maxRadius = Math.max(maxRadius, entity.getRadius());
+		return true;
+	}
+
+	/**
+	 * Register that the given entity was removed from the world of this index.
+	 *
+	 * @param entity
+	 * 			The entity that was removed.
+	 * @return	False if this index has to be built again, because too many entities were
+	 * 			added to or removed from its world.
+	 */
+	boolean remove(Entity entity){
+		nbRemoved++;
+		return nbAdded+nbRemoved < getCapacity();
+	}
+
+	/**
+	 * Return the number of entities that can be added to or removed from the world of
+	 * this index before it has to be built again.
+	 */
+	private int getCapacity(){
+		return Math.max(entities.length, 16);
+	}
+
+	/**
+	 * Return the entity of the given type, other than the given entity, whose center
+	 * lies nearest to the center of the given entity and that satisfies the given
+	 * condition; null if there is no such entity.
+	 *
+	 * @param entity
+	 * 			The entity from which the distances are measured.
+	 * @param type
+	 * 			The type of the entities that are looked for.
+	 * @param condition
+	 * 			The condition that the result has to satisfy, null if every entity of the
+	 * 			given type is acceptable.
+	 */
+	<T extends Entity> T getNearest(Entity entity, Class<T> type, Predicate<? super T> condition){
+		boolean[] searchedKinds = new boolean[KINDS.length];
+		boolean[] checkedKinds = new boolean[KINDS.length];
+		for (int kind=0; kind < KINDS.length; kind++){
+			// Kinds that are subtypes of the given type need no check on the type of their entities.
+			searchedKinds[kind] = type.isAssignableFrom(KINDS[kind]) || KINDS[kind].isAssignableFrom(type);
+			checkedKinds[kind] = !type.isAssignableFrom(KINDS[kind]);
+		}
+
+		double x = entity.getPositionX();
+		double y = entity.getPositionY();
+		int cellX = toCell(x, cellWidth);
+		int cellY = toCell(y, cellHeight);
+		Entity nearest = null;
+		double nearestDistance = Double.POSITIVE_INFINITY;
+		for (int ring=0; ring < nbCellsPerAxis; ring++){
+			// No entity outside the square of the rings so far lies nearer than its edge.
+			double edgeDistance = getDistanceToEdge(x, y, cellX, cellY, ring-1);
+			if (nearestDistance <= edgeDistance*edgeDistance)
+				break;
+			int minX = cellX-ring, maxX = cellX+ring, minY = cellY-ring, maxY = cellY+ring;
+			for (int cy=Math.max(minY, 0); cy <= Math.min(maxY, nbCellsPerAxis-1); cy++){
+				// Only the first and last row of a ring are visited completely.
+				int step = (cy == minY || cy == maxY) ? 1 : Math.max(maxX-minX, 1);
+				for (int cx=minX; cx <= maxX; cx += step){
+					if (cx < 0 || cx >= nbCellsPerAxis)
+						continue;
+					int cell = cy*nbCellsPerAxis+cx;
+					for (int kind=0; kind < KINDS.length; kind++){
+						if (!searchedKinds[kind])
+							continue;
+						int bucket = kind*nbCells+cell;
+						for (int position=bucketStarts[bucket]; position < bucketStarts[bucket+1]; position++){
+							Entity candidate = entities[position];
+							if (candidate == entity)
+								continue;
+							double dx = positionsX[position]-x;
+							double dy = positionsY[position]-y;
+							double distance = dx*dx+dy*dy;
+							if (distance >= nearestDistance)
+								continue;
+							if (checkedKinds[kind] && !type.isInstance(candidate))
+								continue;
+							if (!isRegistered(candidate, positionsX[position], positionsY[position]))
+								continue;
+							if (condition != null && !condition.test(type.cast(candidate)))
+								continue;
+							nearest = candidate;
+							nearestDistance = distance;
+						}
+					}
+					if (addedHeads == null)
+						continue;
+					for (int position=addedHeads[cell]; position >= 0; position=addedNext[position]){
+						Entity candidate = addedEntities[position];
+						if (candidate == entity || !type.isInstance(candidate))
+							continue;
+						double dx = addedPositionsX[position]-x;
+						double dy = addedPositionsY[position]-y;
+						double distance = dx*dx+dy*dy;
+						if (distance >= nearestDistance ||
+								!isRegistered(candidate, addedPositionsX[position], addedPositionsY[position]))
+							continue;
+						if (condition != null && !condition.test(type.cast(candidate)))
+							continue;
+						nearest = candidate;
+						nearestDistance = distance;
+					}
+				}
+			}
+		}
+		return type.cast(nearest);
+	}
+
+	/**
+	 * Return an entity whose circle intersects the circle with the given center and radius
+	 * and that satisfies the given condition; null if there is no such entity.
+	 *
+	 * @param x
+	 * 			The x-coordinate of the center of the circle.
+	 * @param y
+	 * 			The y-coordinate of the center of the circle.
+	 * @param radius
+	 * 			The radius of the circle.
+	 * @param condition
+	 * 			The condition that the result has to satisfy, null if every entity is acceptable.
+	 */
+	Entity getIntersecting(double x, double y, double radius, Predicate<? super Entity> condition){
+		// Only cells within the given radius and the radius of the largest entity can hold a center.
+		double reach = radius+maxRadius;
+		int minX = toCell(x-reach, cellWidth), maxX = toCell(x+reach, cellWidth);
+		int minY = toCell(y-reach, cellHeight), maxY = toCell(y+reach, cellHeight);
+		for (int cy=minY; cy <= maxY; cy++){
+			for (int cx=minX; cx <= maxX; cx++){
+				int cell = cy*nbCellsPerAxis+cx;
+				for (int kind=0; kind < KINDS.length; kind++){
+					int bucket = kind*nbCells+cell;
+					for (int position=bucketStarts[bucket]; position < bucketStarts[bucket+1]; position++){
+						if (intersects(positionsX[position]-x, positionsY[position]-y, radii[position]+radius)
+								&& isRegistered(entities[position], positionsX[position], positionsY[position])
+								&& (condition == null || condition.test(entities[position])))
+							return entities[position];
+					}
+				}
+				if (addedHeads == null)
+					continue;
+				for (int position=addedHeads[cell]; position >= 0; position=addedNext[position]){
+					if (intersects(addedPositionsX[position]-x, addedPositionsY[position]-y, addedRadii[position]+radius)
+							&& isRegistered(addedEntities[position], addedPositionsX[position], addedPositionsY[position])
+							&& (condition == null || condition.test(addedEntities[position])))
+						return addedEntities[position];
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Check whether two circles whose centers lie the given distances apart and whose
+	 * radii add up to the given total radius intersect.
+	 */
+	private static boolean intersects(double dx, double dy, double totalRadius){
+		return dx*dx+dy*dy <= totalRadius*totalRadius;
+	}
+
+	/**
+	 * Check whether the given entity, that was registered in this index at the given
+	 * position, still lies in the world of this index at that position.
+	 * An entity that was removed and added again has a second entry, and its first entry
+	 * is only skipped if it lies at another position now.
+	 */
+	private boolean isRegistered(Entity entity, double x, double y){
+		return entity.getWorld() == world && entity.getPositionX() == x && entity.getPositionY() == y;
+	}
+
+	/**
+	 * Return the distance from the given position to the edge of the square of cells
+	 * within the given number of rings around the given cell, or 0 if the number of
+	 * rings is negative. Edges of the square that lie on the border of the grid are
+	 * ignored, since there are no cells beyond them.
+	 */
+	private double getDistanceToEdge(double x, double y, int cellX, int cellY, int ring){
+		if (ring < 0)
+			return 0;
+		double distance = Double.POSITIVE_INFINITY;
+		if (cellX-ring > 0)
+			distance = Math.min(distance, x-(cellX-ring)*cellWidth);
+		if (cellX+ring < nbCellsPerAxis-1)
+			distance = Math.min(distance, (cellX+ring+1)*cellWidth-x);
+		if (cellY-ring > 0)
+			distance = Math.min(distance, y-(cellY-ring)*cellHeight);
+		if (cellY+ring < nbCellsPerAxis-1)
+			distance = Math.min(distance, (cellY+ring+1)*cellHeight-y);
+		return Math.max(distance, 0);
+	}
+
+	/**
+	 * Return the cell that contains the given position.
+	 */
+	private int getCell(double x, double y){
+		return toCell(y, cellHeight)*nbCellsPerAxis+toCell(x, cellWidth);
+	}
+
+	/**
+	 * Return the cell along one axis that contains the given coordinate.
+	 */
+	private int toCell(double coordinate, double cellSize){
+		int cell = (int)Math.floor(coordinate/cellSize);
+		return Math.max(0, Math.min(cell, nbCellsPerAxis-1));
+	}
+
+	/**
+	 * Return the kind of the given entity, as an index in KINDS.
+	 */
+	private static int getKind(Entity entity){
+		for (int kind=0; kind < KINDS.length-1; kind++)
+			if (KINDS[kind].isInstance(entity))
+				return kind;
+		return KINDS.length-1;
+	}
+
+	/**
+	 * Return the maximal number of cells along each axis of an index.
+	 *
+	 * @see implementation
+	 */
+	static int getMaxCellsPerAxis(){
+		return 256;
+	}
+
+	/**
+	 * The kinds in which the entities of a cell are bucketed. The last kind holds all
+	 * entities that are of none of the other kinds.
+	 */
+	private static final Class<?>[] KINDS = { Ship.class, Bullet.class, Asteroid.class, Planetoid.class, Entity.class };
+
+	/**
+	 * Variable registering the world of this index.
+	 */
+	private final World world;
+
+	/**
+	 * Variables registering the number of cells along each axis and in total.
+	 */
+	private final int nbCellsPerAxis, nbCells;
+
+	/**
+	 * Variables registering the width and height of the cells.
+	 */
+	private final double cellWidth, cellHeight;
+
+	/**
+	 * Variable registering where the entities of every bucket start in the entities
+	 * array. The bucket of the entities of a kind in a cell is kind*nbCells+cell.
+	 */
+	private final int[] bucketStarts;
+
+	/**
+	 * Variables registering the entities of this index and their positions and radii,
+	 * bucket by bucket.
+	 */
+	private final Entity[] entities;
+	private final double[] positionsX, positionsY, radii;
+
+	/**
+	 * Variable registering the largest radius of all entities registered in this index.
+	 */
+	private double maxRadius = 0;
+
+	/**
+	 * Variables registering the entities that were added after this index was built and
+	 * their positions and radii, in the order in which they were added. Null as long as
+	 * no entity was added.
+	 */
+	private Entity[] addedEntities;
+	private double[] addedPositionsX, addedPositionsY, addedRadii;
+
+	/**
+	 * Variables registering the chains of added entities per cell: the first added entity
+	 * of every cell, and the next added entity of the same cell for every added entity;
+	 * -1 at the end of a chain.
+	 */
+	private int[] addedHeads, addedNext;
+
+	/**
+	 * Variable registering the number of entities that were added after this index was built.
+	 */
+	private int nbAdded = 0;
+
+	/**
+	 * Variable registering the number of entities that were removed from the world of
+	 * this index after this index was built.
+	 */
+	private int nbRemoved = 0;
+}
@@ -0,0 +1,149 @@
+package asteroids.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * A class representing a sweep-and-prune broad phase of the collision prediction
+ * in a game world.
+ *
+ * - Every entity is represented by the bounding box it sweeps during a given time horizon.
+ * - The entities are kept sorted on the lower bound of their box on the x-axis. The order
+ *   is kept between updates and repaired by insertion sort, which is nearly linear since
+ *   entities barely reorder between two predictions.
+ * - Two entities are candidates of each other if their boxes overlap on both axes.
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+class SweepAndPrune implements BroadPhase {
+
+	/**
+	 * Register the given entities of the given world, swept over the given time horizon,
+	 * and compute their candidates.
+	 *
+	 * @param world
+	 * 			The world in which all the given entities lie.
+	 * @param entities
+	 * 			The entities that have to be registered.
+	 * @param horizon
+	 * 			The time interval over which the movement of the entities is considered.
+	 * @pre		The given horizon is not negative.
+	 * 			| horizon >= 0
+	 */
+	void update(World world, List<Entity> entities, double horizon){
+		int nbEntities = entities.size();
+		double[] bounds = new double[4*nbEntities];
+		Map<Entity, Integer> indices = new IdentityHashMap<Entity, Integer>();
+
+		// -- Step 1: compute the swept bounding box of every entity
+		for (int index=0; index < nbEntities; index++){
+			Entity entity = entities.get(index);
+			double radius = entity.getRadius();
+			double posX = entity.getPositionX();
+			double posY = entity.getPositionY();
+			// An entity that does not move along an axis stays where it is, even for an
+			// infinite horizon.
+			double endX = (entity.getVelocityX() == 0) ? posX : posX+entity.getVelocityX()*horizon;
+			double endY = (entity.getVelocityY() == 0) ? posY : posY+entity.getVelocityY()*horizon;
+
+			// An entity never leaves its world, so its box can be clipped to the
+			// boundaries (widened with its own radius).
+			bounds[4*index] = Math.max(Math.min(posX, endX)-radius, -radius);
+			bounds[4*index+1] = Math.max(Math.min(posY, endY)-radius, -radius);
+			bounds[4*index+2] = Math.min(Math.max(posX, endX)+radius, world.getWidth()+radius);
+			bounds[4*index+3] = Math.min(Math.max(posY, endY)+radius, world.getHeight()+radius);
+			indices.put(entity, index);
+		}
+
+		// -- Step 2: keep the order of the previous update, drop the entities that are
+		//            gone and append the new ones
+		int[] order = new int[nbEntities];
+		int nbOrdered = 0;
+		boolean[] ordered = new boolean[nbEntities];
+		for (Entity entity: sortedEntities){
+			Integer index = indices.get(entity);
+			if (index != null && !ordered[index]){
+				ordered[index] = true;
+				order[nbOrdered++] = index;
+			}
+		}
+		for (int index=0; index < nbEntities; index++)
+			if (!ordered[index])
+				order[nbOrdered++] = index;
+
+		// -- Step 3: repair the order on the lower bounds by insertion sort
+		for (int position=1; position < nbEntities; position++){
+			int index = order[position];
+			double lowerBound = bounds[4*index];
+			int other = position-1;
+			while (other >= 0 && bounds[4*order[other]] > lowerBound){
+				order[other+1] = order[other];
+				other--;
+			}
+			order[other+1] = index;
+		}
+		sortedEntities.clear();
+		for (int index: order)
+			sortedEntities.add(entities.get(index));
+
+		// -- Step 4: sweep along the x-axis and collect the overlapping pairs
+		int[][] result = new int[nbEntities][];
+		int[] nbResults = new int[nbEntities];
+		for (int position=0; position < nbEntities; position++){
+			int first = order[position];
+			for (int otherPosition=position+1; otherPosition < nbEntities; otherPosition++){
+				int second = order[otherPosition];
+				// All later entities start beyond the end of the first one.
+				if (bounds[4*second] > bounds[4*first+2])
+					break;
+				if (bounds[4*second+1] > bounds[4*first+3] || bounds[4*first+1] > bounds[4*second+3])
+					continue;
+				int lower = Math.min(first, second);
+				int higher = Math.max(first, second);
+				if (result[lower] == null)
+					result[lower] = new int[4];
+				else if (nbResults[lower] == result[lower].length)
+					result[lower] = Arrays.copyOf(result[lower], 2*nbResults[lower]);
+				result[lower][nbResults[lower]++] = higher;
+			}
+		}
+		for (int index=0; index < nbEntities; index++){
+			if (result[index] == null)
+				result[index] = new int[0];
+			else {
+				result[index] = Arrays.copyOf(result[index], nbResults[index]);
+				Arrays.sort(result[index]);
+			}
+		}
+		this.candidates = result;
+	}
+
+	/**
+	 * Return the indices of all the entities whose swept box overlaps with the box
+	 * of the entity at the given index, as computed by the last update.
+	 */
+	@Override
+	public int[] getCandidates(int index){
+		return candidates[index];
+	}
+
+	/**
+	 * A list registering the entities of the last update, sorted on the lower bound of
+	 * their box on the x-axis.
+	 */
+	private final List<Entity> sortedEntities = new ArrayList<Entity>();
+
+	/**
+	 * Variable registering the candidates of every entity of the last update, by index.
+	 */
+	private int[][] candidates = new int[0][];
+}
@@ -1,7 +1,5 @@
 package asteroids.model;
 
-import java.util.Objects;
-
 import be.kuleuven.cs.som.annotate.*;
 
 /**
@@ -69,7 +67,7 @@ public class Vector {
 	 * 			| sqrt(getX()^2 + getY()^2)
 	 */
 	public double norm(){
-		return Math.sqrt(Math.pow(getX(),2)+Math.pow(getY(), 2));
+		return Kinematics.norm(getX(), getY());
 	}
 	
 	/**
@@ -78,7 +76,7 @@ public class Vector {
 	 * @See implementation
 	 */
 	public double squaredNorm(){
-		return Math.pow(getX(),2)+Math.pow(getY(), 2);
+		return Kinematics.squaredNorm(getX(), getY());
 	}
 	
 	/**
@@ -157,7 +155,7 @@ public class Vector {
 		if (other == null)
 			throw new NullPointerException("Other is null");
 		
-		return getX()*other.getX() + getY()*other.getY();
+		return Kinematics.dot(getX(), getY(), other.getX(), other.getY());
 	}
 	
 	/**
@@ -212,11 +210,13 @@ public class Vector {
 	/**
 	 * Return the hashCode of this vector
 	 * 
-	 * @effect Object.hashCode()
+	 * @return	The same hash code as Objects.hash(getX(), getY()), without boxing
+	 * 			the components.
+	 * 			| result == 31*(31+Double.hashCode(getX()))+Double.hashCode(getY())
 	 */
 	@Override
 	public int hashCode() {
-		return Objects.hash(getX(),getY());
+		return 31*(31+Double.hashCode(getX()))+Double.hashCode(getY());
 	}	
 
 	/**
@@ -1,11 +1,17 @@
 package asteroids.model;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Predicate;
 
 import asteroids.part2.CollisionListener;
 import be.kuleuven.cs.som.annotate.*;
@@ -127,7 +133,7 @@ public class World {
 	/**
 	 * Variable registering the default width of this world
 	 */
-	private static double defaultWidth = 1;
+	private static final double defaultWidth = 1;
 	
 	/**
 	 * Return the default height of this world.
@@ -142,7 +148,7 @@ public class World {
 	/**
 	 * Variable registering the default height of this world
 	 */
-	private static double defaultHeight = 1;
+	private static final double defaultHeight = 1;
 
 	
 	// Relation World-Entity
@@ -160,14 +166,47 @@ public class World {
 	 * 			| !canHaveAsEntity(entity)
 	 */
 	public void addEntity(Entity entity) throws NullPointerException, IllegalArgumentException{
+		addEntity(entity, nextEntityId);
+	}
+	
+	/**
+	 * Add a given entity to this world with the given identifier.
+	 * 
+	 * @param entity
+	 * 		 	The entity that has to be added.
+	 * @param id
+	 * 			The identifier of the entity in this world.
+	 * @post	| new.isInWorld(entity) == true
+	 * 			| (new entity).getId() == id
+	 * 			| new.getEntity(id) == entity
+	 * 			| new.getNextEntityId() == Math.max(getNextEntityId(), id+1)
+	 * @throws	NullPointerException
+	 * 			| entity == null
+	 * @throws	IllegalArgumentException
+	 * 			| !canHaveAsEntity(entity) || id < 0 || getEntity(id) != null
+	 * 
+	 * This is a helper method to restore the entities of a world with their own identifiers.
+	 */
+	void addEntity(Entity entity, int id) throws NullPointerException, IllegalArgumentException{
 		if (entity == null)
 			throw new NullPointerException();
 		if (!canHaveAsEntity(entity))
 			throw new IllegalArgumentException("This entity cannot be added.");
+		if (id < 0 || entitiesById.containsKey(id))
+			throw new IllegalArgumentException(id+" is not a free identifier in this world.");
 		else {
 			entity.setWorld(this);
+			entity.setWorldIndex(linkedEntities.size());
+			entity.setId(id);
+			entitiesById.put(id, entity);
+			this.nextEntityId = Math.max(nextEntityId, id+1);
 			linkedEntities.add(entity);
-			coordEntities.put(entity.getPosition(), entity);
+			register(entity);
+			if (isUsingEntityStore())
+				entity.attachToStore(entityStore);
+			this.coordMapValid = false;
+			if (spatialIndex != null && !spatialIndex.add(entity))
+				this.spatialIndex = null;
 		}
 	}
 	
@@ -190,9 +229,23 @@ public class World {
 		else if (!isInWorld(entity))
 			throw new IllegalArgumentException("The given entity is not in this world.");
 		else {
+			entity.detachFromStore();
 			entity.removeWorld();
-			linkedEntities.remove(entity);
-			coordEntities.remove(entity.getPosition());
+			// Move the last entity into the place of the removed one.
+			int index = entity.getWorldIndex();
+			Entity lastEntity = linkedEntities.remove(linkedEntities.size()-1);
+			if (lastEntity != entity){
+				linkedEntities.set(index, lastEntity);
+				lastEntity.setWorldIndex(index);
+			}
+			entity.setWorldIndex(-1);
+			entitiesById.remove(entity.getId());
+			entity.setId(-1);
+			entity.clearImpactCache();
+			unregister(entity);
+			this.coordMapValid = false;
+			if (spatialIndex != null && !spatialIndex.remove(entity))
+				this.spatialIndex = null;
 		}
 	}
 	
@@ -224,12 +277,7 @@ public class World {
 		if (!contains(entity) || !(entity.getWorld() == null))
 			return false;
 		// Check whether entity does not overlap with any of the existing entities in this world
-		for (Entity existingEntity: linkedEntities){
-			if (entity.overlapSignificantly(existingEntity)){	
-				return false;
-			}		
-		}
-		return true;
+		return getIntersectingEntity(entity, entity::overlapSignificantly) == null;
 	}
 	
 	/**
@@ -241,34 +289,69 @@ public class World {
 	 */
 	@Basic
 	public boolean isInWorld(Entity entity){
-		return linkedEntities.contains(entity);
+		if (entity == null)
+			return false;
+		int index = entity.getWorldIndex();
+		return index >= 0 && index < linkedEntities.size() && linkedEntities.get(index) == entity;
 	}
 	
 	// Queries
 	/**
 	 * Return the set of all the ships that lie in this game world.
 	 * 
-	 * @return	A HashSet containing all ships that lie in this world.
+	 * @return	A read-only view on the ships that lie in this world, in the order in
+	 * 			which they were added. The view reflects later changes to this world,
+	 * 			so it may not be iterated while ships are added or removed.
 	 */
 	public Set<Ship> queryShips(){
-		Set<Ship> result = new HashSet<Ship>();
-		for (Entity entity: linkedEntities)
-			if (entity instanceof Ship)
-				result.add((Ship)entity);
-		return result;
+		return shipsView;
+	}
+	
+	/**
+	 * Return a set of the ships that lie in this game world, that does not change when
+	 * ships are added or removed later.
+	 * 
+	 * @return	A read-only set of the ships that lie in this world, in the order in which
+	 * 			they were added. The same set is returned as long as no ship is added to or
+	 * 			removed from this world, so it can be iterated while ships are added or removed.
+	 */
+	public Set<Ship> queryShipsSnapshot(){
+		if (shipsSnapshot == null)
+			shipsSnapshot = Collections.unmodifiableSet(new LinkedHashSet<Ship>(ships));
+		return shipsSnapshot;
 	}
 	
 	/**
 	 * Return the set of all the bullets that lie in this game world.
 	 * 
-	 * @return A HashSet containing all the bullets that lie in this world.
+	 * @return	A read-only view on the bullets that lie in this world, in the order in
+	 * 			which they were added. The view reflects later changes to this world,
+	 * 			so it may not be iterated while bullets are added or removed.
 	 */
 	public Set<Bullet> queryBullets(){
-		Set<Bullet> result = new HashSet<Bullet>();
-		for (Entity entity: linkedEntities)
-			if (entity instanceof Bullet)
-				result.add((Bullet)entity);
-		return result;
+		return bulletsView;
+	}
+	
+	/**
+	 * Return the set of all the asteroids that lie in this game world.
+	 * 
+	 * @return	A read-only view on the asteroids that lie in this world, in the order in
+	 * 			which they were added. The view reflects later changes to this world,
+	 * 			so it may not be iterated while asteroids are added or removed.
+	 */
+	public Set<Asteroid> queryAsteroids(){
+		return asteroidsView;
+	}
+	
+	/**
+	 * Return the set of all the planetoids that lie in this game world.
+	 * 
+	 * @return	A read-only view on the planetoids that lie in this world, in the order in
+	 * 			which they were added. The view reflects later changes to this world,
+	 * 			so it may not be iterated while planetoids are added or removed.
+	 */
+	public Set<Planetoid> queryPlanetoids(){
+		return planetoidsView;
 	}
 	
 	/**
@@ -281,10 +364,137 @@ public class World {
 	}
 	
 	/**
-	 * A set registering all the entities that lie in this world.
+	 * Return the list of all entities that lie in this world, in a deterministic order.
+	 * Entities are appended in the order in which they are added; an entity that is
+	 * removed is replaced by the last entity of the list.
+	 * 
+	 * This list is not a copy and may not be modified.
+	 */
+	List<Entity> getEntityList(){
+		return linkedEntities;
+	}
+	
+	/**
+	 * A list registering all the entities that lie in this world. Every entity
+	 * registers its own index in this list.
 	 */
 	private List<Entity> linkedEntities = new ArrayList<Entity>();
 	
+	/**
+	 * Return the entity of this world with the given identifier.
+	 * 
+	 * @param id
+	 * 			The identifier of the entity.
+	 * @return	The entity of this world whose identifier is equal to the given identifier,
+	 * 			or null if there is no such entity.
+	 * 			| if (for some entity in queryEntities(): entity.getId() == id)
+	 * 			|	then result.getId() == id
+	 * 			| else result == null
+	 */
+	public Entity getEntity(int id){
+		return entitiesById.get(id);
+	}
+	
+	/**
+	 * Return the identifier that this world gives to the next entity that is added to it.
+	 * 
+	 * @see implementation
+	 */
+	@Basic
+	public int getNextEntityId(){
+		return this.nextEntityId;
+	}
+	
+	/**
+	 * Set the identifier that this world gives to the next entity that is added to it
+	 * to the given identifier.
+	 * 
+	 * @param nextEntityId
+	 * 			The new next identifier.
+	 * @post	| new.getNextEntityId() == nextEntityId
+	 * @throws	IllegalArgumentException
+	 * 			| for some entity in queryEntities(): entity.getId() >= nextEntityId
+	 * 
+	 * This is a helper method to restore the identifiers of a world.
+	 */
+	void setNextEntityId(int nextEntityId) throws IllegalArgumentException{
+		for (Integer id: entitiesById.keySet())
+			if (id >= nextEntityId)
+				throw new IllegalArgumentException(nextEntityId+" is not a valid next identifier.");
+		this.nextEntityId = nextEntityId;
+	}
+	
+	/**
+	 * A map registering the entities that lie in this world, by identifier.
+	 */
+	private final Map<Integer, Entity> entitiesById = new HashMap<Integer, Entity>();
+	
+	/**
+	 * Variable registering the identifier of the next entity that is added to this world.
+	 */
+	private int nextEntityId = 0;
+	
+	/**
+	 * Add the given entity to the registry of its type, if there is one.
+	 * 
+	 * @param entity
+	 * 			The entity that has to be registered.
+	 */
+	private void register(Entity entity){
+		if (entity instanceof Ship){
+			ships.add((Ship)entity);
+			shipsSnapshot = null;
+		}
+		else if (entity instanceof Bullet)
+			bullets.add((Bullet)entity);
+		else if (entity instanceof Asteroid)
+			asteroids.add((Asteroid)entity);
+		else if (entity instanceof Planetoid)
+			planetoids.add((Planetoid)entity);
+	}
+	
+	/**
+	 * Remove the given entity from the registry of its type, if there is one.
+	 * 
+	 * @param entity
+	 * 			The entity that has to be unregistered.
+	 */
+	private void unregister(Entity entity){
+		if (entity instanceof Ship){
+			ships.remove(entity);
+			shipsSnapshot = null;
+		}
+		else if (entity instanceof Bullet)
+			bullets.remove(entity);
+		else if (entity instanceof Asteroid)
+			asteroids.remove(entity);
+		else if (entity instanceof Planetoid)
+			planetoids.remove(entity);
+	}
+	
+	/**
+	 * Sets registering the ships, bullets, asteroids and planetoids that lie in this world,
+	 * in the order in which they were added.
+	 */
+	private final Set<Ship> ships = new LinkedHashSet<Ship>();
+	private final Set<Bullet> bullets = new LinkedHashSet<Bullet>();
+	private final Set<Asteroid> asteroids = new LinkedHashSet<Asteroid>();
+	private final Set<Planetoid> planetoids = new LinkedHashSet<Planetoid>();
+	
+	/**
+	 * Read-only views on the sets of ships, bullets, asteroids and planetoids of this world.
+	 */
+	private final Set<Ship> shipsView = Collections.unmodifiableSet(ships);
+	private final Set<Bullet> bulletsView = Collections.unmodifiableSet(bullets);
+	private final Set<Asteroid> asteroidsView = Collections.unmodifiableSet(asteroids);
+	private final Set<Planetoid> planetoidsView = Collections.unmodifiableSet(planetoids);
+	
+	/**
+	 * Variable registering the last snapshot of the ships of this world, null if ships were
+	 * added or removed since it was taken.
+	 */
+	private Set<Ship> shipsSnapshot = null;
+	
 	
 	// other methods
 	/**
@@ -301,7 +511,9 @@ public class World {
 	 */
 	public Entity getEntityAtPosition(double x, double y){
 		Vector convertedPos = new Vector(x, y);
-
+		
+		if (!coordMapValid)
+			updateCoordMap();
 		return coordEntities.get(convertedPos);
 	}
 	
@@ -319,13 +531,14 @@ public class World {
 	 */
 	@Basic
 	public boolean contains(Entity entity){
-		Vector entityPos = entity.getPosition();
+		double posX = entity.getPositionX();
+		double posY = entity.getPositionY();
 		double radius = entity.getRadius();
 		// Left and under border 
-		if (entityPos.getX() < 0.99*radius || entityPos.getY() < 0.99*radius)
+		if (posX < 0.99*radius || posY < 0.99*radius)
 			return false;
 		// Right and upper border
-		else if ((getWidth()-entityPos.getX()) < 0.99*radius || (getHeight()-entityPos.getY()) < 0.99*radius)
+		else if ((getWidth()-posX) < 0.99*radius || (getHeight()-posY) < 0.99*radius)
 			return false;
 		
 		return true;
@@ -333,40 +546,67 @@ public class World {
 	/**
 	 * Calculate the time it takes for the given entity to reach the boundary it is heading to.
 	 * 
+	 * The time is cached in the given entity, and only computed again after the position
+	 * or the velocity of the entity was set, since it does not change while the entity
+	 * moves freely.
+	 * 
 	 * @param entity
 	 * 			The entity whose time to collision with a boundary has to be calculated.
 	 * @return	The time until the given entity collides with one of the boundaries of this world.
 	 */
-	public double getTimeToCollisionWithBoundaries(Entity entity){	
+	public double getTimeToCollisionWithBoundaries(Entity entity){
+		if (!isInWorld(entity))
+			return Double.POSITIVE_INFINITY;
+		double result = entity.getCachedTimeToBoundary(this, getTime());
+		if (Double.isNaN(result)){
+			result = computeTimeToCollisionWithBoundaries(entity);
+			entity.cacheTimeToBoundary(this, getTime(), result);
+		}
+		return result;
+	}
+	
+	/**
+	 * Calculate the time it takes for the given entity to reach the boundary it is heading
+	 * to, from its current position and velocity.
+	 * 
+	 * @param entity
+	 * 			The entity whose time to collision with a boundary has to be calculated.
+	 * @return	The time until the given entity collides with one of the boundaries of this world.
+	 * 
+	 * This is a helper method of the method getTimeToCollisionWithBoundaries.
+	 */
+	private double computeTimeToCollisionWithBoundaries(Entity entity){
 		double radius = entity.getRadius();
-		Vector current_pos = entity.getPosition();
-		Vector current_vel = entity.getVelocity();
+		double posX = entity.getPositionX();
+		double posY = entity.getPositionY();
+		double velX = entity.getVelocityX();
+		double velY = entity.getVelocityY();
 		
 		// If the given entity is not moving or does not lie in this world,
 		// it will never collide with the boundaries.
-		if (!isInWorld(entity) || (current_vel.getX() == 0 && current_vel.getY() == 0))
+		if (!isInWorld(entity) || (velX == 0 && velY == 0))
 			return Double.POSITIVE_INFINITY;
 		double x_time;
 		double y_time;
 		// Upper-Right Quadrant
-		if (current_vel.getX() >= 0 && current_vel.getY() >= 0){
-			x_time = (getWidth()-(radius+current_pos.getX()))/current_vel.getX();
-			y_time = (getHeight()-(radius+current_pos.getY()))/current_vel.getY();
+		if (velX >= 0 && velY >= 0){
+			x_time = (getWidth()-(radius+posX))/velX;
+			y_time = (getHeight()-(radius+posY))/velY;
 		}
 		// Upper-Left Quadrant
-		else if (current_vel.getX() <= 0 && current_vel.getY() >= 0){
-			x_time = (radius-current_pos.getX())/current_vel.getX();
-			y_time = (getHeight()-(radius+current_pos.getY()))/current_vel.getY();
+		else if (velX <= 0 && velY >= 0){
+			x_time = (radius-posX)/velX;
+			y_time = (getHeight()-(radius+posY))/velY;
 		}
 		// Lower-Left Quadrant
-		else if (current_vel.getX() <= 0 && current_vel.getY() <= 0){
-			x_time = (radius-current_pos.getX())/current_vel.getX();
-			y_time = (radius-current_pos.getY())/current_vel.getY();
+		else if (velX <= 0 && velY <= 0){
+			x_time = (radius-posX)/velX;
+			y_time = (radius-posY)/velY;
 		}
 		// Lower-Right Quadrant
 		else {
-			x_time = (getWidth()-(radius+current_pos.getX()))/current_vel.getX();
-			y_time = (radius-current_pos.getY())/current_vel.getY();
+			x_time = (getWidth()-(radius+posX))/velX;
+			y_time = (radius-posY)/velY;
 		}
 		if (x_time <= y_time)
 			return x_time;
@@ -384,69 +624,42 @@ public class World {
 	 */
 	public Vector getPositionToCollisionWithBoundaries(Entity entity){
 		double radius = entity.getRadius();
-		Vector current_pos = entity.getPosition();
-		Vector current_vel = entity.getVelocity();
+		double posX = entity.getPositionX();
+		double posY = entity.getPositionY();
+		double velX = entity.getVelocityX();
+		double velY = entity.getVelocityY();
 		
 		// If the given entity is not moving or does not lie in this world,
 		// it will never collide with the boundaries.
-		if (!isInWorld(entity) || current_vel.getX() == 0 || current_vel.getY() == 0)
+		if (!isInWorld(entity) || velX == 0 || velY == 0)
 			return null;
-		double x_time;
-		double y_time;
-		Vector extraPos;
-		// Upper-Right Quadrant
-		if (current_vel.getX() > 0 && current_vel.getY() > 0){
-			x_time = (getWidth()-(radius+current_pos.getX()))/current_vel.getX();
-			y_time = (getHeight()-(radius+current_pos.getY()))/current_vel.getY();
-			
-			if (x_time <= y_time){
-				extraPos= current_vel.multiply(x_time).add(new Vector(radius, 0));
-				return current_pos.add(extraPos);
-			}
-			extraPos= current_vel.multiply(y_time).add(new Vector(0, radius));
-			return current_pos.add(extraPos);
-		}
-		// Upper-Left Quadrant
-		else if (current_vel.getX() < 0 && current_vel.getY() > 0){
-			x_time = (radius-current_pos.getX())/current_vel.getX();
-			y_time = (getHeight()-(radius+current_pos.getY()))/current_vel.getY();
-			
-			if (x_time <= y_time){
-				extraPos= current_vel.multiply(x_time).add(new Vector(-radius, 0));
-				return current_pos.add(extraPos);
-			}
-			extraPos= current_vel.multiply(y_time).add(new Vector(0, radius));
-			return current_pos.add(extraPos);
-		}
-		// Lower-Left Quadrant
-		else if (current_vel.getX() < 0 && current_vel.getY() < 0){
-			x_time = (radius-current_pos.getX())/current_vel.getX();
-			y_time = (radius-current_pos.getY())/current_vel.getY();
-			
-			if (x_time <= y_time){
-				extraPos= current_vel.multiply(x_time).add(new Vector(-radius, 0));
-				return current_pos.add(extraPos);
-			}
-			extraPos= current_vel.multiply(y_time).add(new Vector(0, -radius));
-			return current_pos.add(extraPos);
-		}
-		// Lower-Right Quadrant
-		else {
-			x_time = (getWidth()-(radius+current_pos.getX()))/current_vel.getX();
-			y_time = (radius-current_pos.getY())/current_vel.getY();
-			
-			if (x_time <= y_time){
-				extraPos= current_vel.multiply(x_time).add(new Vector(radius, 0));
-				return current_pos.add(extraPos);
-			}
-			extraPos= current_vel.multiply(y_time).add(new Vector(0, -radius));
-			return current_pos.add(extraPos);
-		}
+		// The offsets from the center of the entity to the point where it touches
+		// the vertical and the horizontal boundary it is heading to.
+		double x_offset = (velX > 0) ? radius : -radius;
+		double y_offset = (velY > 0) ? radius : -radius;
+		double x_time = ((velX > 0) ? getWidth()-(radius+posX) : radius-posX)/velX;
+		double y_time = ((velY > 0) ? getHeight()-(radius+posY) : radius-posY)/velY;
+		
+		if (x_time <= y_time)
+			return new Vector(posX+(velX*x_time+x_offset), posY+velY*x_time);
+		return new Vector(posX+velX*y_time, posY+(velY*y_time+y_offset));
 	}
 	
 	/**
 	 * No Documentation required.
 	 * 
+	 * The collisions of this world are predicted once and kept in a queue, ordered by
+	 * the time at which they happen. Collisions that happen within getCollisionWindow()
+	 * after the first one are handled together, in the order of the queue, at the time of
+	 * the first one. A collision of an entity whose motion was changed by an earlier
+	 * collision of the same batch is dropped. After a batch, only the collisions of the 
+	 * entities whose motion changed are predicted again, once per entity.
+	 * At most getMaxCollisionsPerStep() collisions are handled. If more collisions happen
+	 * within deltaT, this world stops evolving right after the last handled collision and 
+	 * the remaining time is reported in getLastEvolveStatistics().
+	 * 
+	 * @post	| new.getLastEvolveStatistics().getNbCollisions() <= getMaxCollisionsPerStep()
+	 * @post	| new.getTime() == getTime() + deltaT - new.getLastEvolveStatistics().getUnsimulatedTime()
 	 * @throws IllegalStateException
 	 * 			| isTerminated()
 	 * @throws IllegalArgumentException
@@ -462,22 +675,219 @@ public class World {
 		if (Double.isNaN(deltaT) || Double.isInfinite(deltaT) || (deltaT < 0))
 			throw new IllegalArgumentException(deltaT+" is not valid.");
 		
-		// -- Step 1: predict the first collision
-		Collision firstCollision = getFirstCollision();
-		double firstCollisionTime = firstCollision.getTimeToCollision();
+		double endTime = getTime()+deltaT;
+		int nbSubSteps = 0;
+		int nbCollisions = 0;
+		// -- Step 1: predict all collisions that happen within deltaT
+		CollisionQueue collisions = new CollisionQueue(this, endTime);
 		
-		// -- Step 2: Check if firstCollisionTime is greater than deltaT
-		if (firstCollisionTime > deltaT) {
-			//if it is, advance all the entities deltaT seconds
-			advanceEntities(deltaT);
-		} else {
-			// if it is not, advance all the entities to the time of collision and handle the collision.
-			advanceEntities(firstCollisionTime);
-			handleCollision(firstCollision, collisionListener);
+		// -- Step 2: handle the collisions in batches, in the order in which they happen
+		List<Entity> involvedEntities = new ArrayList<Entity>();
+		CollisionQueue.Event firstCollision = collisions.poll();
+		while (firstCollision != null){
+			// Stop if the collision budget of this step has been used up.
+			if (nbCollisions == getMaxCollisionsPerStep()){
+				this.lastEvolveStatistics = new EvolveStatistics(nbSubSteps, nbCollisions, endTime-getTime());
+				return;
+			}
+			// advance all the entities to the time of the first collision of the batch.
+			advanceEntities(Math.max(firstCollision.getTime()-getTime(), 0));
+			nbSubSteps++;
+			
+			double batchEndTime = firstCollision.getTime()+getCollisionWindow();
+			CollisionQueue.Event collision = firstCollision;
+			while (collision != null){
+				involvedEntities.add(collision.getFirstEntity());
+				if (collision.getSecondEntity() != null)
+					involvedEntities.add(collision.getSecondEntity());
+				handleCollision(toCollision(collision), collisionListener);
+				nbCollisions++;
+				// Collisions of entities whose motion changed are no longer valid.
+				collision = collisions.peek();
+				if (collision != null && collision.getTime() <= batchEndTime
+						&& nbCollisions < getMaxCollisionsPerStep())
+					collisions.poll();
+				else
+					collision = null;
+			}
+			
+			// -- Step 3: only predict the collisions of the entities whose motion changed again
+			for (Entity entity: involvedEntities)
+				collisions.reschedule(entity);
+			involvedEntities.clear();
+			for (Ship ship: queryShips())
+				if (ship.isShipThrusterActive())
+					collisions.reschedule(ship);
+			
+			firstCollision = collisions.poll();
+		}
+		// -- Step 4: advance all the entities to the end of this evolution
+		advanceEntities(Math.max(endTime-getTime(), 0));
+		nbSubSteps++;
+		this.time = endTime;
+		this.lastEvolveStatistics = new EvolveStatistics(nbSubSteps, nbCollisions, 0);
+	}
+	
+	/**
+	 * Return the maximal number of collisions that can be handled during one
+	 * evolution of this world.
+	 * 
+	 * @see implementation
+	 */
+	@Basic
+	public int getMaxCollisionsPerStep(){
+		return this.maxCollisionsPerStep;
+	}
+	
+	/**
+	 * Set the maximal number of collisions that can be handled during one evolution
+	 * of this world to the given number.
+	 * 
+	 * @param maxCollisions
+	 * 			The new maximal number of collisions per evolution.
+	 * @post	| new.getMaxCollisionsPerStep() == maxCollisions
+	 * @throws IllegalArgumentException
+	 * 			| maxCollisions < 1
+	 */
+	public void setMaxCollisionsPerStep(int maxCollisions) throws IllegalArgumentException{
+		if (maxCollisions < 1)
+			throw new IllegalArgumentException(maxCollisions+" is not a valid collision budget.");
+		this.maxCollisionsPerStep = maxCollisions;
+	}
+	
+	/**
+	 * Variable registering the maximal number of collisions per evolution of this world.
+	 */
+	private int maxCollisionsPerStep = 10000;
+	
+	/**
+	 * Return the time window in which collisions are handled together with the first
+	 * collision of a batch, during an evolution of this world.
+	 * 
+	 * @see implementation
+	 */
+	@Basic
+	public double getCollisionWindow(){
+		return this.collisionWindow;
+	}
+	
+	/**
+	 * Set the time window in which collisions are handled together with the first
+	 * collision of a batch to the given window.
+	 * 
+	 * @param collisionWindow
+	 * 			The new collision window, expressed in seconds.
+	 * @post	| new.getCollisionWindow() == collisionWindow
+	 * @throws IllegalArgumentException
+	 * 			| Double.isNaN(collisionWindow) || Double.isInfinite(collisionWindow) || collisionWindow < 0
+	 */
+	public void setCollisionWindow(double collisionWindow) throws IllegalArgumentException{
+		if (Double.isNaN(collisionWindow) || Double.isInfinite(collisionWindow) || collisionWindow < 0)
+			throw new IllegalArgumentException(collisionWindow+" is not a valid collision window.");
+		this.collisionWindow = collisionWindow;
+	}
+	
+	/**
+	 * Variable registering the collision window of this world, expressed in seconds.
+	 */
+	private double collisionWindow = 1E-9;
+	
+	/**
+	 * Return the statistics of the last evolution of this world.
+	 * 
+	 * @see implementation
+	 */
+	@Basic
+	public EvolveStatistics getLastEvolveStatistics(){
+		return this.lastEvolveStatistics;
+	}
+	
+	/**
+	 * Variable registering the statistics of the last evolution of this world.
+	 */
+	private EvolveStatistics lastEvolveStatistics = new EvolveStatistics();
+	
+	/**
+	 * Return a Collision object that contains all the information about the given
+	 * predicted collision, at the moment it happens.
+	 * 
+	 * @param event
+	 * 			The predicted collision.
+	 * @return	A Collision object with the entities involved in the given collision and
+	 * 			the position of that collision.
+	 * 
+	 * This is a helper method of the method evolve.
+	 */
+	private Collision toCollision(CollisionQueue.Event event){
+		Entity firstEntity = event.getFirstEntity();
+		Entity secondEntity = event.getSecondEntity();
+		
+		if (secondEntity == null)
+			return new Collision(firstEntity, null, getPositionToCollisionWithBoundaries(firstEntity), 0);
 		
-			// -- Step 3: recursive call
-			evolve(deltaT-firstCollisionTime, collisionListener);
+		// Both entities touch, so the collision lies on the line between both centers.
+		double firstX = firstEntity.getPositionX();
+		double firstY = firstEntity.getPositionY();
+		double fraction = firstEntity.getRadius()/(firstEntity.getRadius()+secondEntity.getRadius());
+		Vector position = new Vector(firstX+(secondEntity.getPositionX()-firstX)*fraction,
+									 firstY+(secondEntity.getPositionY()-firstY)*fraction);
+		
+		return new Collision(firstEntity, secondEntity, position, 0);
+	}
+	
+	/**
+	 * Return the time that has elapsed in this world, expressed in seconds.
+	 * 
+	 * @see implementation
+	 */
+	@Basic
+	public double getTime(){
+		return this.time;
+	}
+	
+	/**
+	 * Set the time that has elapsed in this world to the given time.
+	 * 
+	 * @param time
+	 * 			The new time of this world, expressed in seconds.
+	 * @post	| new.getTime() == time
+	 * @throws	IllegalArgumentException
+	 * 			| Double.isNaN(time) || Double.isInfinite(time) || time < 0
+	 * 
+	 * This is a helper method to restore the time of a world.
+	 */
+	void setTime(double time) throws IllegalArgumentException{
+		if (Double.isNaN(time) || Double.isInfinite(time) || time < 0)
+			throw new IllegalArgumentException(time+" is not a valid time.");
+		this.time = time;
+	}
+	
+	/**
+	 * Variable registering the time that has elapsed in this world.
+	 */
+	private double time = 0;
+	
+	/**
+	 * Return the time until the given entities of this world collide.
+	 * 
+	 * The time is cached in the row of the first entity. If both entities never collide,
+	 * it is only computed again after the position or the velocity of one of both entities
+	 * was set, since that does not change while both entities move freely.
+	 * 
+	 * @param firstEntity
+	 * 			The first entity of the pair, that lies in this world.
+	 * @param secondEntity
+	 * 			The second entity of the pair, that lies in this world.
+	 * @effect	| firstEntity.getTimeToCollision(secondEntity)
+	 */
+	double predictTimeToCollision(Entity firstEntity, Entity secondEntity){
+		ImpactCache impacts = firstEntity.getImpactCache();
+		double result = impacts.get(firstEntity, secondEntity, getTime());
+		if (Double.isNaN(result)){
+			result = firstEntity.getTimeToCollision(secondEntity);
+			impacts.put(firstEntity, secondEntity, getTime(), result);
 		}
+		return result;
 	}
 	
 	/**
@@ -486,12 +896,43 @@ public class World {
 	 * 
 	 * @return A FirstCollision object that contains all the information 
 	 * 		   about the next collision in this world.
+	 * @effect
+	 * 			| getFirstCollision(Double.POSITIVE_INFINITY)
 	 */
 	public Collision getFirstCollision(){
+		return getFirstCollision(Double.POSITIVE_INFINITY);
+	}
+	
+	/**
+	 * Return a FirstCollision object that contains all the information about the
+	 * first collision that will happen in this world, if that collision happens
+	 * within the given time horizon.
+	 * 
+	 * When this world contains many entities, only pairs of entities whose swept
+	 * bounding boxes share a cell of a uniform grid are checked for collisions.
+	 * 
+	 * @param horizon
+	 * 			The time interval in which the first collision is looked for.
+	 * @return	If the first collision happens within the given horizon, a FirstCollision
+	 * 			object that contains all the information about that collision.
+	 * 			| if (getFirstCollision().getTimeToCollision() <= horizon)
+	 * 			| 	then result.getTimeToCollision() == getFirstCollision().getTimeToCollision()
+	 * @return	If no collision happens within the given horizon, a FirstCollision object
+	 * 			that describes a later collision or no collision at all.
+	 * 			| if (getFirstCollision().getTimeToCollision() > horizon)
+	 * 			| 	then result.getTimeToCollision() > horizon
+	 * @throws IllegalArgumentException
+	 * 			| Double.isNaN(horizon) || (horizon < 0)
+	 */
+	public Collision getFirstCollision(double horizon) throws IllegalArgumentException{
+		if (Double.isNaN(horizon) || (horizon < 0))
+			throw new IllegalArgumentException(horizon+" is not a valid horizon.");
 		// if there are no entities in this world, we have to do nothing.
 		if (linkedEntities.size() == 0)
 			return new Collision();
 		
+		BroadPhase broadPhase = getBroadPhase(horizon);
+		
 		double firstCollisionTime = Double.POSITIVE_INFINITY;
 		Entity firstInvolvedEntity=null;
 		// secondInvolvedEntity is null if the first collision is with a border.
@@ -501,9 +942,10 @@ public class World {
 			// first entity
 			Entity firstEntity = linkedEntities.get(firstIndex);
 			
-			for (int secondIndex= firstIndex+1; secondIndex < linkedEntities.size(); secondIndex++){
+			// Only the candidates of the broad phase can collide within the horizon.
+			for (int secondIndex: broadPhase.getCandidates(firstIndex)){
 				Entity secondEntity = linkedEntities.get(secondIndex);
-				double collisionTime = firstEntity.getTimeToCollision(secondEntity);
+				double collisionTime = predictTimeToCollision(firstEntity, secondEntity);
 					
 				if (collisionTime < firstCollisionTime) {
 					firstCollisionTime = collisionTime;
@@ -533,6 +975,97 @@ public class World {
 		return new Collision(firstInvolvedEntity, secondInvolvedEntity, collisionPosition, firstCollisionTime);
 	}
 	
+	/**
+	 * Return the number of entities from which on the collision prediction
+	 * of a world uses a uniform grid.
+	 * 
+	 * @see implementation
+	 */
+	@Basic @Immutable
+	public static int getGridThreshold(){
+		return World.gridThreshold;
+	}
+	
+	/**
+	 * Variable registering the number of entities from which on the collision 
+	 * prediction uses a uniform grid.
+	 */
+	private static final int gridThreshold = 32;
+	
+	/**
+	 * Return the broad phase that is used to predict the collisions of this world.
+	 * 
+	 * @see implementation
+	 */
+	@Basic
+	public BroadPhaseMode getBroadPhaseMode(){
+		return this.broadPhaseMode;
+	}
+	
+	/**
+	 * Set the broad phase that is used to predict the collisions of this world to the
+	 * given mode.
+	 * 
+	 * @param broadPhaseMode
+	 * 			The new broad phase of this world.
+	 * @post	| new.getBroadPhaseMode() == broadPhaseMode
+	 * @throws NullPointerException
+	 * 			| broadPhaseMode == null
+	 */
+	public void setBroadPhaseMode(BroadPhaseMode broadPhaseMode) throws NullPointerException{
+		if (broadPhaseMode == null)
+			throw new NullPointerException("The broad phase mode cannot be null.");
+		this.broadPhaseMode = broadPhaseMode;
+		if (broadPhaseMode == BroadPhaseMode.SWEEP_AND_PRUNE){
+			if (sweepAndPrune == null)
+				this.sweepAndPrune = new SweepAndPrune();
+		} else
+			this.sweepAndPrune = null;
+	}
+	
+	/**
+	 * Return a broad phase for the entities of this world, in the order of getEntityList(),
+	 * swept over the given time horizon.
+	 * 
+	 * @param horizon
+	 * 			The time interval over which the movement of the entities is considered.
+	 * @return	A sweep-and-prune broad phase if that is the mode of this world.
+	 * 			| if (getBroadPhaseMode() == BroadPhaseMode.SWEEP_AND_PRUNE)
+	 * 			|	then result instanceof SweepAndPrune
+	 * @return	A grid if that is the mode of this world and it pays off: an infinite
+	 * 			horizon would cover the whole world.
+	 * 			| if (getBroadPhaseMode() == BroadPhaseMode.GRID && !Double.isInfinite(horizon) &&
+	 * 			|		getEntityList().size() >= getGridThreshold())
+	 * 			|	then result instanceof CollisionGrid
+	 * @return	A pairwise broad phase otherwise.
+	 * 
+	 * This is a helper method for the collision prediction.
+	 */
+	BroadPhase getBroadPhase(double horizon){
+		switch (getBroadPhaseMode()){
+		case SWEEP_AND_PRUNE:
+			sweepAndPrune.update(this, linkedEntities, horizon);
+			return sweepAndPrune;
+		case GRID:
+			if (!Double.isInfinite(horizon) && linkedEntities.size() >= getGridThreshold())
+				return new CollisionGrid(this, linkedEntities, horizon);
+			return new PairwiseBroadPhase(linkedEntities.size());
+		default:
+			return new PairwiseBroadPhase(linkedEntities.size());
+		}
+	}
+	
+	/**
+	 * Variable registering the broad phase of this world.
+	 */
+	private BroadPhaseMode broadPhaseMode = BroadPhaseMode.GRID;
+	
+	/**
+	 * Variable registering the sweep-and-prune broad phase of this world, which keeps
+	 * its order between predictions. Null if another broad phase is used.
+	 */
+	private SweepAndPrune sweepAndPrune = null;
+	
 	/**
 	 * Advance all entities that lie in this world with deltaT seconds.
 	 * 
@@ -540,46 +1073,225 @@ public class World {
 	 * 				The considered time interval of the Entities' movement.
 	 * @effect	
 	 * 			| for every entity in queryEntities():
-	 * 			|		entity.move(deltaT)
+	 * 			|		entity.advance(deltaT)
 	 * @effect	
 	 * 			| for every entity of type Ship in queryEntities():
 	 * 			|		if ship.isShipThrusterActive()
 	 * 			|			ship.thrust(deltaT)
+	 * @post
+	 * 			| new.getTime() == getTime() + deltaT
 	 * 
 	 * This is a helper method of the method evolve.
 	 */
 	private void advanceEntities(double deltaT){
+		if (isUsingEntityStore()){
+			// Thrust first, so every entity moves with its velocity at the end of deltaT.
+			for (Entity entity: linkedEntities)
+				if (entity instanceof Ship && ((Ship)entity).isShipThrusterActive())
+					((Ship)entity).thrust(deltaT);
+			// Move all entities along their trajectories at once.
+			entityStore.advance(deltaT);
+			invalidatePositionIndexes();
+			this.time += deltaT;
+			return;
+		}
 		
 		for (Entity entity: linkedEntities){
 			// If this entity is a Ship and its thruster is active, update its velocity
 			if (entity instanceof Ship && ((Ship)entity).isShipThrusterActive())
 				((Ship)entity).thrust(deltaT);
-			// Move the entity.
-			entity.move(deltaT);
-			// Update the coordEntities map
-			updateCoordMap();
+			// Move the entity along its trajectory.
+			entity.advance(deltaT);
 		}
+		this.time += deltaT;
 	}
 	
 	/**
-	 * Update the coordinate map that holds all entities in this world,
+	 * Rebuild the coordinate map that holds all entities in this world,
 	 * with their position as key.
+	 * If several entities lie on the same position, the entity that comes last
+	 * in getEntityList() is registered at that position.
 	 */
 	private void updateCoordMap(){
-		Map<Vector, Entity> tempMap = new HashMap<Vector, Entity>();
-		
-		for (Vector key: coordEntities.keySet()){
-			Entity entity = coordEntities.get(key);
-			tempMap.put(entity.getPosition(), entity);					
-		}
-		coordEntities = tempMap;
+		coordEntities.clear();
+		for (Entity entity: linkedEntities)
+			coordEntities.put(entity.getPosition(), entity);
+		this.coordMapValid = true;
+	}
+	
+	/**
+	 * Mark the coordinate map and the spatial index of this world as out of date,
+	 * because an entity moved. They are only rebuilt at the next lookup.
+	 * 
+	 * @post	| !new.coordMapValid && new.spatialIndex == null
+	 */
+	void invalidatePositionIndexes(){
+		this.coordMapValid = false;
+		this.spatialIndex = null;
 	}
 	
 	/**
 	 * A Map that contains an entity that lies in this world as value and the entity's
 	 * position as the corresponding key.
+	 * This map is only up to date if coordMapValid is true.
 	 */
-	private Map<Vector, Entity> coordEntities = new HashMap<Vector, Entity>();
+	private final Map<Vector, Entity> coordEntities = new HashMap<Vector, Entity>();
+	
+	/**
+	 * Variable registering whether the coordinate map of this world is up to date.
+	 */
+	private boolean coordMapValid = true;
+	
+	
+	// Nearest entities
+	/**
+	 * Return the entity of the given type in this world, other than the given entity,
+	 * whose center lies nearest to the center of the given entity.
+	 * 
+	 * @effect	| getNearestEntity(entity, type, null)
+	 */
+	public <T extends Entity> T getNearestEntity(Entity entity, Class<T> type)
+			throws NullPointerException, IllegalArgumentException{
+		return getNearestEntity(entity, type, null);
+	}
+	
+	/**
+	 * Return the entity of the given type in this world, other than the given entity,
+	 * whose center lies nearest to the center of the given entity and that satisfies
+	 * the given condition.
+	 * 
+	 * The entities are looked up in a grid that is rebuilt at most once after the entities
+	 * of this world moved, so successive queries between two evolutions only visit the
+	 * cells around the given entity.
+	 * 
+	 * @param entity
+	 * 			The entity from which the distances are measured.
+	 * @param type
+	 * 			The type of the entity that is looked for.
+	 * @param condition
+	 * 			The condition that the result has to satisfy, null if every entity of the
+	 * 			given type is acceptable.
+	 * @return	| result == null || (type.isInstance(result) && result != entity && isInWorld(result) &&
+	 * 			|	(condition == null || condition.test(result)))
+	 * @return	| for each other in queryEntities():
+	 * 			|	if (other != entity && type.isInstance(other) && (condition == null || condition.test(other)))
+	 * 			|		then result != null && 
+	 * 			|			entity.getDistanceBetweenCenters(result) <= entity.getDistanceBetweenCenters(other)
+	 * @throws	NullPointerException
+	 * 			| entity == null || type == null
+	 * @throws	IllegalArgumentException
+	 * 			| entity.getWorld() != this
+	 */
+	public <T extends Entity> T getNearestEntity(Entity entity, Class<T> type, Predicate<? super T> condition)
+			throws NullPointerException, IllegalArgumentException{
+		if (entity == null || type == null)
+			throw new NullPointerException("The entity and the type cannot be null.");
+		if (entity.getWorld() != this)
+			throw new IllegalArgumentException("The given entity does not lie in this world.");
+		return getSpatialIndex().getNearest(entity, type, condition);
+	}
+	
+	/**
+	 * Return an entity of this world, other than the given entity, whose circle intersects
+	 * the circle of the given entity and that satisfies the given condition.
+	 * 
+	 * The entities are looked up in the same grid as the nearest entities, so the cost
+	 * of a query only depends on the number of entities around the given entity.
+	 * 
+	 * @param entity
+	 * 			The entity whose circle has to be intersected. This entity does not have
+	 * 			to lie in this world.
+	 * @param condition
+	 * 			The condition that the result has to satisfy, null if every entity is acceptable.
+	 * @return	| result == null || (result != entity && isInWorld(result) &&
+	 * 			|	entity.getDistanceBetweenCenters(result) <= entity.getRadius()+result.getRadius() &&
+	 * 			|	(condition == null || condition.test(result)))
+	 * @return	| if (result == null)
+	 * 			| then for each other in queryEntities():
+	 * 			|	other == entity || 
+	 * 			|	entity.getDistanceBetweenCenters(other) > entity.getRadius()+other.getRadius() ||
+	 * 			|	(condition != null && !condition.test(other))
+	 * @throws	NullPointerException
+	 * 			| entity == null
+	 */
+	public Entity getIntersectingEntity(Entity entity, Predicate<? super Entity> condition)
+			throws NullPointerException{
+		if (entity == null)
+			throw new NullPointerException("The entity cannot be null.");
+		return getSpatialIndex().getIntersecting(entity.getPositionX(), entity.getPositionY(), entity.getRadius(),
+				(other) -> other != entity && (condition == null || condition.test(other)));
+	}
+	
+	/**
+	 * Return the spatial index of this world, after rebuilding it if the entities of this
+	 * world moved since it was built.
+	 */
+	private SpatialIndex getSpatialIndex(){
+		SpatialIndex index = this.spatialIndex;
+		if (index == null){
+			index = new SpatialIndex(this, linkedEntities);
+			this.spatialIndex = index;
+		}
+		return index;
+	}
+	
+	/**
+	 * Variable registering the index of the positions of the entities of this world, used
+	 * to find nearest and intersecting entities. Null if it is out of date.
+	 */
+	private SpatialIndex spatialIndex = null;
+	
+	
+	// Entity storage mode
+	/**
+	 * Check whether the state of the entities of this world is kept in an entity store.
+	 * 
+	 * @see implementation
+	 */
+	@Basic
+	public boolean isUsingEntityStore(){
+		return this.entityStore != null;
+	}
+	
+	/**
+	 * Set whether the state of the entities of this world has to be kept in an entity store.
+	 * 
+	 * In the entity store, the positions and velocities of all entities are kept in
+	 * parallel arrays of doubles, so this world can move its entities without
+	 * creating new vectors. The entities read and write their state through the store.
+	 * 
+	 * @param usingEntityStore
+	 * 			True if the entity store has to be used, false otherwise.
+	 * @post	| new.isUsingEntityStore() == usingEntityStore
+	 * @post	The position and velocity of every entity of this world are not changed.
+	 * 			| for each entity in queryEntities():
+	 * 			|	new.entity.getPosition().equals(entity.getPosition()) &&
+	 * 			|	new.entity.getVelocity().equals(entity.getVelocity())
+	 * @throws IllegalStateException
+	 * 			| isTerminated()
+	 */
+	public void setUsingEntityStore(boolean usingEntityStore) throws IllegalStateException{
+		if (isTerminated())
+			throw new IllegalStateException("This world has been terminated.");
+		if (usingEntityStore == isUsingEntityStore())
+			return;
+		
+		if (usingEntityStore){
+			this.entityStore = new EntityStore(linkedEntities.size());
+			for (Entity entity: linkedEntities)
+				entity.attachToStore(entityStore);
+		} else {
+			for (Entity entity: linkedEntities)
+				entity.detachFromStore();
+			this.entityStore = null;
+		}
+	}
+	
+	/**
+	 * Variable registering the store in which the state of the entities of this world
+	 * is kept, null if every entity keeps its own state.
+	 */
+	private EntityStore entityStore = null;
 	
 	/**
 	 * Handle the collision that will happen in this world.
@@ -679,15 +1391,13 @@ public class World {
 		
 		// It's a horizontal border
 		if (apparentlyCollidesWithHorizontalBorder(entity)) {
-			Vector velocity = entity.getVelocity();
 			// Flip the Y-Component of the 
-			entity.setVelocity(velocity.getX(), -velocity.getY());
+			entity.setVelocity(entity.getVelocityX(), -entity.getVelocityY());
 		}
 		// It's a vertical border
 		else {
-			Vector velocity = entity.getVelocity();
 			// Flip the X-Component of the 
-			entity.setVelocity(-velocity.getX(), velocity.getY());
+			entity.setVelocity(-entity.getVelocityX(), entity.getVelocityY());
 			
 			// We're done, exit the method
 			return;
@@ -713,19 +1423,22 @@ public class World {
 		double mj = secondShip.getTotalMass();
 		double sigma = firstShip.getRadius()+secondShip.getRadius();
 		
-		Vector firstVel = firstShip.getVelocity();
-		Vector secondVel = secondShip.getVelocity();
+		double firstVelX = firstShip.getVelocityX();
+		double firstVelY = firstShip.getVelocityY();
+		double secondVelX = secondShip.getVelocityX();
 		
-		Vector deltaPos = secondShip.getPosition().subtract(firstShip.getPosition());
-		Vector deltaVel = secondVel.subtract(firstVel);
+		double deltaX = secondShip.getPositionX()-firstShip.getPositionX();
+		double deltaY = secondShip.getPositionY()-firstShip.getPositionY();
+		double deltaVelX = secondVelX-firstVelX;
+		double deltaVelY = secondShip.getVelocityY()-firstVelY;
 
-		double J = (2*mi*mj*deltaVel.dot(deltaPos))/ (sigma*(mi+mj));
+		double J = (2*mi*mj*Kinematics.dot(deltaVelX, deltaVelY, deltaX, deltaY))/ (sigma*(mi+mj));
 		
-		firstShip.setVelocity(firstVel.getX()+(J*deltaPos.getX())/(sigma*mi),
-								firstVel.getY()+(J*deltaPos.getY())/(sigma*mi));
+		firstShip.setVelocity(firstVelX+(J*deltaX)/(sigma*mi),
+								firstVelY+(J*deltaY)/(sigma*mi));
 		
-		secondShip.setVelocity(secondVel.getX()-(J*deltaPos.getX())/(sigma*mj),
-								 secondVel.getX()-(J*deltaPos.getY())/(sigma*mj));
+		secondShip.setVelocity(secondVelX-(J*deltaX)/(sigma*mj),
+								 secondVelX-(J*deltaY)/(sigma*mj));
 	}
 	
 	/**
@@ -778,6 +1491,161 @@ public class World {
 	}
 	
 	
+	// Programs
+	/**
+	 * Execute the programs of all the ships in this world during the given amount of time,
+	 * on the common fork-join pool.
+	 * 
+	 * @effect	| executeAllPrograms(duration, ForkJoinPool.commonPool())
+	 */
+	public Map<Ship, List<Object>> executeAllPrograms(double duration)
+			throws IllegalStateException, IllegalArgumentException{
+		return executeAllPrograms(duration, ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * Execute the programs of all the ships in this world during the given amount of time.
+	 * 
+	 * - First, all programs are executed with their actions buffered. Since no program
+	 *   changes the world then, the programs are executed in chunks of ships on the workers
+	 *   of the given pool. Every program sees the world as it was before this execution;
+	 *   a program does not see the effect of its own actions either.
+	 * - Next, the buffered actions are applied on this thread, ship by ship in the order
+	 *   in which the ships were added to this world, and per ship in the order in which the
+	 *   actions were executed. The result therefore does not depend on the pool.
+	 * 
+	 * @param duration
+	 * 			The amount of time during which every program is executed, in seconds.
+	 * @param pool
+	 * 			The pool whose workers execute the programs.
+	 * @return	A map with every ship of this world that has a program as key, in the order
+	 * 			in which the ships were added to this world. The value of a ship is the list
+	 * 			of values that its program printed if it is finished, and null otherwise.
+	 * @throws	IllegalStateException
+	 * 			| isTerminated()
+	 * @throws	IllegalArgumentException
+	 * 			| Double.isNaN(duration) || Double.isInfinite(duration) || duration < 0
+	 * @throws	NullPointerException
+	 * 			| pool == null
+	 * @throws	IllegalArgumentException
+	 * 			The program of a ship uses a value of the wrong type, or one of its actions
+	 * 			cannot be applied to its ship. The programs of all other ships are executed,
+	 * 			and the error of the first ship that failed is thrown afterwards.
+	 * @throws	IllegalStateException
+	 * 			The program of a ship refers to something that does not exist, executes a
+	 * 			statement where it is not allowed, or failed before. The programs of all other
+	 * 			ships are executed, and the error of the first ship that failed is thrown afterwards.
+	 */
+	public Map<Ship, List<Object>> executeAllPrograms(double duration, ForkJoinPool pool)
+			throws IllegalStateException, IllegalArgumentException, NullPointerException{
+		if (isTerminated())
+			throw new IllegalStateException("This world has been terminated.");
+		if (Double.isNaN(duration) || Double.isInfinite(duration) || duration < 0)
+			throw new IllegalArgumentException(duration+" is not a valid duration.");
+		if (pool == null)
+			throw new NullPointerException("The pool cannot be null.");
+		
+		List<Ship> ships = new ArrayList<Ship>();
+		for (Entity entity: linkedEntities)
+			if (entity instanceof Ship && ((Ship)entity).getProgram() != null)
+				ships.add((Ship)entity);
+		// Build the spatial index up front: the programs query it from several
+		// threads, and nothing moves until their actions are applied.
+		getSpatialIndex();
+		ProgramTask task = new ProgramTask(ships.toArray(new Ship[ships.size()]), duration);
+		if (task.getNbChunks() > 1)
+			pool.invoke(task);
+		else
+			task.compute();
+		
+		Map<Ship, List<Object>> result = new LinkedHashMap<Ship, List<Object>>();
+		RuntimeException firstFailure = null;
+		for (int index=0; index < task.ships.length; index++){
+			Ship ship = task.ships[index];
+			RuntimeException failure = task.failures[index];
+			try {
+				ship.getProgram().applyBufferedActions();
+			} catch (RuntimeException exc){
+				if (failure == null)
+					failure = exc;
+			}
+			if (failure != null && firstFailure == null)
+				firstFailure = failure;
+			result.put(ship, task.results.get(index));
+		}
+		if (firstFailure != null)
+			throw firstFailure;
+		return result;
+	}
+	
+	/**
+	 * Return the number of ships whose programs are executed together by one worker.
+	 * 
+	 * @see implementation
+	 */
+	@Immutable
+	public static int getProgramChunkSize(){
+		return 64;
+	}
+	
+	/**
+	 * A class representing the task that executes the programs of a range of ships with
+	 * buffered actions. A task with more than one chunk splits itself in two halves.
+	 */
+	private static class ProgramTask extends RecursiveAction {
+		
+		private ProgramTask(Ship[] ships, double duration){
+			// The results are filled in advance, so the workers only replace their own elements.
+			this(ships, duration, new ArrayList<List<Object>>(Collections.nCopies(ships.length, (List<Object>)null)),
+					new RuntimeException[ships.length], 0, ships.length);
+		}
+		
+		private ProgramTask(Ship[] ships, double duration, List<List<Object>> results, RuntimeException[] failures,
+				int from, int to){
+			this.ships = ships;
+			this.duration = duration;
+			this.results = results;
+			this.failures = failures;
+			this.from = from;
+			this.to = to;
+		}
+		
+		private int getNbChunks(){
+			return (to-from+getProgramChunkSize()-1)/getProgramChunkSize();
+		}
+		
+		@Override
+		protected void compute(){
+			int nbChunks = getNbChunks();
+			if (nbChunks <= 1){
+				for (int index=from; index < to; index++){
+					try {
+						results.set(index, ships[index].getProgram().execute(duration, true));
+					} catch (RuntimeException exc){
+						failures[index] = exc;
+					}
+				}
+				return;
+			}
+			int middle = from+(nbChunks/2)*getProgramChunkSize();
+			invokeAll(new ProgramTask(ships, duration, results, failures, from, middle),
+					new ProgramTask(ships, duration, results, failures, middle, to));
+		}
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final Ship[] ships;
+		
+		private final double duration;
+		
+		private final List<List<Object>> results;
+		
+		private final RuntimeException[] failures;
+		
+		private final int from, to;
+	}
+	
+	
 	// Destroy/Terminate methods
 	/**
 	 * Destroy this world by removing all the entities and terminating the world.
@@ -793,9 +1661,20 @@ public class World {
 		if (!this.isTerminated()){
 
 			for (Entity entity: linkedEntities){
+				entity.detachFromStore();
 				entity.removeWorld();
+				entity.setWorldIndex(-1);
+				entity.setId(-1);
+				entity.clearImpactCache();
 			}
 			linkedEntities.clear();
+			entitiesById.clear();
+			ships.clear();
+			shipsSnapshot = null;
+			bullets.clear();
+			asteroids.clear();
+			planetoids.clear();
+			this.entityStore = null;
 			this.isTerminated=true;
 		}
 	}
@@ -0,0 +1,387 @@
+package asteroids.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * A class of static methods to write the state of a game world to a compact binary
+ * snapshot, and to restore a new world from such a snapshot.
+ *
+ * - A snapshot starts with a header: a magic number, the version of the format, the
+ *   size and the time of the world, its collision budget and window, the identifier of
+ *   the next entity and the number of entities.
+ * - The header is followed by one record per entity of the world, in the order of the
+ *   list of entities of that world, so a restored world evolves exactly like the original.
+ *   Every record holds the kind, the identifier, the position, the velocity, the radius
+ *   and the speed limit of the entity, followed by the state of its kind:
+ *   + ships: the angle, the base mass, the thruster state and the number of loaded
+ *     bullets, followed by one record per loaded bullet in the order in which they are
+ *     fired, the last one first;
+ *   + bullets: the number of bounces and the identifier of the source ship, or -1 if that
+ *     ship does not lie in the world.
+ * - Records have a fixed size per kind, and are written and read through one buffer,
+ *   without serializing objects. A snapshot is written in big-endian byte order.
+ * - The programs of ships are not part of a snapshot.
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+public final class WorldSnapshot {
+
+	/**
+	 * This class only has static methods.
+	 */
+	private WorldSnapshot(){
+	}
+
+
+	// Writing
+	/**
+	 * Write a snapshot of the given world to the given channel.
+	 *
+	 * @param world
+	 * 			The world whose state has to be written.
+	 * @param channel
+	 * 			The channel to which the snapshot is written.
+	 * @throws	NullPointerException
+	 * 			| world == null || channel == null
+	 * @throws	IllegalStateException
+	 * 			| world.isTerminated()
+	 * @throws	IOException
+	 * 			If the snapshot cannot be written to the given channel.
+	 */
+	public static void write(World world, WritableByteChannel channel)
+			throws NullPointerException, IllegalStateException, IOException{
+		if (world == null || channel == null)
+			throw new NullPointerException();
+		if (world.isTerminated())
+			throw new IllegalStateException("A terminated world has no snapshot.");
+		List<Entity> entities = world.getEntityList();
+		ByteBuffer buffer = ByteBuffer.allocate(getBufferSize());
+
+		buffer.putInt(MAGIC).putShort(getFormatVersion());
+		buffer.putDouble(world.getWidth()).putDouble(world.getHeight()).putDouble(world.getTime());
+		buffer.putInt(world.getMaxCollisionsPerStep()).putDouble(world.getCollisionWindow());
+		buffer.putInt(world.getNextEntityId()).putInt(entities.size());
+		for (Entity entity: entities){
+			writeEntity(entity, entity.getId(), buffer, channel);
+			if (entity instanceof Ship)
+				for (Bullet bullet: ((Ship)entity).getBulletList())
+					writeEntity(bullet, -1, buffer, channel);
+		}
+		flush(buffer, channel);
+	}
+
+	/**
+	 * Return a snapshot of the given world as an array of bytes.
+	 *
+	 * @param world
+	 * 			The world whose state has to be written.
+	 * @effect	| write(world, channel)
+	 */
+	public static byte[] toByteArray(World world) throws NullPointerException, IllegalStateException{
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		try {
+			write(world, Channels.newChannel(stream));
+		} catch (IOException exc){
+			// Writing to an array cannot fail.
+			throw new AssertionError(exc);
+		}
+		return stream.toByteArray();
+	}
+
+	/**
+	 * Write the record of the given entity with the given identifier to the given buffer,
+	 * after flushing the buffer to the given channel if the record does not fit.
+	 */
+	private static void writeEntity(Entity entity, int id, ByteBuffer buffer, WritableByteChannel channel)
+			throws IOException{
+		if (buffer.remaining() < getMaxRecordSize())
+			flush(buffer, channel);
+		buffer.put(getKind(entity)).putInt(id);
+		buffer.putDouble(entity.getPositionX()).putDouble(entity.getPositionY());
+		buffer.putDouble(entity.getVelocityX()).putDouble(entity.getVelocityY());
+		buffer.putDouble(entity.getRadius()).putDouble(entity.getSpeedLimit());
+		if (entity instanceof Ship){
+			Ship ship = (Ship)entity;
+			buffer.putDouble(ship.getAngle()).putDouble(ship.getBaseMass());
+			buffer.put((byte)(ship.isShipThrusterActive() ? 1 : 0));
+			buffer.putInt(ship.getBulletList().size());
+		}
+		else if (entity instanceof Bullet){
+			Bullet bullet = (Bullet)entity;
+			Ship source = bullet.getSourceShip();
+			buffer.putInt(bullet.getNbTimesBounced());
+			buffer.putInt(source != null && source.getWorld() == entity.getWorld() ? source.getId() : -1);
+		}
+	}
+
+	/**
+	 * Write the contents of the given buffer to the given channel and clear the buffer.
+	 */
+	private static void flush(ByteBuffer buffer, WritableByteChannel channel) throws IOException{
+		buffer.flip();
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+		buffer.clear();
+	}
+
+	/**
+	 * Return the kind of the given entity in a snapshot.
+	 */
+	private static byte getKind(Entity entity){
+		if (entity instanceof Ship)
+			return SHIP;
+		if (entity instanceof Bullet)
+			return BULLET;
+		if (entity instanceof Asteroid)
+			return ASTEROID;
+		if (entity instanceof Planetoid)
+			return PLANETOID;
+		throw new IllegalArgumentException("Entities of this kind have no snapshot.");
+	}
+
+
+	// Reading
+	/**
+	 * Read a snapshot from the given channel and return a new world with the state of
+	 * that snapshot.
+	 *
+	 * @param channel
+	 * 			The channel from which the snapshot is read.
+	 * @return	A new world with the size, the time, the collision budget and window, and
+	 * 			the entities of the snapshot, with their identifiers and in the same order.
+	 * @throws	NullPointerException
+	 * 			| channel == null
+	 * @throws	IllegalArgumentException
+	 * 			If the channel does not contain a valid snapshot of the current version.
+	 * @throws	EOFException
+	 * 			If the channel ends before the end of the snapshot.
+	 * @throws	IOException
+	 * 			If the snapshot cannot be read from the given channel.
+	 */
+	public static World read(ReadableByteChannel channel)
+			throws NullPointerException, IllegalArgumentException, IOException{
+		if (channel == null)
+			throw new NullPointerException();
+		ByteBuffer buffer = ByteBuffer.allocate(getBufferSize());
+		buffer.flip();
+
+		fill(buffer, channel, getHeaderSize());
+		if (buffer.getInt() != MAGIC)
+			throw new IllegalArgumentException("The channel does not contain a snapshot of a world.");
+		short version = buffer.getShort();
+		if (version != getFormatVersion())
+			throw new IllegalArgumentException("Snapshots of version "+version+" are not supported.");
+		World world = new World(buffer.getDouble(), buffer.getDouble());
+		world.setTime(buffer.getDouble());
+		world.setMaxCollisionsPerStep(buffer.getInt());
+		world.setCollisionWindow(buffer.getDouble());
+		int nextEntityId = buffer.getInt();
+		int nbEntities = buffer.getInt();
+		if (nbEntities < 0)
+			throw new IllegalArgumentException(nbEntities+" is not a valid number of entities.");
+
+		List<Bullet> firedBullets = new ArrayList<Bullet>();
+		List<Integer> sourceIds = new ArrayList<Integer>();
+		for (int i = 0; i < nbEntities; i++){
+			byte kind = fillRecord(buffer, channel);
+			buffer.get();
+			int id = buffer.getInt();
+			Entity entity = readEntity(kind, buffer);
+			if (kind == SHIP){
+				int nbBullets = buffer.getInt();
+				if (nbBullets < 0)
+					throw new IllegalArgumentException(nbBullets+" is not a valid number of bullets.");
+				for (; nbBullets > 0; nbBullets--){
+					kind = fillRecord(buffer, channel);
+					buffer.get();
+					buffer.getInt();
+					if (kind != BULLET)
+						throw new IllegalArgumentException("Ships can only carry bullets.");
+					Bullet bullet = (Bullet)readEntity(kind, buffer);
+					buffer.getInt();
+					((Ship)entity).restoreBullet(bullet);
+				}
+			}
+			else if (kind == BULLET){
+				int sourceId = buffer.getInt();
+				if (sourceId >= 0){
+					firedBullets.add((Bullet)entity);
+					sourceIds.add(sourceId);
+				}
+			}
+			world.addEntity(entity, id);
+		}
+		world.setNextEntityId(nextEntityId);
+		for (int i = 0; i < firedBullets.size(); i++){
+			Entity source = world.getEntity(sourceIds.get(i));
+			if (!(source instanceof Ship))
+				throw new IllegalArgumentException("The source of a bullet must be a ship.");
+			firedBullets.get(i).setSourceShip((Ship)source);
+		}
+		return world;
+	}
+
+	/**
+	 * Return a new world with the state of the snapshot in the given array of bytes.
+	 *
+	 * @param bytes
+	 * 			The bytes of the snapshot.
+	 * @effect	| read(channel)
+	 */
+	public static World fromByteArray(byte[] bytes) throws NullPointerException, IllegalArgumentException{
+		try {
+			return read(Channels.newChannel(new ByteArrayInputStream(bytes)));
+		} catch (EOFException exc){
+			throw new IllegalArgumentException("The snapshot is incomplete.", exc);
+		} catch (IOException exc){
+			// Reading from an array cannot fail otherwise.
+			throw new AssertionError(exc);
+		}
+	}
+
+	/**
+	 * Return a new entity of the given kind with the state of the record at the position
+	 * of the given buffer, just after the kind and the identifier of that record.
+	 * The number of loaded bullets of a ship and the identifier of the source ship of a
+	 * bullet, at the end of their records, are left in the buffer.
+	 */
+	private static Entity readEntity(byte kind, ByteBuffer buffer) throws IllegalArgumentException{
+		double positionX = buffer.getDouble(), positionY = buffer.getDouble();
+		double velocityX = buffer.getDouble(), velocityY = buffer.getDouble();
+		double radius = buffer.getDouble(), speedLimit = buffer.getDouble();
+		switch (kind){
+		case SHIP:
+			double angle = buffer.getDouble(), mass = buffer.getDouble();
+			boolean thrust = buffer.get() != 0;
+			return new Ship(positionX, positionY, velocityX, velocityY, radius, angle, mass, thrust, speedLimit);
+		case BULLET:
+			Bullet bullet = new Bullet(positionX, positionY, velocityX, velocityY, radius, speedLimit);
+			bullet.setNbTimesBounced(buffer.getInt());
+			return bullet;
+		case ASTEROID:
+		case PLANETOID:
+			MinorPlanet planet = kind == ASTEROID ? new Asteroid() : new Planetoid();
+			planet.setPosition(positionX, positionY);
+			planet.setVelocity(velocityX, velocityY);
+			return planet;
+		default:
+			throw new IllegalArgumentException(kind+" is not a valid kind of entity.");
+		}
+	}
+
+	/**
+	 * Make sure that the given buffer holds at least the given number of bytes, by reading
+	 * more bytes from the given channel if needed.
+	 *
+	 * @throws	EOFException
+	 * 			If the channel ends before the buffer holds the given number of bytes.
+	 */
+	private static void fill(ByteBuffer buffer, ReadableByteChannel channel, int nbBytes) throws IOException{
+		if (buffer.remaining() >= nbBytes)
+			return;
+		buffer.compact();
+		while (buffer.position() < nbBytes)
+			if (channel.read(buffer) < 0)
+				throw new EOFException("The snapshot ends unexpectedly.");
+		buffer.flip();
+	}
+
+	/**
+	 * Make sure that the given buffer holds the next record, by reading more bytes from the
+	 * given channel if needed, and return the kind of that record.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			If the next record is not of a valid kind.
+	 * @throws	EOFException
+	 * 			If the channel ends before the end of the record.
+	 */
+	private static byte fillRecord(ByteBuffer buffer, ReadableByteChannel channel) throws IOException{
+		fill(buffer, channel, 1);
+		byte kind = buffer.get(buffer.position());
+		fill(buffer, channel, getRecordSize(kind));
+		return kind;
+	}
+
+
+	// Format
+	/**
+	 * Return the version of the snapshot format written by this class.
+	 *
+	 * @see implementation
+	 */
+	public static short getFormatVersion(){
+		return 1;
+	}
+
+	/**
+	 * Return the number of bytes of the header of a snapshot.
+	 *
+	 * @see implementation
+	 */
+	static int getHeaderSize(){
+		return 4 + 2 + 3*8 + 4 + 8 + 4 + 4;
+	}
+
+	/**
+	 * Return the number of bytes of the record of an entity of the given kind.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			If the given kind is not a valid kind of entity.
+	 */
+	static int getRecordSize(byte kind) throws IllegalArgumentException{
+		switch (kind){
+		case SHIP:
+			return 1 + 4 + 6*8 + 2*8 + 1 + 4;
+		case BULLET:
+			return 1 + 4 + 6*8 + 4 + 4;
+		case ASTEROID:
+		case PLANETOID:
+			return 1 + 4 + 6*8;
+		default:
+			throw new IllegalArgumentException(kind+" is not a valid kind of entity.");
+		}
+	}
+
+	/**
+	 * Return the maximal number of bytes of the record of one entity.
+	 *
+	 * @return	| result == getRecordSize(SHIP)
+	 */
+	static int getMaxRecordSize(){
+		return getRecordSize(SHIP);
+	}
+
+	/**
+	 * Return the number of bytes of the buffer through which snapshots are written and read.
+	 *
+	 * @see implementation
+	 */
+	static int getBufferSize(){
+		return 1 << 16;
+	}
+
+	/**
+	 * Constant registering the number at the start of every snapshot.
+	 */
+	private static final int MAGIC = 0x41535457;
+
+	/**
+	 * Constants registering the kinds of entities in a snapshot.
+	 */
+	private static final byte SHIP = 1, BULLET = 2, ASTEROID = 3, PLANETOID = 4;
+}
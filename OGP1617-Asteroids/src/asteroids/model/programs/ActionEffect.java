@@ -0,0 +1,29 @@
+package asteroids.model.programs;
+
+import asteroids.model.Ship;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * An interface for the effect of an action on the ship that executes it.
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+interface ActionEffect {
+
+	/**
+	 * Apply this effect with the given argument to the given ship.
+	 *
+	 * @param ship
+	 * 			The ship that executes the action.
+	 * @param argument
+	 * 			The value of the argument of the action, null if it has none.
+	 * @throws	IllegalArgumentException
+	 * 			The action cannot be applied to the ship with the given argument.
+	 */
+	void apply(Ship ship, Object argument) throws IllegalArgumentException;
+}
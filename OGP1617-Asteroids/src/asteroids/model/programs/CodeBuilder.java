@@ -0,0 +1,114 @@
+package asteroids.model.programs;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * A class of builders that lay out the main body of a ship program as a flat array of
+ * instructions.
+ *
+ * - Every instruction is an executor. An instruction that completes normally is followed
+ *   by the next instruction, an instruction that jumps is followed by its jump target.
+ * - An instruction that breaks, or calls a function that breaks, is followed by the
+ *   break target of the innermost while statement around it.
+ * - Statements that cannot be suspended become a single instruction, so the program
+ *   can only be suspended before one of its instructions. The address of that
+ *   instruction is all an execution has to keep to resume.
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+final class CodeBuilder {
+
+	/**
+	 * Append the given instruction to the code.
+	 *
+	 * @param instruction
+	 * 			The instruction that has to be appended.
+	 * @return	The address of the new instruction.
+	 */
+	int emit(Executor instruction){
+		instructions.add(instruction);
+		jumpTargets.add(-1);
+		breakTargets.add(-1);
+		return instructions.size()-1;
+	}
+
+	/**
+	 * Return the address of the next instruction that will be appended.
+	 */
+	int getNextAddress(){
+		return instructions.size();
+	}
+
+	/**
+	 * Set the jump target of the instruction at the given address.
+	 *
+	 * @param address
+	 * 			The address of the instruction.
+	 * @param target
+	 * 			The address to which the instruction jumps.
+	 */
+	void setJumpTarget(int address, int target){
+		jumpTargets.set(address, target);
+	}
+
+	/**
+	 * Register that the instructions that are appended next lie inside a new while statement.
+	 */
+	void enterLoop(){
+		loopStarts.add(getNextAddress());
+	}
+
+	/**
+	 * Register that the innermost while statement ends, and that a break inside it
+	 * continues at the given address.
+	 *
+	 * @param exit
+	 * 			The address of the first instruction after the while statement.
+	 */
+	void exitLoop(int exit){
+		int start = loopStarts.remove(loopStarts.size()-1);
+		// The instructions of inner while statements already have a break target.
+		for (int address=start; address < getNextAddress(); address++)
+			if (breakTargets.get(address) < 0)
+				breakTargets.set(address, exit);
+	}
+
+	/**
+	 * Return a compiled program with the code of this builder and the given number of
+	 * global variables.
+	 */
+	CompiledProgram build(int nbGlobals){
+		Executor[] code = instructions.toArray(new Executor[instructions.size()]);
+		return new CompiledProgram(code, toArray(jumpTargets), toArray(breakTargets), nbGlobals);
+	}
+
+	/**
+	 * Return an array with the given integers.
+	 */
+	private static int[] toArray(List<Integer> list){
+		int[] result = new int[list.size()];
+		for (int index=0; index < result.length; index++)
+			result[index] = list.get(index);
+		return result;
+	}
+
+	/**
+	 * Lists registering the instructions and their jump and break targets, by address.
+	 */
+	private final List<Executor> instructions = new ArrayList<Executor>();
+	private final List<Integer> jumpTargets = new ArrayList<Integer>();
+	private final List<Integer> breakTargets = new ArrayList<Integer>();
+
+	/**
+	 * A list registering the addresses at which the while statements that are being
+	 * compiled start, from the outermost to the innermost.
+	 */
+	private final List<Integer> loopStarts = new ArrayList<Integer>();
+}
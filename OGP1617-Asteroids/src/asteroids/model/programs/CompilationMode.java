@@ -0,0 +1,21 @@
+package asteroids.model.programs;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * An enumeration of the ways in which a program factory compiles ship programs.
+ *
+ * - CLOSURES compiles every expression and statement into a closure.
+ * - METHOD_HANDLES compiles expressions, and statements after which the program cannot be
+ *   suspended, into chains of method handles. The JVM compiles such chains like ordinary
+ *   code, without a virtual call per node, which pays off for programs that compute a lot.
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+public enum CompilationMode {
+	CLOSURES, METHOD_HANDLES
+}
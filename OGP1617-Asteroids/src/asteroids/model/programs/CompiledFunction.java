@@ -0,0 +1,121 @@
+package asteroids.model.programs;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * A class representing a compiled function of a ship program.
+ *
+ * - Every call to a function is bound to its compiled function once, when the program
+ *   is created. The body is only filled in afterwards, so functions can call themselves
+ *   and functions that are defined later on.
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+final class CompiledFunction {
+
+	/**
+	 * Initialize this new compiled function with the given name and without a body.
+	 *
+	 * @param name
+	 * 			The name of the function.
+	 */
+	CompiledFunction(String name){
+		this.name = name;
+	}
+
+	/**
+	 * Return the name of this function.
+	 */
+	@Basic @Immutable
+	String getName(){
+		return this.name;
+	}
+
+	/**
+	 * Variable registering the name of this function.
+	 */
+	private final String name;
+
+	/**
+	 * Set the body of this function and its number of local variables.
+	 *
+	 * @param body
+	 * 			The compiled body of the function.
+	 * @param nbLocals
+	 * 			The number of local variables of the function.
+	 */
+	void define(Executor body, int nbLocals){
+		this.body = body;
+		this.nbLocals = nbLocals;
+	}
+
+	/**
+	 * Return the number of local variables of this function.
+	 */
+	@Basic
+	int getNbLocals(){
+		return this.nbLocals;
+	}
+
+	/**
+	 * Call this function in the given execution with the given arguments.
+	 *
+	 * @param execution
+	 * 			The execution in which this function is called.
+	 * @param arguments
+	 * 			The values of the actual arguments.
+	 * @return	The value returned by the body of this function.
+	 * @throws	LoopBreak
+	 * 			The body of this function executed a break statement outside of a while
+	 * 			statement; the break applies to the loop in which this function is called.
+	 * @throws	IllegalStateException
+	 * 			The body of this function ended without returning a value.
+	 */
+	Object call(ProgramExecution execution, Object[] arguments) throws LoopBreak, IllegalStateException{
+		Frame frame = execution.pushFrame(this, arguments.length);
+		try {
+			System.arraycopy(arguments, 0, frame.arguments, 0, arguments.length);
+			return call(frame);
+		} finally {
+			execution.popFrame();
+		}
+	}
+
+	/**
+	 * Execute the body of this function in the given frame, whose arguments have been
+	 * filled in already.
+	 *
+	 * @param frame
+	 * 			A frame of the stack of its execution, prepared for a call to this function.
+	 * @return	The value returned by the body of this function.
+	 * @throws	LoopBreak
+	 * 			The body of this function executed a break statement outside of a while
+	 * 			statement; the break applies to the loop in which this function is called.
+	 * @throws	IllegalStateException
+	 * 			The body of this function ended without returning a value.
+	 */
+	Object call(Frame frame) throws LoopBreak, IllegalStateException{
+		int completion = body.execute(frame);
+		if (completion == Executor.BREAK)
+			throw LoopBreak.INSTANCE;
+		if (completion != Executor.RETURN)
+			throw new IllegalStateException("The function "+getName()+" did not return a value.");
+		return frame.returnValue;
+	}
+
+	/**
+	 * Variable registering the compiled body of this function.
+	 */
+	private Executor body;
+
+	/**
+	 * Variable registering the number of local variables of this function.
+	 */
+	private int nbLocals;
+}
@@ -0,0 +1,73 @@
+package asteroids.model.programs;
+
+import asteroids.model.Ship;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * A class representing a compiled ship program.
+ *
+ * - The main body of a compiled program is a flat array of instructions, laid out by
+ *   a code builder. Executions run through it with a program counter.
+ * - A compiled program does not change while it is executed, all the state of an
+ *   execution is kept in the execution itself.
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+public final class CompiledProgram {
+
+	/**
+	 * Initialize this new compiled program with the given instructions and number of
+	 * global variables.
+	 *
+	 * @param instructions
+	 * 			The instructions of the main body of the program.
+	 * @param jumpTargets
+	 * 			The jump targets of the instructions, by address.
+	 * @param breakTargets
+	 * 			The break targets of the instructions, by address; -1 for instructions
+	 * 			that do not lie inside a while statement.
+	 * @param nbGlobals
+	 * 			The number of global variables of the program.
+	 */
+	CompiledProgram(Executor[] instructions, int[] jumpTargets, int[] breakTargets, int nbGlobals){
+		this.instructions = instructions;
+		this.jumpTargets = jumpTargets;
+		this.breakTargets = breakTargets;
+		this.nbGlobals = nbGlobals;
+	}
+
+	/**
+	 * Start a new execution of this program for the given ship.
+	 *
+	 * @param ship
+	 * 			The ship that executes the program.
+	 * @return	| result.getShip() == ship && !result.isFinished()
+	 * @throws	NullPointerException
+	 * 			| ship == null
+	 */
+	public ProgramExecution start(Ship ship) throws NullPointerException{
+		if (ship == null)
+			throw new NullPointerException("The ship cannot be null.");
+		return new ProgramExecution(this, ship);
+	}
+
+	/**
+	 * Variable registering the instructions of the main body of this program.
+	 */
+	final Executor[] instructions;
+
+	/**
+	 * Variables registering the jump and break targets of the instructions, by address.
+	 */
+	final int[] jumpTargets, breakTargets;
+
+	/**
+	 * Variable registering the number of global variables of this program.
+	 */
+	final int nbGlobals;
+}
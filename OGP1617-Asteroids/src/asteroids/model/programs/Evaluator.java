@@ -0,0 +1,28 @@
+package asteroids.model.programs;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * An interface for compiled expressions. An evaluator is a closure in which all
+ * variables and functions of its expression have already been resolved.
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+interface Evaluator {
+
+	/**
+	 * Return the value of the expression in the given frame.
+	 *
+	 * @param frame
+	 * 			The frame in which the expression is evaluated.
+	 * @throws	IllegalArgumentException
+	 * 			The expression is applied to a value of the wrong type.
+	 * @throws	IllegalStateException
+	 * 			The expression refers to something that does not exist.
+	 */
+	Object evaluate(Frame frame) throws IllegalArgumentException, IllegalStateException;
+}
@@ -0,0 +1,60 @@
+package asteroids.model.programs;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * An interface for compiled statements. An executor is a closure in which all
+ * variables and functions of its statement have already been resolved.
+ *
+ * - Executing a statement results in one of the completions below. Loops, functions
+ *   and the program handle the completions that concern them and pass the others on.
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+interface Executor {
+
+	/**
+	 * The statement completed normally.
+	 */
+	static final int NORMAL = 0;
+
+	/**
+	 * A break statement was executed.
+	 */
+	static final int BREAK = 1;
+
+	/**
+	 * A return statement was executed; the returned value is stored in the frame.
+	 */
+	static final int RETURN = 2;
+
+	/**
+	 * An action could not be executed since there is not enough time left; the
+	 * statement resumes from that action when it is executed again.
+	 */
+	static final int SUSPEND = 3;
+
+	/**
+	 * The instruction jumps to its target. This completion is only returned by the
+	 * instructions of the main program that implement if and while statements.
+	 */
+	static final int JUMP = 4;
+
+	/**
+	 * Execute the statement in the given frame.
+	 *
+	 * @param frame
+	 * 			The frame in which the statement is executed.
+	 * @return	The completion of the statement.
+	 * @throws	IllegalArgumentException
+	 * 			The statement is applied to a value of the wrong type.
+	 * @throws	IllegalStateException
+	 * 			The statement refers to something that does not exist, or is not allowed
+	 * 			where it is executed.
+	 */
+	int execute(Frame frame) throws IllegalArgumentException, IllegalStateException;
+}
@@ -0,0 +1,91 @@
+package asteroids.model.programs;
+
+import java.lang.invoke.MethodHandle;
+
+import asteroids.part3.programs.SourceLocation;
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * A class representing an expression of a ship program, as it was parsed.
+ *
+ * - Expressions are only a description of the source code. When the program they belong
+ *   to is created, every expression is compiled once into an evaluator or a method handle,
+ *   in which all variables and functions have been resolved.
+ * - Expressions that have no method handle form of their own are compiled into a handle
+ *   that evaluates their evaluator.
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+public abstract class Expression {
+
+	/**
+	 * Initialize this new expression with the given source location.
+	 *
+	 * @param sourceLocation
+	 * 			The location of this expression in the source code.
+	 * @post	| new.getSourceLocation() == sourceLocation
+	 */
+	Expression(SourceLocation sourceLocation){
+		this.sourceLocation = sourceLocation;
+	}
+
+	/**
+	 * Return the location of this expression in the source code.
+	 */
+	@Basic @Immutable
+	public SourceLocation getSourceLocation(){
+		return this.sourceLocation;
+	}
+
+	/**
+	 * Variable registering the source location of this expression.
+	 */
+	private final SourceLocation sourceLocation;
+
+	/**
+	 * Compile this expression in the given scope.
+	 *
+	 * @param scope
+	 * 			The scope in which the variables and functions of this expression are resolved.
+	 * @return	An evaluator that computes the value of this expression.
+	 */
+	abstract Evaluator compile(Scope scope);
+
+	/**
+	 * Compile this expression in the given scope into a method handle of type (Frame)Object.
+	 *
+	 * @param scope
+	 * 			The scope in which the variables and functions of this expression are resolved.
+	 */
+	MethodHandle compileHandle(Scope scope){
+		return Handles.ofEvaluator(compile(scope));
+	}
+
+	/**
+	 * Compile this expression in the given scope into a method handle of type (Frame)double.
+	 * The handle fails if the value of this expression is not a number.
+	 *
+	 * @param scope
+	 * 			The scope in which the variables and functions of this expression are resolved.
+	 */
+	MethodHandle compileDoubleHandle(Scope scope){
+		return Handles.asDouble(compileHandle(scope), getSourceLocation());
+	}
+
+	/**
+	 * Compile this expression in the given scope into a method handle of type (Frame)boolean.
+	 * The handle fails if the value of this expression is not a boolean.
+	 *
+	 * @param scope
+	 * 			The scope in which the variables and functions of this expression are resolved.
+	 */
+	MethodHandle compileBooleanHandle(Scope scope){
+		return Handles.asBoolean(compileHandle(scope), getSourceLocation());
+	}
+}
@@ -0,0 +1,90 @@
+package asteroids.model.programs;
+
+import java.util.Arrays;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * A class representing the frame of the main program or of one function call.
+ *
+ * - The frames of function calls belong to the stack of frames of an execution, and are
+ *   reused by every call at the same depth. Their arrays only grow when a call needs
+ *   more local variables or arguments than any call at that depth before.
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+final class Frame {
+
+	/**
+	 * Initialize this new frame for the given execution, without local variables or arguments.
+	 *
+	 * @param execution
+	 * 			The execution of the program to which this frame belongs.
+	 */
+	Frame(ProgramExecution execution){
+		this.execution = execution;
+	}
+
+	/**
+	 * Prepare this frame for a call with the given number of local variables and arguments.
+	 * All local variables are marked as not assigned yet.
+	 *
+	 * @param nbLocals
+	 * 			The number of local variables of the call.
+	 * @param nbArguments
+	 * 			The number of arguments of the call.
+	 */
+	void enter(int nbLocals, int nbArguments){
+		if (locals.length < nbLocals)
+			locals = new Object[nbLocals];
+		Arrays.fill(locals, 0, nbLocals, Values.UNDEFINED);
+		if (arguments.length < nbArguments)
+			arguments = new Object[nbArguments];
+		this.nbArguments = nbArguments;
+	}
+
+	/**
+	 * Release the values of the call in this frame, so the frame does not keep entities alive.
+	 */
+	void exit(){
+		Arrays.fill(locals, null);
+		Arrays.fill(arguments, 0, nbArguments, null);
+		nbArguments = 0;
+		returnValue = null;
+	}
+
+	/**
+	 * Variable registering the execution to which this frame belongs.
+	 */
+	final ProgramExecution execution;
+
+	/**
+	 * Variable registering the values of the local variables of this frame, by slot.
+	 */
+	Object[] locals = NO_VALUES;
+
+	/**
+	 * Variable registering the arguments of this frame. Only the first nbArguments
+	 * elements are arguments of the current call.
+	 */
+	Object[] arguments = NO_VALUES;
+
+	/**
+	 * Variable registering the number of arguments of the current call in this frame.
+	 */
+	int nbArguments = 0;
+
+	/**
+	 * Variable registering the value returned by the last return statement in this frame.
+	 */
+	Object returnValue;
+
+	/**
+	 * An empty array of values, shared by all frames without variables or arguments.
+	 */
+	private static final Object[] NO_VALUES = new Object[0];
+}
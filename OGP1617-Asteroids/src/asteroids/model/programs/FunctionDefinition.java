@@ -0,0 +1,76 @@
+package asteroids.model.programs;
+
+import asteroids.part3.programs.SourceLocation;
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * A class representing the definition of a function of a ship program, as it was parsed.
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+public final class FunctionDefinition {
+
+	/**
+	 * Initialize this new function definition with the given name, body and source location.
+	 *
+	 * @param name
+	 * 			The name of the function.
+	 * @param body
+	 * 			The body of the function.
+	 * @param sourceLocation
+	 * 			The location of the definition in the source code.
+	 * @post	| new.getName() == name
+	 * @post	| new.getBody() == body
+	 * @post	| new.getSourceLocation() == sourceLocation
+	 */
+	FunctionDefinition(String name, Statement body, SourceLocation sourceLocation){
+		this.name = name;
+		this.body = body;
+		this.sourceLocation = sourceLocation;
+	}
+
+	/**
+	 * Return the name of this function.
+	 */
+	@Basic @Immutable
+	public String getName(){
+		return this.name;
+	}
+
+	/**
+	 * Variable registering the name of this function.
+	 */
+	private final String name;
+
+	/**
+	 * Return the body of this function.
+	 */
+	@Basic @Immutable
+	public Statement getBody(){
+		return this.body;
+	}
+
+	/**
+	 * Variable registering the body of this function.
+	 */
+	private final Statement body;
+
+	/**
+	 * Return the location of this definition in the source code.
+	 */
+	@Basic @Immutable
+	public SourceLocation getSourceLocation(){
+		return this.sourceLocation;
+	}
+
+	/**
+	 * Variable registering the source location of this definition.
+	 */
+	private final SourceLocation sourceLocation;
+}
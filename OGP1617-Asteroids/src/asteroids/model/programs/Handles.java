@@ -0,0 +1,417 @@
+package asteroids.model.programs;
+
+import static java.lang.invoke.MethodType.methodType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+import asteroids.model.Entity;
+import asteroids.model.Ship;
+import asteroids.part3.programs.SourceLocation;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * A class of static methods that build the method handles of compiled ship programs.
+ *
+ * - Every compiled expression is a handle of type (Frame)Object, or (Frame)double and
+ *   (Frame)boolean for numbers and booleans, so arithmetic does not box its operands.
+ * - Every compiled statement is a handle of type (Frame)int that returns the completion
+ *   of the statement, just like an executor.
+ * - Closures and handles can be converted into each other, so both can be mixed freely.
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+final class Handles {
+
+	private Handles(){
+	}
+
+
+	// Conversions between closures and handles
+	/**
+	 * Return a handle that evaluates the given evaluator.
+	 */
+	static MethodHandle ofEvaluator(Evaluator evaluator){
+		return EVALUATE.bindTo(evaluator);
+	}
+
+	/**
+	 * Return a handle that executes the given executor.
+	 */
+	static MethodHandle ofExecutor(Executor executor){
+		return EXECUTE.bindTo(executor);
+	}
+
+	/**
+	 * Return an evaluator that invokes the given handle of type (Frame)Object.
+	 */
+	static Evaluator toEvaluator(final MethodHandle handle){
+		return frame -> {
+			try {
+				return (Object)handle.invokeExact(frame);
+			} catch (RuntimeException | Error exc){
+				throw exc;
+			} catch (Throwable exc){
+				throw new IllegalStateException(exc);
+			}
+		};
+	}
+
+	/**
+	 * Return an executor that invokes the given handle of type (Frame)int.
+	 */
+	static Executor toExecutor(final MethodHandle handle){
+		return frame -> {
+			try {
+				return (int)handle.invokeExact(frame);
+			} catch (RuntimeException | Error exc){
+				throw exc;
+			} catch (Throwable exc){
+				throw new IllegalStateException(exc);
+			}
+		};
+	}
+
+
+	// Values
+	/**
+	 * Return a handle that always returns the given value.
+	 */
+	static MethodHandle constant(Object value){
+		return MethodHandles.dropArguments(MethodHandles.constant(Object.class, value), 0, Frame.class);
+	}
+
+	/**
+	 * Return a handle that always returns the given number.
+	 */
+	static MethodHandle constant(double value){
+		return MethodHandles.dropArguments(MethodHandles.constant(double.class, value), 0, Frame.class);
+	}
+
+	/**
+	 * Return a handle that always returns the given completion.
+	 */
+	static MethodHandle completion(int completion){
+		return MethodHandles.dropArguments(MethodHandles.constant(int.class, completion), 0, Frame.class);
+	}
+
+	/**
+	 * Return a handle that returns the value of the given handle as a number.
+	 */
+	static MethodHandle asDouble(MethodHandle handle, SourceLocation location){
+		return MethodHandles.filterReturnValue(handle, MethodHandles.insertArguments(AS_DOUBLE, 1, location));
+	}
+
+	/**
+	 * Return a handle that returns the value of the given handle as a boolean.
+	 */
+	static MethodHandle asBoolean(MethodHandle handle, SourceLocation location){
+		return MethodHandles.filterReturnValue(handle, MethodHandles.insertArguments(AS_BOOLEAN, 1, location));
+	}
+
+	/**
+	 * Return a handle that returns the value of the given handle of type (Frame)double or
+	 * (Frame)boolean as an object.
+	 */
+	static MethodHandle box(MethodHandle handle){
+		return handle.asType(methodType(Object.class, Frame.class));
+	}
+
+	/**
+	 * Return a handle that applies the given binary operator to the values of the given
+	 * handles, for the same frame.
+	 */
+	static MethodHandle combine(MethodHandle operator, MethodHandle left, MethodHandle right){
+		MethodHandle filtered = MethodHandles.filterArguments(operator, 0, left, right);
+		return MethodHandles.permuteArguments(filtered, methodType(operator.type().returnType(), Frame.class), 0, 0);
+	}
+
+	/**
+	 * Return a handle that applies the given unary operator to the value of the given handle.
+	 */
+	static MethodHandle apply(MethodHandle operator, MethodHandle operand){
+		return MethodHandles.filterReturnValue(operand, operator);
+	}
+
+	/**
+	 * Return a handle that returns the given property of the entity returned by the given handle.
+	 *
+	 * @param property
+	 * 			The name of a getter of entities that returns a double.
+	 */
+	static MethodHandle getProperty(MethodHandle entity, String property, SourceLocation location){
+		MethodHandle asEntity = MethodHandles.insertArguments(AS_ENTITY, 1, location);
+		return MethodHandles.filterReturnValue(MethodHandles.filterReturnValue(entity, asEntity),
+				findVirtual(Entity.class, property, methodType(double.class)));
+	}
+
+
+	// Variables and functions
+	/**
+	 * Return a handle that reads the local variable with the given name in the given slot.
+	 */
+	static MethodHandle readLocal(int slot, String name, SourceLocation location){
+		return MethodHandles.filterArguments(MethodHandles.insertArguments(READ, 1, slot, name, location), 0, LOCALS);
+	}
+
+	/**
+	 * Return a handle that reads the global variable with the given name in the given slot.
+	 */
+	static MethodHandle readGlobal(int slot, String name, SourceLocation location){
+		return MethodHandles.filterArguments(MethodHandles.insertArguments(READ, 1, slot, name, location), 0, GLOBALS);
+	}
+
+	/**
+	 * Return a handle that reads the parameter with the given name and index.
+	 */
+	static MethodHandle readParameter(int index, String name, SourceLocation location){
+		return MethodHandles.insertArguments(READ_PARAMETER, 1, index, name, location);
+	}
+
+	/**
+	 * Return a handle that calls the given function with the values of the given handles
+	 * as its arguments.
+	 */
+	static MethodHandle call(CompiledFunction function, MethodHandle[] arguments){
+		MethodHandle target = MethodHandles.insertArguments(CALL, 0, function)
+				.asCollector(Object[].class, arguments.length);
+		target = MethodHandles.filterArguments(target, 1, arguments);
+		return MethodHandles.permuteArguments(target, methodType(Object.class, Frame.class), new int[arguments.length+1]);
+	}
+
+
+	// Statements
+	/**
+	 * Return a handle that assigns the value of the given handle to the local variable
+	 * in the given slot.
+	 */
+	static MethodHandle assignLocal(int slot, MethodHandle value, SourceLocation location){
+		return MethodHandles.foldArguments(MethodHandles.insertArguments(ASSIGN_LOCAL, 2, slot, location), value);
+	}
+
+	/**
+	 * Return a handle that assigns the value of the given handle to the global variable
+	 * in the given slot.
+	 */
+	static MethodHandle assignGlobal(int slot, MethodHandle value, SourceLocation location){
+		return MethodHandles.foldArguments(MethodHandles.insertArguments(ASSIGN_GLOBAL, 2, slot, location), value);
+	}
+
+	/**
+	 * Return a handle that returns the value of the given handle from a function.
+	 */
+	static MethodHandle returnValue(MethodHandle value){
+		return MethodHandles.foldArguments(RETURN_VALUE, value);
+	}
+
+	/**
+	 * Return a handle that executes the given statements one after the other, until one
+	 * of them does not complete normally.
+	 */
+	static MethodHandle sequence(MethodHandle[] statements){
+		if (statements.length == 0)
+			return completion(Executor.NORMAL);
+		// Build the chain back to front: every statement is followed by the rest of the
+		// chain if it completed normally.
+		MethodHandle rest = statements[statements.length-1];
+		for (int index=statements.length-2; index >= 0; index--){
+			MethodHandle next = MethodHandles.guardWithTest(IS_NORMAL,
+					MethodHandles.dropArguments(rest, 0, int.class), RETURN_COMPLETION);
+			rest = MethodHandles.foldArguments(next, statements[index]);
+		}
+		return rest;
+	}
+
+	/**
+	 * Return a handle that executes the first or the second given statement, depending on
+	 * the value of the given condition.
+	 */
+	static MethodHandle ifThenElse(MethodHandle condition, MethodHandle thenStatement, MethodHandle elseStatement){
+		return MethodHandles.guardWithTest(condition, thenStatement, elseStatement);
+	}
+
+	/**
+	 * Return a handle that executes the given body as long as the given condition holds.
+	 */
+	static MethodHandle loop(MethodHandle condition, MethodHandle body){
+		return MethodHandles.insertArguments(LOOP, 0, condition, body);
+	}
+
+
+	// Targets of the handles
+	@SuppressWarnings("unused")
+	private static double add(double left, double right){
+		return left+right;
+	}
+
+	@SuppressWarnings("unused")
+	private static double multiply(double left, double right){
+		return left*right;
+	}
+
+	@SuppressWarnings("unused")
+	private static double negate(double operand){
+		return -operand;
+	}
+
+	@SuppressWarnings("unused")
+	private static boolean lessThan(double left, double right){
+		return left < right;
+	}
+
+	@SuppressWarnings("unused")
+	private static boolean not(boolean operand){
+		return !operand;
+	}
+
+	@SuppressWarnings("unused")
+	private static boolean equal(Object left, Object right){
+		return (left == null) ? right == null : left.equals(right);
+	}
+
+	@SuppressWarnings("unused")
+	private static Object[] getLocals(Frame frame){
+		return frame.locals;
+	}
+
+	@SuppressWarnings("unused")
+	private static Object[] getGlobals(Frame frame){
+		return frame.execution.globals;
+	}
+
+	@SuppressWarnings("unused")
+	private static Object readParameter(Frame frame, int index, String name, SourceLocation location){
+		if (index < 0 || index >= frame.nbArguments)
+			throw new IllegalStateException("The parameter "+name+" does not exist "+Values.at(location));
+		return frame.arguments[index];
+	}
+
+	@SuppressWarnings("unused")
+	private static Ship getShip(Frame frame){
+		return frame.execution.getShip();
+	}
+
+	@SuppressWarnings("unused")
+	private static double getDirection(Frame frame){
+		return frame.execution.getShip().getAngle();
+	}
+
+	@SuppressWarnings("unused")
+	private static Object call(CompiledFunction function, Frame frame, Object[] arguments){
+		return function.call(frame.execution, arguments);
+	}
+
+	@SuppressWarnings("unused")
+	private static int assignLocal(Object value, Frame frame, int slot, SourceLocation location){
+		Values.assign(frame.locals, slot, value, location);
+		return Executor.NORMAL;
+	}
+
+	@SuppressWarnings("unused")
+	private static int assignGlobal(Object value, Frame frame, int slot, SourceLocation location){
+		Values.assign(frame.execution.globals, slot, value, location);
+		return Executor.NORMAL;
+	}
+
+	@SuppressWarnings("unused")
+	private static int returnValue(Object value, Frame frame){
+		frame.returnValue = value;
+		return Executor.RETURN;
+	}
+
+	@SuppressWarnings("unused")
+	private static boolean isNormal(int completion){
+		return completion == Executor.NORMAL;
+	}
+
+	@SuppressWarnings("unused")
+	private static int loop(MethodHandle condition, MethodHandle body, Frame frame) throws Throwable{
+		while ((boolean)condition.invokeExact(frame)){
+			int completion;
+			try {
+				completion = (int)body.invokeExact(frame);
+			} catch (LoopBreak exc){
+				return Executor.NORMAL;
+			}
+			if (completion == Executor.BREAK)
+				return Executor.NORMAL;
+			if (completion != Executor.NORMAL)
+				return completion;
+		}
+		return Executor.NORMAL;
+	}
+
+
+	// Handles
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+	private static MethodHandle findStatic(Class<?> owner, String name, MethodType type){
+		try {
+			return LOOKUP.findStatic(owner, name, type);
+		} catch (ReflectiveOperationException exc){
+			throw new IllegalStateException(exc);
+		}
+	}
+
+	private static MethodHandle findVirtual(Class<?> owner, String name, MethodType type){
+		try {
+			return LOOKUP.findVirtual(owner, name, type);
+		} catch (ReflectiveOperationException exc){
+			throw new IllegalStateException(exc);
+		}
+	}
+
+	private static final MethodHandle EVALUATE =
+			findVirtual(Evaluator.class, "evaluate", methodType(Object.class, Frame.class));
+	private static final MethodHandle EXECUTE =
+			findVirtual(Executor.class, "execute", methodType(int.class, Frame.class));
+
+	private static final MethodHandle AS_DOUBLE =
+			findStatic(Values.class, "asDouble", methodType(double.class, Object.class, SourceLocation.class));
+	private static final MethodHandle AS_BOOLEAN =
+			findStatic(Values.class, "asBoolean", methodType(boolean.class, Object.class, SourceLocation.class));
+	private static final MethodHandle AS_ENTITY =
+			findStatic(Values.class, "asEntity", methodType(Entity.class, Object.class, SourceLocation.class));
+	private static final MethodHandle READ = findStatic(Values.class, "read",
+			methodType(Object.class, Object[].class, int.class, String.class, SourceLocation.class));
+
+	static final MethodHandle ADD = findStatic(Handles.class, "add", methodType(double.class, double.class, double.class));
+	static final MethodHandle MULTIPLY =
+			findStatic(Handles.class, "multiply", methodType(double.class, double.class, double.class));
+	static final MethodHandle NEGATE = findStatic(Handles.class, "negate", methodType(double.class, double.class));
+	static final MethodHandle SQRT = findStatic(Math.class, "sqrt", methodType(double.class, double.class));
+	static final MethodHandle LESS_THAN =
+			findStatic(Handles.class, "lessThan", methodType(boolean.class, double.class, double.class));
+	static final MethodHandle NOT = findStatic(Handles.class, "not", methodType(boolean.class, boolean.class));
+	static final MethodHandle EQUAL =
+			findStatic(Handles.class, "equal", methodType(boolean.class, Object.class, Object.class));
+
+	static final MethodHandle SELF =
+			findStatic(Handles.class, "getShip", methodType(Ship.class, Frame.class)).asType(methodType(Object.class, Frame.class));
+	static final MethodHandle DIRECTION = findStatic(Handles.class, "getDirection", methodType(double.class, Frame.class));
+
+	private static final MethodHandle LOCALS = findStatic(Handles.class, "getLocals", methodType(Object[].class, Frame.class));
+	private static final MethodHandle GLOBALS = findStatic(Handles.class, "getGlobals", methodType(Object[].class, Frame.class));
+	private static final MethodHandle READ_PARAMETER = findStatic(Handles.class, "readParameter",
+			methodType(Object.class, Frame.class, int.class, String.class, SourceLocation.class));
+	private static final MethodHandle CALL = findStatic(Handles.class, "call",
+			methodType(Object.class, CompiledFunction.class, Frame.class, Object[].class));
+
+	private static final MethodHandle ASSIGN_LOCAL = findStatic(Handles.class, "assignLocal",
+			methodType(int.class, Object.class, Frame.class, int.class, SourceLocation.class));
+	private static final MethodHandle ASSIGN_GLOBAL = findStatic(Handles.class, "assignGlobal",
+			methodType(int.class, Object.class, Frame.class, int.class, SourceLocation.class));
+	private static final MethodHandle RETURN_VALUE =
+			findStatic(Handles.class, "returnValue", methodType(int.class, Object.class, Frame.class));
+	private static final MethodHandle IS_NORMAL = findStatic(Handles.class, "isNormal", methodType(boolean.class, int.class));
+	private static final MethodHandle RETURN_COMPLETION =
+			MethodHandles.dropArguments(MethodHandles.identity(int.class), 1, Frame.class);
+	private static final MethodHandle LOOP = findStatic(Handles.class, "loop",
+			methodType(int.class, MethodHandle.class, MethodHandle.class, Frame.class));
+}
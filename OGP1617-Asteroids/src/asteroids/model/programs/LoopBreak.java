@@ -0,0 +1,30 @@
+package asteroids.model.programs;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * A class signalling that a function executed a break statement outside of a while
+ * statement. Such a break applies to the innermost loop in which the function was called,
+ * which can only be reached by unwinding the evaluation of the calling expression.
+ *
+ * - There is only one instance, without a stack trace, so signalling a break is cheap.
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+final class LoopBreak extends RuntimeException {
+
+	private LoopBreak(){
+		super("A break statement was executed outside of a while statement.", null, false, false);
+	}
+
+	/**
+	 * The only instance of this class.
+	 */
+	static final LoopBreak INSTANCE = new LoopBreak();
+
+	private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,374 @@
+package asteroids.model.programs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import asteroids.model.Ship;
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * A class representing one execution of a compiled ship program by a ship.
+ *
+ * - Every action (thrust, thrust_off, fire, turn and skip) takes a fixed amount of time.
+ *   An action is only executed when at least that amount of time is left; otherwise the
+ *   execution is suspended and resumes from that action the next time it is given time.
+ *   Time that is left over carries over to the next time.
+ * - The main body of the program is a flat array of instructions. A suspended execution
+ *   only keeps the address of the instruction to resume at, so suspending and resuming an
+ *   execution does not allocate anything and does not need a thread of its own.
+ * - Function calls use a stack of frames that is kept by the execution and reused by
+ *   every call at the same depth.
+ * - An execution can buffer its actions instead of applying them to its ship. While it
+ *   does so, the program does not change its ship or its world, so the programs of several
+ *   ships can be executed at the same time; the buffered actions are applied afterwards.
+ * - Once an error occurred, the execution cannot be resumed anymore.
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+public final class ProgramExecution {
+
+	/**
+	 * Initialize this new execution of the given program by the given ship.
+	 *
+	 * @param program
+	 * 			The program that is executed.
+	 * @param ship
+	 * 			The ship that executes the program.
+	 */
+	ProgramExecution(CompiledProgram program, Ship ship){
+		this.program = program;
+		this.ship = ship;
+		this.globals = new Object[program.nbGlobals];
+		Values.clear(globals);
+		this.mainFrame = new Frame(this);
+	}
+
+	/**
+	 * Variable registering the program that is executed.
+	 */
+	private final CompiledProgram program;
+
+	/**
+	 * Return the ship that executes the program.
+	 */
+	@Basic @Immutable
+	public Ship getShip(){
+		return this.ship;
+	}
+
+	/**
+	 * Variable registering the ship that executes the program.
+	 */
+	private final Ship ship;
+
+
+	// Execution
+	/**
+	 * Give the given amount of time to this execution, and execute the program until it
+	 * is finished or until there is not enough time left for its next action.
+	 *
+	 * @param duration
+	 * 			The amount of time that is given, in seconds.
+	 * @effect	| resume(duration, false)
+	 */
+	public boolean resume(double duration) throws IllegalArgumentException, IllegalStateException{
+		return resume(duration, false);
+	}
+
+	/**
+	 * Give the given amount of time to this execution, and execute the program until it
+	 * is finished or until there is not enough time left for its next action.
+	 *
+	 * @param duration
+	 * 			The amount of time that is given, in seconds.
+	 * @param bufferActions
+	 * 			True if the actions of the program have to be buffered until
+	 * 			applyBufferedActions() is invoked, false if they have to be applied at once.
+	 * @return	| result == new.isFinished()
+	 * @throws	IllegalArgumentException
+	 * 			| Double.isNaN(duration) || Double.isInfinite(duration) || duration < 0
+	 * @throws	IllegalArgumentException
+	 * 			A value of the wrong type is used in the program.
+	 * @throws	IllegalStateException
+	 * 			The program refers to a variable, parameter or function that does not exist,
+	 * 			or executes a statement where it is not allowed, or failed before.
+	 */
+	public boolean resume(double duration, boolean bufferActions) throws IllegalArgumentException, IllegalStateException{
+		if (Double.isNaN(duration) || Double.isInfinite(duration) || duration < 0)
+			throw new IllegalArgumentException(duration+" is not a valid duration.");
+		if (failed)
+			throw new IllegalStateException("The execution of this program failed before.");
+		if (finished)
+			return true;
+		remainingTime += duration;
+
+		boolean completed = false;
+		bufferingActions = bufferActions;
+		try {
+			finished = run();
+			completed = true;
+		} finally {
+			failed = !completed;
+			bufferingActions = false;
+		}
+		return finished;
+	}
+
+	/**
+	 * Execute the instructions of the program from the program counter on, until the
+	 * program ends or an instruction suspends it.
+	 *
+	 * @return	True if and only if the program ended.
+	 */
+	private boolean run(){
+		Executor[] instructions = program.instructions;
+		int address = programCounter;
+		while (address < instructions.length){
+			int completion;
+			try {
+				completion = instructions[address].execute(mainFrame);
+			} catch (LoopBreak exc){
+				// A function executed a break statement that applies to this loop.
+				completion = Executor.BREAK;
+			}
+			switch (completion){
+			case Executor.NORMAL:
+				address++;
+				break;
+			case Executor.JUMP:
+				address = program.jumpTargets[address];
+				break;
+			case Executor.BREAK:
+				address = program.breakTargets[address];
+				if (address < 0)
+					throw new IllegalStateException("A break statement was executed outside of a while statement.");
+				break;
+			case Executor.SUSPEND:
+				programCounter = address;
+				return false;
+			default:
+				throw new IllegalStateException("A return statement was executed outside of a function.");
+			}
+		}
+		programCounter = address;
+		return true;
+	}
+
+	/**
+	 * Check whether the program has been executed completely.
+	 */
+	@Basic
+	public boolean isFinished(){
+		return this.finished;
+	}
+
+	/**
+	 * Variables registering whether the execution is finished and whether it failed.
+	 */
+	private boolean finished = false, failed = false;
+
+	/**
+	 * Return the amount of time that is left for the actions of the program, in seconds.
+	 */
+	@Basic
+	public double getRemainingTime(){
+		return this.remainingTime;
+	}
+
+	/**
+	 * Check whether enough time is left to execute an action.
+	 *
+	 * @return	| result == (getRemainingTime() >= getActionDuration())
+	 */
+	boolean hasTimeForAction(){
+		return remainingTime >= getActionDuration();
+	}
+
+	/**
+	 * Consume the time of one action.
+	 *
+	 * @post	| new.getRemainingTime() == getRemainingTime() - getActionDuration()
+	 */
+	void consumeActionTime(){
+		remainingTime -= getActionDuration();
+	}
+
+	/**
+	 * Return the amount of time that every action takes, in seconds.
+	 *
+	 * @see implementation
+	 */
+	@Immutable
+	public static double getActionDuration(){
+		return 0.2;
+	}
+
+	/**
+	 * Variable registering the time that is left for the actions of the program.
+	 */
+	private double remainingTime = 0;
+
+
+	// Actions
+	/**
+	 * Perform an action with the given effect and argument: apply it to the ship of this
+	 * execution, or buffer it if this execution is buffering its actions.
+	 *
+	 * @param effect
+	 * 			The effect of the action.
+	 * @param argument
+	 * 			The value of the argument of the action, null if it has none.
+	 */
+	void perform(ActionEffect effect, Object argument){
+		if (!bufferingActions){
+			effect.apply(ship, argument);
+			return;
+		}
+		if (nbBufferedActions == bufferedEffects.length){
+			bufferedEffects = Arrays.copyOf(bufferedEffects, 2*bufferedEffects.length);
+			bufferedArguments = Arrays.copyOf(bufferedArguments, 2*bufferedArguments.length);
+		}
+		bufferedEffects[nbBufferedActions] = effect;
+		bufferedArguments[nbBufferedActions] = argument;
+		nbBufferedActions++;
+	}
+
+	/**
+	 * Check whether this execution has buffered actions that have not been applied yet.
+	 */
+	public boolean hasBufferedActions(){
+		return nbBufferedActions > 0;
+	}
+
+	/**
+	 * Apply the buffered actions of this execution to its ship, in the order in which
+	 * they were performed.
+	 *
+	 * @post	| !new.hasBufferedActions()
+	 * @throws	IllegalArgumentException
+	 * 			One of the actions cannot be applied to the ship. The actions after it are
+	 * 			dropped, and this execution cannot be resumed anymore.
+	 */
+	public void applyBufferedActions() throws IllegalArgumentException{
+		boolean completed = false;
+		try {
+			for (int index=0; index < nbBufferedActions; index++)
+				bufferedEffects[index].apply(ship, bufferedArguments[index]);
+			completed = true;
+		} finally {
+			Arrays.fill(bufferedEffects, 0, nbBufferedActions, null);
+			Arrays.fill(bufferedArguments, 0, nbBufferedActions, null);
+			nbBufferedActions = 0;
+			failed = failed || !completed;
+		}
+	}
+
+	/**
+	 * Variable registering whether the program is being executed with buffered actions.
+	 */
+	private boolean bufferingActions = false;
+
+	/**
+	 * Variables registering the effects and arguments of the buffered actions, in the
+	 * order in which they were performed.
+	 */
+	private ActionEffect[] bufferedEffects = new ActionEffect[4];
+	private Object[] bufferedArguments = new Object[4];
+
+	/**
+	 * Variable registering the number of buffered actions.
+	 */
+	private int nbBufferedActions = 0;
+
+
+	// Printed values
+	/**
+	 * Return the values that have been printed by the program, in the order in which
+	 * they were printed.
+	 */
+	public List<Object> getPrintedValues(){
+		return Collections.unmodifiableList(printedValues);
+	}
+
+	/**
+	 * Print the given value.
+	 */
+	void print(Object value){
+		printedValues.add(value);
+	}
+
+	/**
+	 * A list registering the values printed by the program.
+	 */
+	private final List<Object> printedValues = new ArrayList<Object>();
+
+
+	// State
+	/**
+	 * Variable registering the values of the global variables of the program, by slot.
+	 */
+	final Object[] globals;
+
+	/**
+	 * Variable registering the address of the instruction at which the main body resumes.
+	 */
+	private int programCounter = 0;
+
+	/**
+	 * Variable registering the frame of the main body of the program.
+	 */
+	private final Frame mainFrame;
+
+
+	// Frames
+	/**
+	 * Push a frame for a call to the given function with the given number of arguments
+	 * on the stack of frames of this execution.
+	 *
+	 * @param function
+	 * 			The function that is called.
+	 * @param nbArguments
+	 * 			The number of arguments of the call.
+	 * @return	A frame whose local variables are not assigned yet, and whose first
+	 * 			nbArguments arguments can be filled in.
+	 */
+	Frame pushFrame(CompiledFunction function, int nbArguments){
+		if (depth == frames.length)
+			frames = Arrays.copyOf(frames, 2*frames.length);
+		Frame frame = frames[depth];
+		if (frame == null){
+			frame = new Frame(this);
+			frames[depth] = frame;
+		}
+		depth++;
+		frame.enter(function.getNbLocals(), nbArguments);
+		return frame;
+	}
+
+	/**
+	 * Pop the frame on top of the stack of frames of this execution.
+	 */
+	void popFrame(){
+		depth--;
+		frames[depth].exit();
+	}
+
+	/**
+	 * Variable registering the stack of frames of the function calls of this execution.
+	 * The frames above the depth are kept, to be reused by later calls.
+	 */
+	private Frame[] frames = new Frame[8];
+
+	/**
+	 * Variable registering the number of function calls that are being executed.
+	 */
+	private int depth = 0;
+}
@@ -0,0 +1,955 @@
+package asteroids.model.programs;
+
+import java.lang.invoke.MethodHandle;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import asteroids.model.Asteroid;
+import asteroids.model.Bullet;
+import asteroids.model.Entity;
+import asteroids.model.MinorPlanet;
+import asteroids.model.Planetoid;
+import asteroids.model.Program;
+import asteroids.model.Ship;
+import asteroids.model.World;
+import asteroids.part3.programs.IProgramFactory;
+import asteroids.part3.programs.SourceLocation;
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * A class of factories that create ship programs.
+ *
+ * - The expressions and statements created by a factory only describe the source code.
+ *   When the program is created, they are compiled once into a tree of closures:
+ *   	- every variable is resolved to a slot of the global or local variables,
+ *   	- every function call is bound to the function it calls,
+ *   	- statements of the main body during which the program can be suspended are laid
+ *   	  out as a flat sequence of instructions with jumps, so a suspended program only
+ *   	  keeps the address of the instruction to resume at.
+ *   Executing a program therefore never looks up a name.
+ * - In the method handle compilation mode, the statements and expressions that the program
+ *   cannot be suspended in are compiled into method handle chains instead, which the virtual
+ *   machine can inline and compile like ordinary code.
+ * - Names that cannot be resolved, and statements that are not allowed where they occur,
+ *   are compiled into closures that fail when they are executed.
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+public class ProgramFactory implements IProgramFactory<Expression, Statement, FunctionDefinition, Program> {
+
+	/**
+	 * Initialize this new program factory with the given compilation mode.
+	 *
+	 * @param compilationMode
+	 * 			The way in which the programs of this factory are compiled.
+	 * @post	| new.getCompilationMode() == compilationMode
+	 * @throws	NullPointerException
+	 * 			| compilationMode == null
+	 */
+	public ProgramFactory(CompilationMode compilationMode) throws NullPointerException{
+		if (compilationMode == null)
+			throw new NullPointerException("The compilation mode cannot be null.");
+		this.compilationMode = compilationMode;
+	}
+
+	/**
+	 * Initialize this new program factory, compiling its programs into closures.
+	 *
+	 * @effect	| this(CompilationMode.CLOSURES)
+	 */
+	public ProgramFactory(){
+		this(CompilationMode.CLOSURES);
+	}
+
+	/**
+	 * Return the way in which the programs of this factory are compiled.
+	 */
+	@Basic @Immutable
+	public CompilationMode getCompilationMode(){
+		return this.compilationMode;
+	}
+
+	/**
+	 * Variable registering the way in which the programs of this factory are compiled.
+	 */
+	private final CompilationMode compilationMode;
+
+
+	// Program
+	/**
+	 * Create and compile a program with the given functions and main body.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			Two of the given functions have the same name.
+	 */
+	@Override
+	public Program createProgram(List<FunctionDefinition> functions, Statement main) throws IllegalArgumentException{
+		Map<String, CompiledFunction> compiledFunctions = new HashMap<String, CompiledFunction>();
+		for (FunctionDefinition function: functions){
+			if (compiledFunctions.containsKey(function.getName()))
+				throw new IllegalArgumentException("The function "+function.getName()+" is defined twice.");
+			compiledFunctions.put(function.getName(), new CompiledFunction(function.getName()));
+		}
+
+		// The global variables are known before any function body is compiled.
+		Scope mainScope = new Scope(compiledFunctions, getCompilationMode());
+		main.declareVariables(mainScope);
+		for (FunctionDefinition function: functions){
+			Scope functionScope = new Scope(mainScope);
+			function.getBody().declareVariables(functionScope);
+			Executor body = functionScope.compile(function.getBody());
+			compiledFunctions.get(function.getName()).define(body, functionScope.getNbLocals());
+		}
+		CodeBuilder code = new CodeBuilder();
+		mainScope.compile(main, code);
+		return new Program(code.build(mainScope.getNbGlobals()));
+	}
+
+	@Override
+	public FunctionDefinition createFunctionDefinition(String functionName, Statement body,
+			SourceLocation sourceLocation){
+		return new FunctionDefinition(functionName, body, sourceLocation);
+	}
+
+
+	// Statements
+	@Override
+	public Statement createAssignmentStatement(final String variableName, final Expression value,
+			final SourceLocation sourceLocation){
+		return new Statement(sourceLocation){
+			@Override
+			void declareVariables(Scope scope){
+				scope.declareVariable(variableName);
+			}
+
+			@Override
+			Executor compile(Scope scope){
+				final Evaluator evaluator = scope.compile(value);
+				final int local = scope.getLocalSlot(variableName);
+				if (local >= 0)
+					return frame -> {
+						Values.assign(frame.locals, local, evaluator.evaluate(frame), sourceLocation);
+						return Executor.NORMAL;
+					};
+				final int global = scope.getGlobalSlot(variableName);
+				if (global >= 0)
+					return frame -> {
+						Values.assign(frame.execution.globals, global, evaluator.evaluate(frame), sourceLocation);
+						return Executor.NORMAL;
+					};
+				return fail("The name "+variableName+" is already used for a function", sourceLocation);
+			}
+
+			@Override
+			MethodHandle compileHandle(Scope scope){
+				int local = scope.getLocalSlot(variableName);
+				if (local >= 0)
+					return Handles.assignLocal(local, value.compileHandle(scope), sourceLocation);
+				int global = scope.getGlobalSlot(variableName);
+				if (global >= 0)
+					return Handles.assignGlobal(global, value.compileHandle(scope), sourceLocation);
+				return super.compileHandle(scope);
+			}
+		};
+	}
+
+	@Override
+	public Statement createWhileStatement(final Expression condition, final Statement body,
+			final SourceLocation sourceLocation){
+		return new Statement(sourceLocation){
+			@Override
+			void declareVariables(Scope scope){
+				body.declareVariables(scope);
+			}
+
+			@Override
+			boolean containsAction(){
+				return body.containsAction();
+			}
+
+			@Override
+			Executor compile(Scope scope){
+				final Evaluator test = scope.compile(condition);
+				scope.enterLoop();
+				final Executor executor = scope.compile(body);
+				scope.exitLoop();
+				return frame -> {
+					while (Values.asBoolean(test.evaluate(frame), sourceLocation)){
+						int completion;
+						try {
+							completion = executor.execute(frame);
+						} catch (LoopBreak exc){
+							return Executor.NORMAL;
+						}
+						if (completion == Executor.BREAK)
+							return Executor.NORMAL;
+						if (completion != Executor.NORMAL)
+							return completion;
+					}
+					return Executor.NORMAL;
+				};
+			}
+
+			@Override
+			void compile(Scope scope, CodeBuilder code){
+				// The condition lies outside of the loop, so a function called in the condition
+				// breaks out of the enclosing loop.
+				int test = code.emit(jumpUnless(scope.compile(condition), sourceLocation));
+				scope.enterLoop();
+				code.enterLoop();
+				scope.compile(body, code);
+				code.setJumpTarget(code.emit(JUMP), test);
+				scope.exitLoop();
+				code.exitLoop(code.getNextAddress());
+				code.setJumpTarget(test, code.getNextAddress());
+			}
+
+			@Override
+			MethodHandle compileHandle(Scope scope){
+				MethodHandle test = condition.compileBooleanHandle(scope);
+				scope.enterLoop();
+				MethodHandle handle = body.compileHandle(scope);
+				scope.exitLoop();
+				return Handles.loop(test, handle);
+			}
+		};
+	}
+
+	@Override
+	public Statement createBreakStatement(final SourceLocation sourceLocation){
+		return new Statement(sourceLocation){
+			@Override
+			Executor compile(Scope scope){
+				// A break in a function outside of a loop applies to the loop of the caller.
+				if (scope.isInLoop() || scope.isFunctionScope())
+					return frame -> Executor.BREAK;
+				return fail("A break statement cannot be executed outside of a while statement", sourceLocation);
+			}
+		};
+	}
+
+	@Override
+	public Statement createReturnStatement(final Expression value, final SourceLocation sourceLocation){
+		return new Statement(sourceLocation){
+			@Override
+			Executor compile(Scope scope){
+				if (!scope.isFunctionScope())
+					return fail("A return statement cannot be executed outside of a function", sourceLocation);
+				final Evaluator evaluator = scope.compile(value);
+				return frame -> {
+					frame.returnValue = evaluator.evaluate(frame);
+					return Executor.RETURN;
+				};
+			}
+
+			@Override
+			MethodHandle compileHandle(Scope scope){
+				if (!scope.isFunctionScope())
+					return super.compileHandle(scope);
+				return Handles.returnValue(value.compileHandle(scope));
+			}
+		};
+	}
+
+	@Override
+	public Statement createIfStatement(final Expression condition, final Statement ifBody, final Statement elseBody,
+			final SourceLocation sourceLocation){
+		return new Statement(sourceLocation){
+			@Override
+			void declareVariables(Scope scope){
+				ifBody.declareVariables(scope);
+				if (elseBody != null)
+					elseBody.declareVariables(scope);
+			}
+
+			@Override
+			boolean containsAction(){
+				return ifBody.containsAction() || (elseBody != null && elseBody.containsAction());
+			}
+
+			@Override
+			Executor compile(Scope scope){
+				final Evaluator test = scope.compile(condition);
+				final Executor thenExecutor = scope.compile(ifBody);
+				final Executor elseExecutor = (elseBody == null) ? null : scope.compile(elseBody);
+				return frame -> {
+					if (Values.asBoolean(test.evaluate(frame), sourceLocation))
+						return thenExecutor.execute(frame);
+					return (elseExecutor == null) ? Executor.NORMAL : elseExecutor.execute(frame);
+				};
+			}
+
+			@Override
+			void compile(Scope scope, CodeBuilder code){
+				int test = code.emit(jumpUnless(scope.compile(condition), sourceLocation));
+				scope.compile(ifBody, code);
+				if (elseBody == null)
+					code.setJumpTarget(test, code.getNextAddress());
+				else {
+					int skip = code.emit(JUMP);
+					code.setJumpTarget(test, code.getNextAddress());
+					scope.compile(elseBody, code);
+					code.setJumpTarget(skip, code.getNextAddress());
+				}
+			}
+
+			@Override
+			MethodHandle compileHandle(Scope scope){
+				MethodHandle test = condition.compileBooleanHandle(scope);
+				MethodHandle thenHandle = ifBody.compileHandle(scope);
+				MethodHandle elseHandle = (elseBody == null) ? Handles.completion(Executor.NORMAL)
+						: elseBody.compileHandle(scope);
+				return Handles.ifThenElse(test, thenHandle, elseHandle);
+			}
+		};
+	}
+
+	@Override
+	public Statement createPrintStatement(final Expression value, final SourceLocation sourceLocation){
+		return new Statement(sourceLocation){
+			@Override
+			Executor compile(Scope scope){
+				if (scope.isFunctionScope())
+					return fail("A print statement cannot be executed in a function", sourceLocation);
+				final Evaluator evaluator = scope.compile(value);
+				return frame -> {
+					frame.execution.print(evaluator.evaluate(frame));
+					return Executor.NORMAL;
+				};
+			}
+		};
+	}
+
+	@Override
+	public Statement createSequenceStatement(final List<Statement> statements, final SourceLocation sourceLocation){
+		return new Statement(sourceLocation){
+			@Override
+			void declareVariables(Scope scope){
+				for (Statement statement: statements)
+					statement.declareVariables(scope);
+			}
+
+			@Override
+			boolean containsAction(){
+				for (Statement statement: statements)
+					if (statement.containsAction())
+						return true;
+				return false;
+			}
+
+			@Override
+			Executor compile(Scope scope){
+				final Executor[] executors = new Executor[statements.size()];
+				for (int index=0; index < executors.length; index++)
+					executors[index] = scope.compile(statements.get(index));
+				return frame -> {
+					for (Executor executor: executors){
+						int completion = executor.execute(frame);
+						if (completion != Executor.NORMAL)
+							return completion;
+					}
+					return Executor.NORMAL;
+				};
+			}
+
+			@Override
+			void compile(Scope scope, CodeBuilder code){
+				for (Statement statement: statements)
+					scope.compile(statement, code);
+			}
+
+			@Override
+			MethodHandle compileHandle(Scope scope){
+				MethodHandle[] handles = new MethodHandle[statements.size()];
+				for (int index=0; index < handles.length; index++)
+					handles[index] = statements.get(index).compileHandle(scope);
+				return Handles.sequence(handles);
+			}
+		};
+	}
+
+	@Override
+	public Statement createThrustOnStatement(SourceLocation location){
+		return createAction("thrust", null, location, (ship, value) -> ship.setThrust(true));
+	}
+
+	@Override
+	public Statement createThrustOffStatement(SourceLocation location){
+		return createAction("thrust_off", null, location, (ship, value) -> ship.setThrust(false));
+	}
+
+	@Override
+	public Statement createFireStatement(SourceLocation location){
+		return createAction("fire", null, location, (ship, value) -> ship.fireBullet());
+	}
+
+	@Override
+	public Statement createTurnStatement(Expression angle, final SourceLocation location){
+		return createAction("turn", angle, location, (ship, value) -> {
+			double turnAngle = Values.asDouble(value, location);
+			if (!ship.isValidAngle(ship.getAngle()+turnAngle))
+				throw new IllegalArgumentException("The ship cannot turn over "+turnAngle+" "+Values.at(location));
+			ship.turn(turnAngle);
+		});
+	}
+
+	@Override
+	public Statement createSkipStatement(SourceLocation location){
+		return createAction("skip", null, location, (ship, value) -> {});
+	}
+
+	/**
+	 * Return an action statement with the given name, argument and effect.
+	 *
+	 * @param name
+	 * 			The name of the action.
+	 * @param argument
+	 * 			The argument of the action, null if it has none.
+	 * @param sourceLocation
+	 * 			The location of the action in the source code.
+	 * @param effect
+	 * 			The effect of the action on the ship that executes it.
+	 */
+	private static Statement createAction(final String name, final Expression argument,
+			final SourceLocation sourceLocation, final ActionEffect effect){
+		return new Statement(sourceLocation){
+			@Override
+			boolean containsAction(){
+				return true;
+			}
+
+			@Override
+			Executor compile(Scope scope){
+				if (scope.isFunctionScope())
+					return fail("The action "+name+" cannot be executed in a function", sourceLocation);
+				final Evaluator evaluator = (argument == null) ? null : scope.compile(argument);
+				return frame -> {
+					ProgramExecution execution = frame.execution;
+					if (!execution.hasTimeForAction())
+						return Executor.SUSPEND;
+					Object value = (evaluator == null) ? null : evaluator.evaluate(frame);
+					execution.perform(effect, value);
+					execution.consumeActionTime();
+					return Executor.NORMAL;
+				};
+			}
+		};
+	}
+
+
+	// Expressions
+	@Override
+	public Expression createReadVariableExpression(final String variableName, final SourceLocation sourceLocation){
+		return new Expression(sourceLocation){
+			@Override
+			Evaluator compile(Scope scope){
+				final int local = scope.getLocalSlot(variableName);
+				if (local >= 0)
+					return frame -> Values.read(frame.locals, local, variableName, sourceLocation);
+				final int global = scope.getGlobalSlot(variableName);
+				if (global >= 0)
+					return frame -> Values.read(frame.execution.globals, global, variableName, sourceLocation);
+				return failExpression("The variable "+variableName+" does not exist", sourceLocation);
+			}
+
+			@Override
+			MethodHandle compileHandle(Scope scope){
+				int local = scope.getLocalSlot(variableName);
+				if (local >= 0)
+					return Handles.readLocal(local, variableName, sourceLocation);
+				int global = scope.getGlobalSlot(variableName);
+				if (global >= 0)
+					return Handles.readGlobal(global, variableName, sourceLocation);
+				return super.compileHandle(scope);
+			}
+		};
+	}
+
+	@Override
+	public Expression createReadParameterExpression(final String parameterName, final SourceLocation sourceLocation){
+		return new Expression(sourceLocation){
+			@Override
+			Evaluator compile(Scope scope){
+				if (!scope.isFunctionScope())
+					return failExpression("A parameter cannot be read outside of a function", sourceLocation);
+				// Parameters are named $1, $2, ...
+				final int index = Integer.parseInt(parameterName.substring(1))-1;
+				return frame -> {
+					if (index < 0 || index >= frame.nbArguments)
+						throw new IllegalStateException("The parameter "+parameterName+" does not exist "
+								+Values.at(sourceLocation));
+					return frame.arguments[index];
+				};
+			}
+
+			@Override
+			MethodHandle compileHandle(Scope scope){
+				if (!scope.isFunctionScope())
+					return super.compileHandle(scope);
+				int index = Integer.parseInt(parameterName.substring(1))-1;
+				return Handles.readParameter(index, parameterName, sourceLocation);
+			}
+		};
+	}
+
+	@Override
+	public Expression createFunctionCallExpression(final String functionName, final List<Expression> actualArgs,
+			final SourceLocation sourceLocation){
+		return new Expression(sourceLocation){
+			@Override
+			Evaluator compile(Scope scope){
+				final CompiledFunction function = scope.getFunction(functionName);
+				if (function == null)
+					return failExpression("The function "+functionName+" does not exist", sourceLocation);
+				final Evaluator[] arguments = new Evaluator[actualArgs.size()];
+				for (int index=0; index < arguments.length; index++)
+					arguments[index] = scope.compile(actualArgs.get(index));
+				return frame -> {
+					// The frame of the call is pushed before the arguments are evaluated, so
+					// calls in the arguments use the frames above it.
+					ProgramExecution execution = frame.execution;
+					Frame callFrame = execution.pushFrame(function, arguments.length);
+					try {
+						for (int index=0; index < arguments.length; index++)
+							callFrame.arguments[index] = arguments[index].evaluate(frame);
+						return function.call(callFrame);
+					} finally {
+						execution.popFrame();
+					}
+				};
+			}
+
+			@Override
+			MethodHandle compileHandle(Scope scope){
+				CompiledFunction function = scope.getFunction(functionName);
+				if (function == null)
+					return super.compileHandle(scope);
+				MethodHandle[] arguments = new MethodHandle[actualArgs.size()];
+				for (int index=0; index < arguments.length; index++)
+					arguments[index] = actualArgs.get(index).compileHandle(scope);
+				return Handles.call(function, arguments);
+			}
+		};
+	}
+
+	@Override
+	public Expression createChangeSignExpression(final Expression expression, final SourceLocation sourceLocation){
+		return new NumberExpression(sourceLocation){
+			@Override
+			Evaluator compile(Scope scope){
+				final Evaluator operand = scope.compile(expression);
+				return frame -> -Values.asDouble(operand.evaluate(frame), sourceLocation);
+			}
+
+			@Override
+			MethodHandle compileDoubleHandle(Scope scope){
+				return Handles.apply(Handles.NEGATE, expression.compileDoubleHandle(scope));
+			}
+		};
+	}
+
+	@Override
+	public Expression createNotExpression(final Expression expression, final SourceLocation sourceLocation){
+		return new BooleanExpression(sourceLocation){
+			@Override
+			Evaluator compile(Scope scope){
+				final Evaluator operand = scope.compile(expression);
+				return frame -> !Values.asBoolean(operand.evaluate(frame), sourceLocation);
+			}
+
+			@Override
+			MethodHandle compileBooleanHandle(Scope scope){
+				return Handles.apply(Handles.NOT, expression.compileBooleanHandle(scope));
+			}
+		};
+	}
+
+	@Override
+	public Expression createDoubleLiteralExpression(final double value, SourceLocation location){
+		return new Expression(location){
+			@Override
+			Evaluator compile(Scope scope){
+				// Box the literal once, instead of every time it is evaluated.
+				final Double constant = value;
+				return frame -> constant;
+			}
+
+			@Override
+			MethodHandle compileHandle(Scope scope){
+				return Handles.constant((Object)value);
+			}
+
+			@Override
+			MethodHandle compileDoubleHandle(Scope scope){
+				return Handles.constant(value);
+			}
+		};
+	}
+
+	@Override
+	public Expression createNullExpression(SourceLocation location){
+		return new Expression(location){
+			@Override
+			Evaluator compile(Scope scope){
+				return frame -> null;
+			}
+		};
+	}
+
+	@Override
+	public Expression createSelfExpression(SourceLocation location){
+		return new Expression(location){
+			@Override
+			Evaluator compile(Scope scope){
+				return frame -> frame.execution.getShip();
+			}
+
+			@Override
+			MethodHandle compileHandle(Scope scope){
+				return Handles.SELF;
+			}
+		};
+	}
+
+	@Override
+	public Expression createShipExpression(SourceLocation location){
+		return createNearestEntityExpression(Ship.class, location);
+	}
+
+	@Override
+	public Expression createAsteroidExpression(SourceLocation location){
+		return createNearestEntityExpression(Asteroid.class, location);
+	}
+
+	@Override
+	public Expression createPlanetoidExpression(SourceLocation location){
+		return createNearestEntityExpression(Planetoid.class, location);
+	}
+
+	@Override
+	public Expression createBulletExpression(SourceLocation location){
+		return new Expression(location){
+			@Override
+			Evaluator compile(Scope scope){
+				return frame -> getNearestBulletFiredBy(frame.execution.getShip());
+			}
+		};
+	}
+
+	@Override
+	public Expression createPlanetExpression(SourceLocation location){
+		return createNearestEntityExpression(MinorPlanet.class, location);
+	}
+
+	@Override
+	public Expression createAnyExpression(SourceLocation location){
+		return new Expression(location){
+			@Override
+			Evaluator compile(Scope scope){
+				return frame -> {
+					Ship ship = frame.execution.getShip();
+					Entity nearest = getNearestEntity(ship, Entity.class);
+					// The ship itself is the only entity left if there are no others.
+					return (nearest == null && ship.getWorld() != null) ? ship : nearest;
+				};
+			}
+		};
+	}
+
+	/**
+	 * Return an expression that evaluates to the entity of the given type that is
+	 * nearest to the ship that executes the program.
+	 */
+	private static Expression createNearestEntityExpression(final Class<? extends Entity> type,
+			SourceLocation sourceLocation){
+		return new Expression(sourceLocation){
+			@Override
+			Evaluator compile(Scope scope){
+				return frame -> getNearestEntity(frame.execution.getShip(), type);
+			}
+		};
+	}
+
+	@Override
+	public Expression createGetXExpression(final Expression e, final SourceLocation location){
+		return new NumberExpression(location){
+			@Override
+			Evaluator compile(Scope scope){
+				final Evaluator operand = scope.compile(e);
+				return frame -> Values.asEntity(operand.evaluate(frame), location).getPositionX();
+			}
+
+			@Override
+			MethodHandle compileDoubleHandle(Scope scope){
+				return Handles.getProperty(e.compileHandle(scope), "getPositionX", location);
+			}
+		};
+	}
+
+	@Override
+	public Expression createGetYExpression(final Expression e, final SourceLocation location){
+		return new NumberExpression(location){
+			@Override
+			Evaluator compile(Scope scope){
+				final Evaluator operand = scope.compile(e);
+				return frame -> Values.asEntity(operand.evaluate(frame), location).getPositionY();
+			}
+
+			@Override
+			MethodHandle compileDoubleHandle(Scope scope){
+				return Handles.getProperty(e.compileHandle(scope), "getPositionY", location);
+			}
+		};
+	}
+
+	@Override
+	public Expression createGetVXExpression(final Expression e, final SourceLocation location){
+		return new NumberExpression(location){
+			@Override
+			Evaluator compile(Scope scope){
+				final Evaluator operand = scope.compile(e);
+				return frame -> Values.asEntity(operand.evaluate(frame), location).getVelocityX();
+			}
+
+			@Override
+			MethodHandle compileDoubleHandle(Scope scope){
+				return Handles.getProperty(e.compileHandle(scope), "getVelocityX", location);
+			}
+		};
+	}
+
+	@Override
+	public Expression createGetVYExpression(final Expression e, final SourceLocation location){
+		return new NumberExpression(location){
+			@Override
+			Evaluator compile(Scope scope){
+				final Evaluator operand = scope.compile(e);
+				return frame -> Values.asEntity(operand.evaluate(frame), location).getVelocityY();
+			}
+
+			@Override
+			MethodHandle compileDoubleHandle(Scope scope){
+				return Handles.getProperty(e.compileHandle(scope), "getVelocityY", location);
+			}
+		};
+	}
+
+	@Override
+	public Expression createGetRadiusExpression(final Expression e, final SourceLocation location){
+		return new NumberExpression(location){
+			@Override
+			Evaluator compile(Scope scope){
+				final Evaluator operand = scope.compile(e);
+				return frame -> Values.asEntity(operand.evaluate(frame), location).getRadius();
+			}
+
+			@Override
+			MethodHandle compileDoubleHandle(Scope scope){
+				return Handles.getProperty(e.compileHandle(scope), "getRadius", location);
+			}
+		};
+	}
+
+	@Override
+	public Expression createLessThanExpression(final Expression e1, final Expression e2, final SourceLocation location){
+		return new BooleanExpression(location){
+			@Override
+			Evaluator compile(Scope scope){
+				final Evaluator left = scope.compile(e1);
+				final Evaluator right = scope.compile(e2);
+				return frame -> Values.asDouble(left.evaluate(frame), location)
+						< Values.asDouble(right.evaluate(frame), location);
+			}
+
+			@Override
+			MethodHandle compileBooleanHandle(Scope scope){
+				return Handles.combine(Handles.LESS_THAN, e1.compileDoubleHandle(scope), e2.compileDoubleHandle(scope));
+			}
+		};
+	}
+
+	@Override
+	public Expression createEqualityExpression(final Expression e1, final Expression e2, SourceLocation location){
+		return new BooleanExpression(location){
+			@Override
+			Evaluator compile(Scope scope){
+				final Evaluator left = scope.compile(e1);
+				final Evaluator right = scope.compile(e2);
+				return frame -> {
+					Object leftValue = left.evaluate(frame);
+					Object rightValue = right.evaluate(frame);
+					return (leftValue == null) ? rightValue == null : leftValue.equals(rightValue);
+				};
+			}
+
+			@Override
+			MethodHandle compileBooleanHandle(Scope scope){
+				return Handles.combine(Handles.EQUAL, e1.compileHandle(scope), e2.compileHandle(scope));
+			}
+		};
+	}
+
+	@Override
+	public Expression createAdditionExpression(final Expression e1, final Expression e2, final SourceLocation location){
+		return new NumberExpression(location){
+			@Override
+			Evaluator compile(Scope scope){
+				final Evaluator left = scope.compile(e1);
+				final Evaluator right = scope.compile(e2);
+				return frame -> Values.asDouble(left.evaluate(frame), location)
+						+ Values.asDouble(right.evaluate(frame), location);
+			}
+
+			@Override
+			MethodHandle compileDoubleHandle(Scope scope){
+				return Handles.combine(Handles.ADD, e1.compileDoubleHandle(scope), e2.compileDoubleHandle(scope));
+			}
+		};
+	}
+
+	@Override
+	public Expression createMultiplicationExpression(final Expression e1, final Expression e2,
+			final SourceLocation location){
+		return new NumberExpression(location){
+			@Override
+			Evaluator compile(Scope scope){
+				final Evaluator left = scope.compile(e1);
+				final Evaluator right = scope.compile(e2);
+				return frame -> Values.asDouble(left.evaluate(frame), location)
+						* Values.asDouble(right.evaluate(frame), location);
+			}
+
+			@Override
+			MethodHandle compileDoubleHandle(Scope scope){
+				return Handles.combine(Handles.MULTIPLY, e1.compileDoubleHandle(scope), e2.compileDoubleHandle(scope));
+			}
+		};
+	}
+
+	@Override
+	public Expression createSqrtExpression(final Expression e, final SourceLocation location){
+		return new NumberExpression(location){
+			@Override
+			Evaluator compile(Scope scope){
+				final Evaluator operand = scope.compile(e);
+				return frame -> Math.sqrt(Values.asDouble(operand.evaluate(frame), location));
+			}
+
+			@Override
+			MethodHandle compileDoubleHandle(Scope scope){
+				return Handles.apply(Handles.SQRT, e.compileDoubleHandle(scope));
+			}
+		};
+	}
+
+	@Override
+	public Expression createGetDirectionExpression(SourceLocation location){
+		return new NumberExpression(location){
+			@Override
+			Evaluator compile(Scope scope){
+				return frame -> frame.execution.getShip().getAngle();
+			}
+
+			@Override
+			MethodHandle compileDoubleHandle(Scope scope){
+				return Handles.DIRECTION;
+			}
+		};
+	}
+
+
+	// Helpers
+	/**
+	 * An instruction that always jumps to its target.
+	 */
+	private static final Executor JUMP = frame -> Executor.JUMP;
+
+	/**
+	 * Return an instruction that jumps to its target if the given condition does not hold.
+	 */
+	private static Executor jumpUnless(final Evaluator condition, final SourceLocation sourceLocation){
+		return frame -> Values.asBoolean(condition.evaluate(frame), sourceLocation) ? Executor.NORMAL : Executor.JUMP;
+	}
+
+	/**
+	 * A class of expressions that evaluate to a number, and that are compiled into a
+	 * method handle that does not box the number.
+	 */
+	private static abstract class NumberExpression extends Expression {
+
+		NumberExpression(SourceLocation sourceLocation){
+			super(sourceLocation);
+		}
+
+		@Override
+		MethodHandle compileHandle(Scope scope){
+			return Handles.box(compileDoubleHandle(scope));
+		}
+
+		@Override
+		abstract MethodHandle compileDoubleHandle(Scope scope);
+	}
+
+	/**
+	 * A class of expressions that evaluate to a boolean, and that are compiled into a
+	 * method handle that does not box the boolean.
+	 */
+	private static abstract class BooleanExpression extends Expression {
+
+		BooleanExpression(SourceLocation sourceLocation){
+			super(sourceLocation);
+		}
+
+		@Override
+		MethodHandle compileHandle(Scope scope){
+			return Handles.box(compileBooleanHandle(scope));
+		}
+
+		@Override
+		abstract MethodHandle compileBooleanHandle(Scope scope);
+	}
+
+	/**
+	 * Return an executor that fails with the given message when it is executed.
+	 */
+	private static Executor fail(final String message, final SourceLocation sourceLocation){
+		return frame -> {
+			throw new IllegalStateException(message+" "+Values.at(sourceLocation));
+		};
+	}
+
+	/**
+	 * Return an evaluator that fails with the given message when it is evaluated.
+	 */
+	private static Evaluator failExpression(final String message, final SourceLocation sourceLocation){
+		return frame -> {
+			throw new IllegalStateException(message+" "+Values.at(sourceLocation));
+		};
+	}
+
+	/**
+	 * Return the entity of the given type, other than the given ship, whose center lies
+	 * nearest to the center of the given ship; null if there is no such entity or if the
+	 * ship does not lie in a world.
+	 */
+	private static Entity getNearestEntity(Ship ship, Class<? extends Entity> type){
+		World world = ship.getWorld();
+		return (world == null) ? null : world.getNearestEntity(ship, type);
+	}
+
+	/**
+	 * Return the bullet fired by the given ship whose center lies nearest to the center
+	 * of the ship; null if there is no such bullet or if the ship does not lie in a world.
+	 */
+	private static Bullet getNearestBulletFiredBy(final Ship ship){
+		World world = ship.getWorld();
+		return (world == null) ? null : world.getNearestEntity(ship, Bullet.class, bullet -> bullet.getSourceShip() == ship);
+	}
+}
@@ -0,0 +1,219 @@
+package asteroids.model.programs;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * A class representing the scope in which a part of a ship program is compiled: either
+ * the main program or the body of one function.
+ *
+ * - Every variable is resolved to a slot when the program is created. The global
+ *   variables are the variables that are assigned in the main program; the local
+ *   variables of a function are the variables that are assigned in its body.
+ * - In a function, a name refers to the local variable with that name if there is one,
+ *   and to the global variable with that name otherwise.
+ * - Statements of the main program during which it can be suspended are laid out as
+ *   instructions by a code builder.
+ * - Expressions and statements are compiled through their scope, which compiles them
+ *   into closures or method handles according to its compilation mode.
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+final class Scope {
+
+	/**
+	 * Initialize this new scope as the scope of a main program with the given functions.
+	 *
+	 * @param functions
+	 * 			The functions of the program, by name.
+	 * @param compilationMode
+	 * 			The way in which the program is compiled.
+	 */
+	Scope(Map<String, CompiledFunction> functions, CompilationMode compilationMode){
+		this.compilationMode = compilationMode;
+		this.functions = functions;
+		this.globals = new HashMap<String, Integer>();
+		this.locals = null;
+	}
+
+	/**
+	 * Initialize this new scope as the scope of a function of the program of the given
+	 * main scope.
+	 *
+	 * @param mainScope
+	 * 			The scope of the main program.
+	 */
+	Scope(Scope mainScope){
+		this.compilationMode = mainScope.compilationMode;
+		this.functions = mainScope.functions;
+		this.globals = mainScope.globals;
+		this.locals = new HashMap<String, Integer>();
+	}
+
+	/**
+	 * Check whether this scope is the scope of a function.
+	 */
+	boolean isFunctionScope(){
+		return locals != null;
+	}
+
+
+	// Compilation
+	/**
+	 * Compile the given expression in this scope.
+	 *
+	 * @param expression
+	 * 			The expression that has to be compiled.
+	 */
+	Evaluator compile(Expression expression){
+		if (compilationMode == CompilationMode.METHOD_HANDLES)
+			return Handles.toEvaluator(expression.compileHandle(this));
+		return expression.compile(this);
+	}
+
+	/**
+	 * Compile the given statement in this scope.
+	 *
+	 * @param statement
+	 * 			The statement that has to be compiled.
+	 * @pre		| !statement.isResumableIn(this)
+	 */
+	Executor compile(Statement statement){
+		if (compilationMode == CompilationMode.METHOD_HANDLES)
+			return Handles.toExecutor(statement.compileHandle(this));
+		return statement.compile(this);
+	}
+
+	/**
+	 * Compile the given statement in this scope into instructions of the given code.
+	 *
+	 * @param statement
+	 * 			The statement that has to be compiled.
+	 * @param code
+	 * 			The code to which the instructions are appended.
+	 */
+	void compile(Statement statement, CodeBuilder code){
+		if (statement.isResumableIn(this))
+			statement.compile(this, code);
+		else
+			code.emit(compile(statement));
+	}
+
+	/**
+	 * Variable registering the way in which the program is compiled.
+	 */
+	private final CompilationMode compilationMode;
+
+
+	// Functions
+	/**
+	 * Return the function with the given name, or null if there is no such function.
+	 */
+	CompiledFunction getFunction(String name){
+		return functions.get(name);
+	}
+
+	/**
+	 * A map registering the functions of the program, by name.
+	 */
+	private final Map<String, CompiledFunction> functions;
+
+
+	// Variables
+	/**
+	 * Declare a variable with the given name in this scope, if it was not declared yet.
+	 * Names of functions cannot be used for global variables, and are not declared in
+	 * the main scope.
+	 *
+	 * @param name
+	 * 			The name of the variable.
+	 */
+	void declareVariable(String name){
+		if (isFunctionScope()){
+			if (!locals.containsKey(name))
+				locals.put(name, locals.size());
+		}
+		else if (!globals.containsKey(name) && !functions.containsKey(name))
+			globals.put(name, globals.size());
+	}
+
+	/**
+	 * Return the slot of the local variable with the given name, or -1 if there is no
+	 * such variable in this scope.
+	 */
+	int getLocalSlot(String name){
+		if (!isFunctionScope())
+			return -1;
+		Integer slot = locals.get(name);
+		return (slot == null) ? -1 : slot;
+	}
+
+	/**
+	 * Return the slot of the global variable with the given name, or -1 if there is no
+	 * such variable.
+	 */
+	int getGlobalSlot(String name){
+		Integer slot = globals.get(name);
+		return (slot == null) ? -1 : slot;
+	}
+
+	/**
+	 * Return the number of local variables of this scope.
+	 */
+	int getNbLocals(){
+		return isFunctionScope() ? locals.size() : 0;
+	}
+
+	/**
+	 * Return the number of global variables of the program.
+	 */
+	int getNbGlobals(){
+		return globals.size();
+	}
+
+	/**
+	 * A map registering the slots of the global variables, by name.
+	 */
+	private final Map<String, Integer> globals;
+
+	/**
+	 * A map registering the slots of the local variables, by name; null in the main scope.
+	 */
+	private final Map<String, Integer> locals;
+
+
+	// Loops
+	/**
+	 * Check whether the statement that is being compiled lies inside a while statement
+	 * of this scope.
+	 */
+	boolean isInLoop(){
+		return loopDepth > 0;
+	}
+
+	/**
+	 * Register that the statements that are compiled next lie inside one more while statement.
+	 */
+	void enterLoop(){
+		loopDepth++;
+	}
+
+	/**
+	 * Register that the statements that are compiled next lie inside one while statement less.
+	 */
+	void exitLoop(){
+		loopDepth--;
+	}
+
+	/**
+	 * Variable registering the number of while statements around the statement that is
+	 * being compiled.
+	 */
+	private int loopDepth = 0;
+}
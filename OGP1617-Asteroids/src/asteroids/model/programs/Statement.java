@@ -0,0 +1,116 @@
+package asteroids.model.programs;
+
+import java.lang.invoke.MethodHandle;
+
+import asteroids.part3.programs.SourceLocation;
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * A class representing a statement of a ship program, as it was parsed.
+ *
+ * - Statements are only a description of the source code. When the program they belong
+ *   to is created, every statement is compiled once into an executor or a method handle,
+ *   in which all variables and functions have been resolved.
+ * - Statements of the main program during which it can be suspended are laid out as a
+ *   flat sequence of instructions instead, so a suspended program only keeps the address
+ *   of the instruction to resume at.
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+public abstract class Statement {
+
+	/**
+	 * Initialize this new statement with the given source location.
+	 *
+	 * @param sourceLocation
+	 * 			The location of this statement in the source code.
+	 * @post	| new.getSourceLocation() == sourceLocation
+	 */
+	Statement(SourceLocation sourceLocation){
+		this.sourceLocation = sourceLocation;
+	}
+
+	/**
+	 * Return the location of this statement in the source code.
+	 */
+	@Basic @Immutable
+	public SourceLocation getSourceLocation(){
+		return this.sourceLocation;
+	}
+
+	/**
+	 * Variable registering the source location of this statement.
+	 */
+	private final SourceLocation sourceLocation;
+
+	/**
+	 * Declare all the variables that are assigned in this statement in the given scope.
+	 *
+	 * @param scope
+	 * 			The scope in which the variables have to be declared.
+	 */
+	void declareVariables(Scope scope){
+	}
+
+	/**
+	 * Check whether this statement contains an action, i.e. a statement that takes time
+	 * and after which the program can be suspended.
+	 *
+	 * @return	| result == false
+	 */
+	boolean containsAction(){
+		return false;
+	}
+
+	/**
+	 * Check whether the program can be suspended during this statement, if it is compiled
+	 * in the given scope.
+	 *
+	 * @return	| result == (!scope.isFunctionScope() && containsAction())
+	 */
+	boolean isResumableIn(Scope scope){
+		return !scope.isFunctionScope() && containsAction();
+	}
+
+	/**
+	 * Compile this statement in the given scope.
+	 *
+	 * @param scope
+	 * 			The scope in which the variables and functions of this statement are resolved.
+	 * @return	An executor that executes this statement.
+	 * @pre		| !isResumableIn(scope)
+	 */
+	abstract Executor compile(Scope scope);
+
+	/**
+	 * Compile this statement in the given scope into instructions of the given code.
+	 *
+	 * @param scope
+	 * 			The scope in which the variables and functions of this statement are resolved.
+	 * @param code
+	 * 			The code to which the instructions are appended.
+	 * @effect	This statement is compiled into a single instruction.
+	 * 			| code.emit(scope.compile(this))
+	 */
+	void compile(Scope scope, CodeBuilder code){
+		code.emit(scope.compile(this));
+	}
+
+	/**
+	 * Compile this statement in the given scope into a method handle of type (Frame)int
+	 * that returns the completion of the statement.
+	 *
+	 * @param scope
+	 * 			The scope in which the variables and functions of this statement are resolved.
+	 * @pre		| !isResumableIn(scope)
+	 */
+	MethodHandle compileHandle(Scope scope){
+		return Handles.ofExecutor(compile(scope));
+	}
+}
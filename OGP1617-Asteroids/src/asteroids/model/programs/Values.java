@@ -0,0 +1,122 @@
+package asteroids.model.programs;
+
+import java.util.Arrays;
+
+import asteroids.model.Entity;
+import asteroids.part3.programs.SourceLocation;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * A class of static methods that check the values of a ship program at run time.
+ *
+ * - The values of a program are doubles, booleans and entities; null is an entity value.
+ * - A variable keeps the type of the first value that is assigned to it.
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+final class Values {
+
+	private Values(){
+	}
+
+	/**
+	 * The value of a variable that has not been assigned yet.
+	 */
+	static final Object UNDEFINED = new Object();
+
+	/**
+	 * Mark all the given variables as not assigned yet.
+	 */
+	static void clear(Object[] variables){
+		Arrays.fill(variables, UNDEFINED);
+	}
+
+	/**
+	 * Return the value of the variable with the given name in the given slot.
+	 *
+	 * @throws	IllegalStateException
+	 * 			| variables[slot] == UNDEFINED
+	 */
+	static Object read(Object[] variables, int slot, String name, SourceLocation location)
+			throws IllegalStateException{
+		Object value = variables[slot];
+		if (value == UNDEFINED)
+			throw new IllegalStateException("The variable "+name+" is read before it is assigned "+at(location));
+		return value;
+	}
+
+	/**
+	 * Assign the given value to the variable in the given slot.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			| variables[slot] != UNDEFINED && getType(variables[slot]) != getType(value)
+	 */
+	static void assign(Object[] variables, int slot, Object value, SourceLocation location)
+			throws IllegalArgumentException{
+		Object current = variables[slot];
+		if (current != UNDEFINED && getType(current) != getType(value))
+			throw new IllegalArgumentException("A value of another type is assigned "+at(location));
+		variables[slot] = value;
+	}
+
+	/**
+	 * Return the type of the given value: 0 for doubles, 1 for booleans and 2 for entities.
+	 */
+	static int getType(Object value){
+		if (value instanceof Double)
+			return 0;
+		if (value instanceof Boolean)
+			return 1;
+		return 2;
+	}
+
+	/**
+	 * Return the given value as a double.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			| !(value instanceof Double)
+	 */
+	static double asDouble(Object value, SourceLocation location) throws IllegalArgumentException{
+		if (!(value instanceof Double))
+			throw new IllegalArgumentException("A number is expected "+at(location));
+		return (Double)value;
+	}
+
+	/**
+	 * Return the given value as a boolean.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			| !(value instanceof Boolean)
+	 */
+	static boolean asBoolean(Object value, SourceLocation location) throws IllegalArgumentException{
+		if (!(value instanceof Boolean))
+			throw new IllegalArgumentException("A boolean is expected "+at(location));
+		return (Boolean)value;
+	}
+
+	/**
+	 * Return the given value as an entity.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			| !(value instanceof Entity)
+	 */
+	static Entity asEntity(Object value, SourceLocation location) throws IllegalArgumentException{
+		if (!(value instanceof Entity))
+			throw new IllegalArgumentException("An entity is expected "+at(location));
+		return (Entity)value;
+	}
+
+	/**
+	 * Return a description of the given source location, to be used in error messages.
+	 */
+	static String at(SourceLocation location){
+		if (location == null)
+			return "in the program.";
+		return "at line "+location.getLine()+", column "+location.getColumn()+".";
+	}
+}
@@ -0,0 +1,289 @@
+package asteroids.simulation;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import asteroids.part2.CollisionListener;
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * A class representing a collision listener that publishes the collisions of a world to a
+ * preallocated ring buffer, from which other threads drain them.
+ *
+ * - The ring is used as the collision listener of one world, so the collisions are published
+ *   by one thread: the thread that evolves that world. Publishing never blocks and never
+ *   allocates. When the ring is full for the slowest subscription, the collision is dropped
+ *   and counted.
+ * - Every subscription receives every collision that was published after it was created and
+ *   that was not dropped, in the order in which they were published. A subscription is
+ *   drained by one thread, which passes the collisions to a collision listener.
+ * - The entities of the last getCapacity() collisions stay referenced by the ring until
+ *   their slots are reused.
+ *
+ * @invar	| getCapacity() > 0 && Integer.bitCount(getCapacity()) == 1
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+public class CollisionEventRing implements CollisionListener {
+
+	/**
+	 * Initialize this new ring with the given capacity.
+	 *
+	 * @param capacity
+	 * 			The number of collisions that the ring can hold.
+	 * @post	| new.getCapacity() == capacity
+	 * @post	| new.getNbPublished() == 0 && new.getNbDropped() == 0
+	 * @throws	IllegalArgumentException
+	 * 			| capacity <= 0 || Integer.bitCount(capacity) != 1
+	 */
+	public CollisionEventRing(int capacity) throws IllegalArgumentException{
+		if (capacity <= 0 || Integer.bitCount(capacity) != 1)
+			throw new IllegalArgumentException(capacity+" is not a power of two.");
+		this.firstEntities = new Object[capacity];
+		this.secondEntities = new Object[capacity];
+		this.positionsX = new double[capacity];
+		this.positionsY = new double[capacity];
+	}
+
+	/**
+	 * Initialize this new ring with the default capacity.
+	 *
+	 * @effect	| this(getDefaultCapacity())
+	 */
+	public CollisionEventRing(){
+		this(getDefaultCapacity());
+	}
+
+	/**
+	 * Return the number of collisions that this ring can hold.
+	 */
+	@Basic @Immutable
+	public int getCapacity(){
+		return firstEntities.length;
+	}
+
+	/**
+	 * Return the default capacity of a ring.
+	 *
+	 * @see implementation
+	 */
+	@Immutable
+	public static int getDefaultCapacity(){
+		return 1 << 12;
+	}
+
+
+	// Publishing
+	/**
+	 * Publish the collision of the given entity with a boundary at the given position.
+	 *
+	 * @effect	| publish(entity, null, x, y)
+	 */
+	@Override
+	public void boundaryCollision(Object entity, double x, double y){
+		publish(entity, null, x, y);
+	}
+
+	/**
+	 * Publish the collision of the given entities at the given position.
+	 *
+	 * @effect	| publish(entity1, entity2, x, y)
+	 */
+	@Override
+	public void objectCollision(Object entity1, Object entity2, double x, double y){
+		publish(entity1, entity2, x, y);
+	}
+
+	/**
+	 * Publish the collision of the given entities at the given position, or drop it if the
+	 * slowest subscription has not drained the collision that is held in its slot yet.
+	 *
+	 * @param firstEntity
+	 * 			The first entity of the collision.
+	 * @param secondEntity
+	 * 			The second entity of the collision, or null for a collision with a boundary.
+	 * @param x
+	 * 			The x-coordinate of the position of the collision.
+	 * @param y
+	 * 			The y-coordinate of the position of the collision.
+	 * @post	Either the number of published collisions or the number of dropped collisions
+	 * 			is incremented.
+	 */
+	private void publish(Object firstEntity, Object secondEntity, double x, double y){
+		long sequence = published.get();
+		if (sequence - freeUntil >= 0){
+			freeUntil = getSlowestSequence(sequence) + getCapacity();
+			if (sequence - freeUntil >= 0){
+				nbDropped.lazySet(nbDropped.get()+1);
+				return;
+			}
+		}
+		int slot = (int)sequence & (getCapacity()-1);
+		firstEntities[slot] = firstEntity;
+		secondEntities[slot] = secondEntity;
+		positionsX[slot] = x;
+		positionsY[slot] = y;
+		// The slot is written before the new sequence becomes visible to the subscriptions.
+		published.lazySet(sequence+1);
+	}
+
+	/**
+	 * Return the sequence of the next collision that the slowest subscription reads, or the
+	 * given sequence if there are no subscriptions.
+	 */
+	private long getSlowestSequence(long sequence){
+		long result = sequence;
+		for (Subscription subscription: subscriptions)
+			result = Math.min(result, subscription.next.get());
+		return result;
+	}
+
+	/**
+	 * Return the number of collisions that were published to this ring.
+	 */
+	@Basic
+	public long getNbPublished(){
+		return published.get();
+	}
+
+	/**
+	 * Return the number of collisions that were dropped because this ring was full.
+	 */
+	@Basic
+	public long getNbDropped(){
+		return nbDropped.get();
+	}
+
+	/**
+	 * Variables registering the entities and positions of the collisions, by slot.
+	 */
+	private final Object[] firstEntities, secondEntities;
+	private final double[] positionsX, positionsY;
+
+	/**
+	 * Variable registering the number of collisions that were published to this ring, which
+	 * is the sequence of the next collision.
+	 */
+	private final AtomicLong published = new AtomicLong();
+
+	/**
+	 * Variable registering the number of dropped collisions.
+	 */
+	private final AtomicLong nbDropped = new AtomicLong();
+
+	/**
+	 * Variable registering the sequence up to which the slots are known to be free, so the
+	 * subscriptions are only checked when that sequence is reached.
+	 * Only used by the publishing thread.
+	 */
+	private long freeUntil = 0;
+
+
+	// Subscriptions
+	/**
+	 * Return a new subscription to this ring, that receives the collisions that are
+	 * published from now on.
+	 *
+	 * @return	| result.getRing() == this
+	 */
+	public synchronized Subscription subscribe(){
+		Subscription subscription = new Subscription(published.get());
+		Subscription[] result = new Subscription[subscriptions.length+1];
+		System.arraycopy(subscriptions, 0, result, 0, subscriptions.length);
+		result[subscriptions.length] = subscription;
+		this.subscriptions = result;
+		return subscription;
+	}
+
+	/**
+	 * Remove the given subscription from this ring, so it no longer holds back the
+	 * publication of new collisions.
+	 *
+	 * @param subscription
+	 * 			The subscription that has to be removed.
+	 */
+	public synchronized void unsubscribe(Subscription subscription){
+		for (int i = 0; i < subscriptions.length; i++)
+			if (subscriptions[i] == subscription){
+				Subscription[] result = new Subscription[subscriptions.length-1];
+				System.arraycopy(subscriptions, 0, result, 0, i);
+				System.arraycopy(subscriptions, i+1, result, i, result.length-i);
+				this.subscriptions = result;
+				return;
+			}
+	}
+
+	/**
+	 * Variable registering the subscriptions of this ring. The array is replaced, never
+	 * changed, when a subscription is added or removed.
+	 */
+	private volatile Subscription[] subscriptions = new Subscription[0];
+
+	/**
+	 * A class of subscriptions to a collision event ring.
+	 */
+	public final class Subscription {
+
+		/**
+		 * Initialize this new subscription, reading from the collision with the given sequence.
+		 */
+		private Subscription(long next){
+			this.next = new AtomicLong(next);
+		}
+
+		/**
+		 * Return the ring of this subscription.
+		 */
+		@Basic @Immutable
+		public CollisionEventRing getRing(){
+			return CollisionEventRing.this;
+		}
+
+		/**
+		 * Pass the collisions that were published since the last drain of this subscription to
+		 * the given listener, in the order in which they were published, and return how many
+		 * collisions were passed.
+		 *
+		 * @param listener
+		 * 			The listener that receives the collisions.
+		 * @throws	NullPointerException
+		 * 			| listener == null
+		 */
+		public int drain(CollisionListener listener) throws NullPointerException{
+			if (listener == null)
+				throw new NullPointerException("The listener cannot be null.");
+			long start = next.get();
+			long end = published.get();
+			int mask = getCapacity()-1;
+			for (long sequence = start; sequence != end; sequence++){
+				int slot = (int)sequence & mask;
+				if (secondEntities[slot] == null)
+					listener.boundaryCollision(firstEntities[slot], positionsX[slot], positionsY[slot]);
+				else
+					listener.objectCollision(firstEntities[slot], secondEntities[slot],
+							positionsX[slot], positionsY[slot]);
+				// The slot is read before it can be reused by the publishing thread.
+				next.lazySet(sequence+1);
+			}
+			return (int)(end-start);
+		}
+
+		/**
+		 * Return the number of collisions that were published but not yet drained by this
+		 * subscription.
+		 */
+		public long getNbPending(){
+			return published.get() - next.get();
+		}
+
+		/**
+		 * Variable registering the sequence of the next collision that this subscription reads.
+		 */
+		private final AtomicLong next;
+	}
+}
@@ -0,0 +1,74 @@
+package asteroids.simulation;
+
+import java.util.Arrays;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * A class representing a recorder of the most recent tick latencies of one world.
+ *
+ * - Only the latest samples are kept, in a ring of a fixed capacity, so the
+ *   percentiles follow the recent behaviour of the world.
+ * - A recorder is written by one thread at a time; the scheduler makes sure that the
+ *   samples of a tick are visible before the recorder is read.
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+class LatencyRecorder {
+
+	/**
+	 * Initialize this new recorder with the given capacity.
+	 *
+	 * @param capacity
+	 * 			The maximal number of samples that are kept.
+	 */
+	LatencyRecorder(int capacity){
+		this.samples = new long[capacity];
+	}
+
+	/**
+	 * Record the given latency, in nanoseconds.
+	 */
+	void record(long nanos){
+		samples[(int)(nbRecorded % samples.length)] = nanos;
+		nbRecorded++;
+	}
+
+	/**
+	 * Return the latencies of the kept samples.
+	 *
+	 * @return	The p50, p90 and p99 percentiles and the maximum of the kept samples,
+	 * 			computed with the nearest-rank method.
+	 */
+	TickLatencies getLatencies(){
+		int nbSamples = (int)Math.min(nbRecorded, samples.length);
+		if (nbSamples == 0)
+			return new TickLatencies(0, 0, 0, 0, 0);
+		long[] sorted = Arrays.copyOf(samples, nbSamples);
+		Arrays.sort(sorted);
+		return new TickLatencies(nbRecorded, percentile(sorted, 50), percentile(sorted, 90),
+				percentile(sorted, 99), sorted[nbSamples-1]);
+	}
+
+	/**
+	 * Return the given percentile of the given sorted samples.
+	 */
+	private static long percentile(long[] sorted, double percentile){
+		int rank = (int)Math.ceil(percentile/100*sorted.length);
+		return sorted[Math.max(rank-1, 0)];
+	}
+
+	/**
+	 * Variable registering the kept samples, as a ring.
+	 */
+	private final long[] samples;
+
+	/**
+	 * Variable registering the number of samples that have ever been recorded.
+	 */
+	private long nbRecorded = 0;
+}
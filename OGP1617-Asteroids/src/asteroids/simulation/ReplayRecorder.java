@@ -0,0 +1,384 @@
+package asteroids.simulation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import asteroids.model.Bullet;
+import asteroids.model.Entity;
+import asteroids.model.Ship;
+import asteroids.model.World;
+import asteroids.model.WorldSnapshot;
+import asteroids.part2.CollisionListener;
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * A class representing a recorder that logs a match in a world to an append-only,
+ * memory-mapped replay log.
+ *
+ * - The log starts with a snapshot of the world when the recorder is created.
+ * - The inputs of the players and the evolutions of the world are applied through the
+ *   recorder, which appends one record per call. Every evolution is logged with its time
+ *   step and the digest of the world after the evolution, so a replay can tell after which
+ *   step it diverged.
+ * - Records are written straight into a mapped region of the log file, without locks. A
+ *   recorder is used by one thread, the thread that evolves its world.
+ * - When the recorder is closed, the snapshot of the world at that moment is appended,
+ *   and the file is cut to the length of the log. The log of a recorder that was not
+ *   closed ends at the first record whose type is 0.
+ *
+ * @invar	| getWorld() != null
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+public class ReplayRecorder implements Closeable {
+
+	/**
+	 * Initialize this new recorder for the given world, with a new log at the given path.
+	 * An existing file at that path is overwritten.
+	 *
+	 * @param world
+	 * 			The world whose match is recorded.
+	 * @param path
+	 * 			The path of the log file.
+	 * @post	| new.getWorld() == world
+	 * @post	| new.getNbSteps() == 0
+	 * @throws	NullPointerException
+	 * 			| world == null || path == null
+	 * @throws	IllegalArgumentException
+	 * 			| world.isTerminated()
+	 * @throws	IOException
+	 * 			If the log file cannot be created.
+	 */
+	public ReplayRecorder(World world, Path path) throws NullPointerException, IllegalArgumentException, IOException{
+		if (world == null || path == null)
+			throw new NullPointerException();
+		if (world.isTerminated())
+			throw new IllegalArgumentException("A terminated world cannot be recorded.");
+		this.world = world;
+		this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		byte[] snapshot = WorldSnapshot.toByteArray(world);
+		reserve(4 + 2 + 4 + snapshot.length);
+		buffer.putInt(MAGIC).putShort(getFormatVersion()).putInt(snapshot.length).put(snapshot);
+	}
+
+
+	// World
+	/**
+	 * Return the world whose match is recorded by this recorder.
+	 */
+	@Basic @Immutable
+	public World getWorld(){
+		return this.world;
+	}
+
+	/**
+	 * Variable registering the world of this recorder.
+	 */
+	private final World world;
+
+
+	// Inputs
+	/**
+	 * Turn the given ship with the given angle, and log that input.
+	 *
+	 * @param ship
+	 * 			The ship that has to turn.
+	 * @param angle
+	 * 			The angle with which the ship turns.
+	 * @effect	| ship.turn(angle)
+	 * @throws	NullPointerException
+	 * 			| ship == null
+	 * @throws	IllegalArgumentException
+	 * 			| ship.getWorld() != getWorld()
+	 * @throws	IllegalStateException
+	 * 			| isClosed()
+	 */
+	public void turn(Ship ship, double angle) throws NullPointerException, IllegalArgumentException, IllegalStateException{
+		checkInput(ship);
+		ship.turn(angle);
+		reserve(1 + 4 + 8);
+		buffer.put(TURN).putInt(ship.getId()).putDouble(angle);
+	}
+
+	/**
+	 * Set the thruster of the given ship to the given mode, and log that input.
+	 *
+	 * @param ship
+	 * 			The ship whose thruster is set.
+	 * @param thrust
+	 * 			Whether the thruster is on.
+	 * @effect	| ship.setThrust(thrust)
+	 * @throws	NullPointerException
+	 * 			| ship == null
+	 * @throws	IllegalArgumentException
+	 * 			| ship.getWorld() != getWorld()
+	 * @throws	IllegalStateException
+	 * 			| isClosed()
+	 */
+	public void setThrust(Ship ship, boolean thrust) throws NullPointerException, IllegalArgumentException, IllegalStateException{
+		checkInput(ship);
+		ship.setThrust(thrust);
+		reserve(1 + 4 + 1);
+		buffer.put(THRUST).putInt(ship.getId()).put((byte)(thrust ? 1 : 0));
+	}
+
+	/**
+	 * Let the given ship fire a bullet, and log that input.
+	 *
+	 * @param ship
+	 * 			The ship that fires.
+	 * @effect	| ship.fireBullet()
+	 * @throws	NullPointerException
+	 * 			| ship == null
+	 * @throws	IllegalArgumentException
+	 * 			| ship.getWorld() != getWorld()
+	 * @throws	IllegalStateException
+	 * 			| isClosed()
+	 */
+	public void fireBullet(Ship ship) throws NullPointerException, IllegalArgumentException, IllegalStateException{
+		checkInput(ship);
+		ship.fireBullet();
+		reserve(1 + 4);
+		buffer.put(FIRE).putInt(ship.getId());
+	}
+
+	/**
+	 * Check whether the given ship can receive an input through this recorder.
+	 *
+	 * @throws	NullPointerException
+	 * 			| ship == null
+	 * @throws	IllegalArgumentException
+	 * 			| ship.getWorld() != getWorld()
+	 * @throws	IllegalStateException
+	 * 			| isClosed()
+	 */
+	private void checkInput(Ship ship) throws NullPointerException, IllegalArgumentException, IllegalStateException{
+		if (ship == null)
+			throw new NullPointerException("The ship cannot be null.");
+		if (isClosed())
+			throw new IllegalStateException("This recorder is closed.");
+		if (ship.getWorld() != getWorld())
+			throw new IllegalArgumentException("The ship does not lie in the recorded world.");
+	}
+
+
+	// Steps
+	/**
+	 * Evolve the world of this recorder with the given time step, and log that step.
+	 *
+	 * @param deltaT
+	 * 			The time step, in seconds.
+	 * @param collisionListener
+	 * 			The listener that is notified of the collisions, or null.
+	 * @effect	| getWorld().evolve(deltaT, collisionListener)
+	 * @post	| new.getNbSteps() == getNbSteps()+1
+	 * @throws	IllegalStateException
+	 * 			| isClosed()
+	 */
+	public void evolve(double deltaT, CollisionListener collisionListener) throws IllegalArgumentException, IllegalStateException{
+		if (isClosed())
+			throw new IllegalStateException("This recorder is closed.");
+		world.evolve(deltaT, collisionListener);
+		reserve(1 + 8 + 8);
+		buffer.put(EVOLVE).putDouble(deltaT).putLong(digest(world));
+		nbSteps++;
+	}
+
+	/**
+	 * Return the number of steps that were logged by this recorder.
+	 */
+	@Basic
+	public long getNbSteps(){
+		return this.nbSteps;
+	}
+
+	/**
+	 * Variable registering the number of steps of this recorder.
+	 */
+	private long nbSteps = 0;
+
+	/**
+	 * Return the digest of the state of the given world.
+	 *
+	 * @param world
+	 * 			The world whose digest is computed.
+	 * @return	A hash of the state of the world that is written to its snapshot: the time,
+	 * 			the collision settings and the next identifier of the world, and the state of
+	 * 			all its entities, including the bullets loaded on its ships. The hash does not
+	 * 			depend on the order of the entities.
+	 */
+	static long digest(World world){
+		long result = mix(Double.doubleToLongBits(world.getTime()));
+		result = mix(result ^ world.getMaxCollisionsPerStep());
+		result = mix(result ^ Double.doubleToLongBits(world.getCollisionWindow()));
+		result = mix(result ^ world.getNextEntityId());
+		for (Ship ship: world.queryShips())
+			result += digest(ship);
+		for (Bullet bullet: world.queryBullets())
+			result += digest(bullet);
+		for (Entity entity: world.queryAsteroids())
+			result += digest(entity);
+		for (Entity entity: world.queryPlanetoids())
+			result += digest(entity);
+		return result;
+	}
+
+	/**
+	 * Return the digest of the state of the given entity that is written to its snapshot record.
+	 */
+	private static long digest(Entity entity){
+		long result = mix(entity.getId());
+		result = mix(result ^ Double.doubleToLongBits(entity.getPositionX()));
+		result = mix(result ^ Double.doubleToLongBits(entity.getPositionY()));
+		result = mix(result ^ Double.doubleToLongBits(entity.getVelocityX()));
+		result = mix(result ^ Double.doubleToLongBits(entity.getVelocityY()));
+		result = mix(result ^ Double.doubleToLongBits(entity.getRadius()));
+		result = mix(result ^ Double.doubleToLongBits(entity.getSpeedLimit()));
+		if (entity instanceof Ship){
+			Ship ship = (Ship)entity;
+			result = mix(result ^ Double.doubleToLongBits(ship.getAngle()));
+			result = mix(result ^ Double.doubleToLongBits(ship.getBaseMass()));
+			result = mix(result ^ (ship.isShipThrusterActive() ? 1 : 0));
+			long bullets = 0;
+			for (Bullet bullet: ship.getBullets())
+				bullets += digest(bullet);
+			result = mix(result ^ bullets);
+		}
+		else if (entity instanceof Bullet){
+			Bullet bullet = (Bullet)entity;
+			Ship source = bullet.getSourceShip();
+			result = mix(result ^ bullet.getNbTimesBounced());
+			result = mix(result ^ (source != null && source.getWorld() == bullet.getWorld() ? source.getId() : -1));
+		}
+		return result;
+	}
+
+	/**
+	 * Return the given value with its bits mixed, so that close values have unrelated digests.
+	 */
+	private static long mix(long value){
+		value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+		value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		return value ^ (value >>> 33);
+	}
+
+
+	// Log file
+	/**
+	 * Make sure that the mapped region of the log can hold the given number of bytes.
+	 * A new region of at least getRegionSize() bytes is mapped right after the last record
+	 * if the current region is too small.
+	 *
+	 * @throws	UncheckedIOException
+	 * 			If the log file cannot be mapped.
+	 */
+	private void reserve(int nbBytes){
+		if (buffer != null && buffer.remaining() >= nbBytes)
+			return;
+		try {
+			long position = getLength();
+			buffer = channel.map(FileChannel.MapMode.READ_WRITE, position, Math.max(getRegionSize(), nbBytes+1));
+			regionStart = position;
+		} catch (IOException exc){
+			throw new UncheckedIOException(exc);
+		}
+	}
+
+	/**
+	 * Return the number of bytes in the log of this recorder.
+	 */
+	@Basic
+	public long getLength(){
+		return buffer == null ? 0 : regionStart+buffer.position();
+	}
+
+	/**
+	 * Return the number of bytes of a region of the log that is mapped at once.
+	 *
+	 * @see implementation
+	 */
+	@Immutable
+	public static int getRegionSize(){
+		return 1 << 20;
+	}
+
+	/**
+	 * Check whether this recorder is closed.
+	 */
+	@Basic
+	public boolean isClosed(){
+		return !channel.isOpen();
+	}
+
+	/**
+	 * Close this recorder.
+	 * The snapshot of the world is appended to the log, the log is written to its file, and
+	 * the file is cut to the length of the log. A recorder that is closed stays closed.
+	 *
+	 * @post	| new.isClosed()
+	 * @throws	IOException
+	 * 			If the log cannot be written to its file.
+	 */
+	@Override
+	public void close() throws IOException{
+		if (isClosed())
+			return;
+		try {
+			byte[] snapshot = WorldSnapshot.toByteArray(world);
+			reserve(1 + 4 + snapshot.length);
+			buffer.put(END).putInt(snapshot.length).put(snapshot);
+			buffer.force();
+			channel.truncate(getLength());
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Variable registering the channel of the log file of this recorder.
+	 */
+	private final FileChannel channel;
+
+	/**
+	 * Variable registering the mapped region of the log file to which records are appended.
+	 */
+	private MappedByteBuffer buffer = null;
+
+	/**
+	 * Variable registering the position of the mapped region in the log file.
+	 */
+	private long regionStart = 0;
+
+
+	// Format
+	/**
+	 * Return the version of the log format written by this class.
+	 *
+	 * @see implementation
+	 */
+	public static short getFormatVersion(){
+		return 1;
+	}
+
+	/**
+	 * Constant registering the number at the start of every replay log.
+	 */
+	static final int MAGIC = 0x41535252;
+
+	/**
+	 * Constants registering the types of records in a replay log.
+	 */
+	static final byte TURN = 1, THRUST = 2, FIRE = 3, EVOLVE = 4, END = 5;
+}
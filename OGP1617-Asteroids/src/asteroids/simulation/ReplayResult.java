@@ -0,0 +1,110 @@
+package asteroids.simulation;
+
+import asteroids.model.World;
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * A class that contains the result of the replay of a replay log.
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+public class ReplayResult {
+
+	/**
+	 * Initialize this new result with the given values.
+	 *
+	 * @param world
+	 * 			The world in the state in which the replay ended.
+	 * @param nbSteps
+	 * 			The number of steps that were replayed.
+	 * @param firstDivergentStep
+	 * 			The number of the first step after which the replay diverged, or -1.
+	 * @param finalSnapshotEqual
+	 * 			Whether the final snapshot of the log was reproduced byte for byte.
+	 * @post	| new.getWorld() == world
+	 * @post	| new.getNbSteps() == nbSteps
+	 * @post	| new.getFirstDivergentStep() == firstDivergentStep
+	 * @post	| new.isFinalSnapshotEqual() == finalSnapshotEqual
+	 */
+	public ReplayResult(World world, long nbSteps, long firstDivergentStep, boolean finalSnapshotEqual){
+		this.world = world;
+		this.nbSteps = nbSteps;
+		this.firstDivergentStep = firstDivergentStep;
+		this.finalSnapshotEqual = finalSnapshotEqual;
+	}
+
+	/**
+	 * Return the world in the state in which the replay ended.
+	 */
+	@Basic @Immutable
+	public World getWorld(){
+		return this.world;
+	}
+
+	/**
+	 * Return the number of steps that were replayed.
+	 */
+	@Basic @Immutable
+	public long getNbSteps(){
+		return this.nbSteps;
+	}
+
+	/**
+	 * Return the number of the first step after which the replay diverged from the log,
+	 * counting from 1, or -1 if the digests of all steps were reproduced.
+	 * If only the final snapshot of the log differs, -1 is returned and the final snapshot
+	 * is not equal.
+	 */
+	@Basic @Immutable
+	public long getFirstDivergentStep(){
+		return this.firstDivergentStep;
+	}
+
+	/**
+	 * Check whether the replay reproduced the final snapshot of the log byte for byte.
+	 * This is false for a log without final snapshot.
+	 */
+	@Basic @Immutable
+	public boolean isFinalSnapshotEqual(){
+		return this.finalSnapshotEqual;
+	}
+
+	/**
+	 * Check whether the replay reproduced the recorded match.
+	 *
+	 * @return	| result == (getFirstDivergentStep() == -1 && isFinalSnapshotEqual())
+	 */
+	public boolean isIdentical(){
+		return getFirstDivergentStep() == -1 && isFinalSnapshotEqual();
+	}
+
+	/**
+	 * Variable registering the world in which the log was replayed.
+	 */
+	private final World world;
+
+	/**
+	 * Variables registering the number of replayed steps and the first divergent step.
+	 */
+	private final long nbSteps, firstDivergentStep;
+
+	/**
+	 * Variable registering whether the final snapshot was reproduced.
+	 */
+	private final boolean finalSnapshotEqual;
+
+	/**
+	 * Return a textual representation of this result.
+	 */
+	@Override
+	public String toString(){
+		return "ReplayResult [steps=" + getNbSteps() + ", firstDivergentStep=" + getFirstDivergentStep() +
+				", finalSnapshotEqual=" + isFinalSnapshotEqual() + "]";
+	}
+}
@@ -0,0 +1,152 @@
+package asteroids.simulation;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import asteroids.model.Entity;
+import asteroids.model.Ship;
+import asteroids.model.World;
+import asteroids.model.WorldSnapshot;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * A class of static methods to replay the logs of replay recorders.
+ *
+ * - A replay restores the world from the snapshot at the start of the log, and applies the
+ *   logged inputs and evolutions to it in the same order. No collision listener is notified.
+ * - After every evolution, the digest of the world is compared with the logged digest.
+ *   The replay stops at the first step whose digest differs, or whose inputs refer to a
+ *   ship that is not in the world.
+ * - At the end of a closed log, the snapshot of the replayed world is compared byte for
+ *   byte with the final snapshot of the log.
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+public final class Replayer {
+
+	/**
+	 * This class only has static methods.
+	 */
+	private Replayer(){
+	}
+
+	/**
+	 * Replay the log at the given path.
+	 *
+	 * @param path
+	 * 			The path of the log file.
+	 * @return	The result of the replay.
+	 * @throws	NullPointerException
+	 * 			| path == null
+	 * @throws	IllegalArgumentException
+	 * 			If the file is not a valid replay log of the current version.
+	 * @throws	IOException
+	 * 			If the log cannot be read.
+	 */
+	public static ReplayResult replay(Path path) throws NullPointerException, IllegalArgumentException, IOException{
+		if (path == null)
+			throw new NullPointerException("The path cannot be null.");
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)){
+			if (channel.size() > Integer.MAX_VALUE)
+				throw new IllegalArgumentException("The log is too large to be replayed.");
+			MappedByteBuffer log = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return replay(log);
+		} catch (BufferUnderflowException exc){
+			throw new IllegalArgumentException("The log ends in the middle of a record.", exc);
+		}
+	}
+
+	/**
+	 * Replay the log in the given buffer, from its current position.
+	 */
+	private static ReplayResult replay(MappedByteBuffer log) throws IllegalArgumentException{
+		if (log.remaining() < 4+2+4 || log.getInt() != ReplayRecorder.MAGIC)
+			throw new IllegalArgumentException("The file is not a replay log.");
+		short version = log.getShort();
+		if (version != ReplayRecorder.getFormatVersion())
+			throw new IllegalArgumentException("Replay logs of version "+version+" are not supported.");
+		World world = WorldSnapshot.fromByteArray(readBytes(log));
+
+		long nbSteps = 0;
+		while (log.hasRemaining()){
+			byte type = log.get();
+			switch (type){
+			case ReplayRecorder.TURN:{
+				Ship ship = getShip(world, log.getInt());
+				double angle = log.getDouble();
+				if (ship == null)
+					return new ReplayResult(world, nbSteps, nbSteps+1, false);
+				ship.turn(angle);
+				break;
+			}
+			case ReplayRecorder.THRUST:{
+				Ship ship = getShip(world, log.getInt());
+				boolean thrust = log.get() != 0;
+				if (ship == null)
+					return new ReplayResult(world, nbSteps, nbSteps+1, false);
+				ship.setThrust(thrust);
+				break;
+			}
+			case ReplayRecorder.FIRE:{
+				Ship ship = getShip(world, log.getInt());
+				if (ship == null)
+					return new ReplayResult(world, nbSteps, nbSteps+1, false);
+				ship.fireBullet();
+				break;
+			}
+			case ReplayRecorder.EVOLVE:{
+				double deltaT = log.getDouble();
+				long digest = log.getLong();
+				world.evolve(deltaT, null);
+				nbSteps++;
+				if (ReplayRecorder.digest(world) != digest)
+					return new ReplayResult(world, nbSteps, nbSteps, false);
+				break;
+			}
+			case ReplayRecorder.END:{
+				// Every step matched its digest, so no step can be named as the divergent one.
+				boolean equal = Arrays.equals(readBytes(log), WorldSnapshot.toByteArray(world));
+				return new ReplayResult(world, nbSteps, -1, equal);
+			}
+			case 0:
+				// The log was not closed, so it has no final snapshot.
+				return new ReplayResult(world, nbSteps, -1, false);
+			default:
+				throw new IllegalArgumentException(type+" is not a valid type of record.");
+			}
+		}
+		return new ReplayResult(world, nbSteps, -1, false);
+	}
+
+	/**
+	 * Return the ship of the given world with the given identifier, or null if there is
+	 * no such ship.
+	 */
+	private static Ship getShip(World world, int id){
+		Entity entity = world.getEntity(id);
+		return entity instanceof Ship ? (Ship)entity : null;
+	}
+
+	/**
+	 * Return the bytes of the snapshot at the current position of the given log, which is
+	 * preceded by its length.
+	 */
+	private static byte[] readBytes(MappedByteBuffer log) throws IllegalArgumentException{
+		int length = log.getInt();
+		if (length < 0 || length > log.remaining())
+			throw new IllegalArgumentException("The log ends in the middle of a snapshot.");
+		byte[] bytes = new byte[length];
+		log.get(bytes);
+		return bytes;
+	}
+}
@@ -0,0 +1,170 @@
+package asteroids.simulation;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * An immutable class that contains the metrics of a simulation runner.
+ *
+ * - A tick evolves every world of the runner with one fixed time step.
+ * - Catch-up ticks are the extra ticks that are executed in one call to advance,
+ *   because more than one time step of real time has passed since the previous call.
+ * - Dropped time is the real time that was never simulated because the runner
+ *   reached its maximal number of ticks per call to advance.
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+@Value
+public class SimulationMetrics {
+
+	/**
+	 * Initialize these new metrics with the given values.
+	 *
+	 * @param nbTicks
+	 * 			The number of executed ticks.
+	 * @param nbCatchUpTicks
+	 * 			The number of executed catch-up ticks.
+	 * @param totalTickNanos
+	 * 			The total duration of all ticks, in nanoseconds.
+	 * @param maxTickNanos
+	 * 			The duration of the longest tick, in nanoseconds.
+	 * @param elapsedNanos
+	 * 			The real time during which the ticks were executed, in nanoseconds.
+	 * @param droppedTime
+	 * 			The simulated time that was dropped, in seconds.
+	 * @post	| new.getNbTicks() == nbTicks
+	 * @post	| new.getNbCatchUpTicks() == nbCatchUpTicks
+	 * @post	| new.getTotalTickNanos() == totalTickNanos
+	 * @post	| new.getMaxTickNanos() == maxTickNanos
+	 * @post	| new.getElapsedNanos() == elapsedNanos
+	 * @post	| new.getDroppedTime() == droppedTime
+	 */
+	public SimulationMetrics(long nbTicks, long nbCatchUpTicks, long totalTickNanos, long maxTickNanos,
+			long elapsedNanos, double droppedTime){
+		this.nbTicks = nbTicks;
+		this.nbCatchUpTicks = nbCatchUpTicks;
+		this.totalTickNanos = totalTickNanos;
+		this.maxTickNanos = maxTickNanos;
+		this.elapsedNanos = elapsedNanos;
+		this.droppedTime = droppedTime;
+	}
+
+	/**
+	 * Return the number of executed ticks.
+	 */
+	@Basic @Immutable
+	public long getNbTicks(){
+		return this.nbTicks;
+	}
+
+	/**
+	 * Variable registering the number of executed ticks.
+	 */
+	private final long nbTicks;
+
+	/**
+	 * Return the number of executed catch-up ticks.
+	 */
+	@Basic @Immutable
+	public long getNbCatchUpTicks(){
+		return this.nbCatchUpTicks;
+	}
+
+	/**
+	 * Variable registering the number of executed catch-up ticks.
+	 */
+	private final long nbCatchUpTicks;
+
+	/**
+	 * Return the total duration of all ticks, in nanoseconds.
+	 */
+	@Basic @Immutable
+	public long getTotalTickNanos(){
+		return this.totalTickNanos;
+	}
+
+	/**
+	 * Variable registering the total duration of all ticks.
+	 */
+	private final long totalTickNanos;
+
+	/**
+	 * Return the duration of the longest tick, in nanoseconds.
+	 */
+	@Basic @Immutable
+	public long getMaxTickNanos(){
+		return this.maxTickNanos;
+	}
+
+	/**
+	 * Variable registering the duration of the longest tick.
+	 */
+	private final long maxTickNanos;
+
+	/**
+	 * Return the real time during which the ticks were executed, in nanoseconds.
+	 */
+	@Basic @Immutable
+	public long getElapsedNanos(){
+		return this.elapsedNanos;
+	}
+
+	/**
+	 * Variable registering the real time during which the ticks were executed.
+	 */
+	private final long elapsedNanos;
+
+	/**
+	 * Return the simulated time that was dropped, in seconds.
+	 */
+	@Basic @Immutable
+	public double getDroppedTime(){
+		return this.droppedTime;
+	}
+
+	/**
+	 * Variable registering the simulated time that was dropped.
+	 */
+	private final double droppedTime;
+
+	/**
+	 * Return the average duration of a tick, in seconds.
+	 *
+	 * @return	| if (getNbTicks() == 0)
+	 * 			|	then result == 0
+	 * 			| else result == getTotalTickNanos()/1e9/getNbTicks()
+	 */
+	public double getAverageTickDuration(){
+		if (getNbTicks() == 0)
+			return 0;
+		return getTotalTickNanos()/1e9/getNbTicks();
+	}
+
+	/**
+	 * Return the number of ticks per second of real time.
+	 *
+	 * @return	| if (getElapsedNanos() == 0)
+	 * 			|	then result == 0
+	 * 			| else result == getNbTicks()/(getElapsedNanos()/1e9)
+	 */
+	public double getTickRate(){
+		if (getElapsedNanos() == 0)
+			return 0;
+		return getNbTicks()/(getElapsedNanos()/1e9);
+	}
+
+	/**
+	 * Return a textual representation of these metrics.
+	 */
+	@Override
+	public String toString(){
+		return "SimulationMetrics [ticks=" + getNbTicks() + ", catchUpTicks=" + getNbCatchUpTicks() +
+				", tickRate=" + getTickRate() + ", averageTickDuration=" + getAverageTickDuration() +
+				", maxTickDuration=" + getMaxTickNanos()/1e9 + ", droppedTime=" + getDroppedTime() + "]";
+	}
+}
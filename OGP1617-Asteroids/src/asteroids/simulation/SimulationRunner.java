@@ -0,0 +1,377 @@
+package asteroids.simulation;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import asteroids.model.World;
+import asteroids.part2.CollisionListener;
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * A class representing a headless runner that evolves game worlds with a fixed time step.
+ *
+ * - Real time that passes is added to an accumulator. Every time the accumulator holds
+ *   a full time step, all worlds of the runner are evolved with exactly that time step
+ *   (a tick). What is left in the accumulator carries over to the next call.
+ * - The simulation therefore only depends on the number of ticks, not on the rendering
+ *   or the jitter of the clock.
+ * - To avoid a spiral of death when ticks take longer than the time step, at most a
+ *   maximal number of ticks is executed per call to advance. The time that is left
+ *   after that is dropped and reported in the metrics.
+ *
+ * @invar	| isValidTimeStep(getTimeStep())
+ * @invar	| getMaxTicksPerAdvance() >= 1
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+public class SimulationRunner {
+
+	/**
+	 * Initialize this new runner with the given time step and maximal number of ticks
+	 * per call to advance.
+	 *
+	 * @param timeStep
+	 * 			The time with which the worlds evolve during one tick, in seconds.
+	 * @param maxTicksPerAdvance
+	 * 			The maximal number of ticks that are executed per call to advance.
+	 * @post	| new.getTimeStep() == timeStep
+	 * @post	| new.getMaxTicksPerAdvance() == maxTicksPerAdvance
+	 * @post	| new.getWorlds().isEmpty()
+	 * @throws	IllegalArgumentException
+	 * 			| !isValidTimeStep(timeStep)
+	 * @throws	IllegalArgumentException
+	 * 			| maxTicksPerAdvance < 1
+	 */
+	public SimulationRunner(double timeStep, int maxTicksPerAdvance) throws IllegalArgumentException{
+		if (!isValidTimeStep(timeStep))
+			throw new IllegalArgumentException(timeStep+" is not a valid time step.");
+		if (maxTicksPerAdvance < 1)
+			throw new IllegalArgumentException("At least one tick per advance is required.");
+		this.timeStep = timeStep;
+		this.maxTicksPerAdvance = maxTicksPerAdvance;
+	}
+
+	/**
+	 * Initialize this new runner with the given time step.
+	 *
+	 * @param timeStep
+	 * 			The time with which the worlds evolve during one tick, in seconds.
+	 * @effect	| this(timeStep, getDefaultMaxTicksPerAdvance())
+	 */
+	public SimulationRunner(double timeStep) throws IllegalArgumentException{
+		this(timeStep, getDefaultMaxTicksPerAdvance());
+	}
+
+
+	// Time step
+	/**
+	 * Return the time with which the worlds evolve during one tick, in seconds.
+	 */
+	@Basic @Immutable
+	public double getTimeStep(){
+		return this.timeStep;
+	}
+
+	/**
+	 * Check whether the given time step is a valid time step for a runner.
+	 *
+	 * @return	| result == (timeStep > 0 && !Double.isInfinite(timeStep))
+	 */
+	public static boolean isValidTimeStep(double timeStep){
+		return timeStep > 0 && !Double.isInfinite(timeStep);
+	}
+
+	/**
+	 * Variable registering the time step of this runner.
+	 */
+	private final double timeStep;
+
+	/**
+	 * Return the maximal number of ticks that are executed per call to advance.
+	 */
+	@Basic @Immutable
+	public int getMaxTicksPerAdvance(){
+		return this.maxTicksPerAdvance;
+	}
+
+	/**
+	 * Return the default maximal number of ticks that are executed per call to advance.
+	 *
+	 * @see implementation
+	 */
+	@Immutable
+	public static int getDefaultMaxTicksPerAdvance(){
+		return 5;
+	}
+
+	/**
+	 * Variable registering the maximal number of ticks per call to advance.
+	 */
+	private final int maxTicksPerAdvance;
+
+
+	// Relation Runner-World
+	/**
+	 * Add the given world to this runner.
+	 *
+	 * @param world
+	 * 			The world that has to be added.
+	 * @post	| new.hasAsWorld(world)
+	 * @throws	NullPointerException
+	 * 			| world == null
+	 * @throws	IllegalArgumentException
+	 * 			| world.isTerminated() || hasAsWorld(world)
+	 */
+	public void addWorld(World world) throws NullPointerException, IllegalArgumentException{
+		if (world == null)
+			throw new NullPointerException("The world cannot be null.");
+		if (world.isTerminated() || hasAsWorld(world))
+			throw new IllegalArgumentException("This world cannot be added.");
+		worlds.add(world);
+	}
+
+	/**
+	 * Remove the given world from this runner.
+	 *
+	 * @param world
+	 * 			The world that has to be removed.
+	 * @post	| !new.hasAsWorld(world)
+	 */
+	public void removeWorld(World world){
+		worlds.remove(world);
+	}
+
+	/**
+	 * Check whether the given world is evolved by this runner.
+	 *
+	 * @see implementation
+	 */
+	@Basic
+	public boolean hasAsWorld(World world){
+		return worlds.contains(world);
+	}
+
+	/**
+	 * Return the worlds that are evolved by this runner, in the order in which they were added.
+	 *
+	 * @see implementation
+	 */
+	public List<World> getWorlds(){
+		return new ArrayList<World>(worlds);
+	}
+
+	/**
+	 * A list registering the worlds of this runner.
+	 */
+	private final List<World> worlds = new ArrayList<World>();
+
+
+	// Collision listener
+	/**
+	 * Return the listener that is notified of the collisions in the worlds of this runner.
+	 */
+	@Basic
+	public CollisionListener getCollisionListener(){
+		return this.collisionListener;
+	}
+
+	/**
+	 * Set the listener that is notified of the collisions in the worlds of this runner.
+	 *
+	 * @param collisionListener
+	 * 			The new listener, null if no listener has to be notified.
+	 * @post	| new.getCollisionListener() == collisionListener
+	 */
+	public void setCollisionListener(CollisionListener collisionListener){
+		this.collisionListener = collisionListener;
+	}
+
+	/**
+	 * Variable registering the collision listener of this runner.
+	 */
+	private CollisionListener collisionListener = null;
+
+
+	// Stepping
+	/**
+	 * Let the given amount of real time pass, and execute as many ticks as fit in the
+	 * accumulated time.
+	 *
+	 * @param elapsedTime
+	 * 			The real time that passed since the previous call, in seconds.
+	 * @return	The number of executed ticks, at most getMaxTicksPerAdvance().
+	 * @post	The accumulated time is smaller than one time step.
+	 * 			| new.getAccumulatedTime() < getTimeStep()
+	 * @throws	IllegalArgumentException
+	 * 			| Double.isNaN(elapsedTime) || Double.isInfinite(elapsedTime) || elapsedTime < 0
+	 */
+	public int advance(double elapsedTime) throws IllegalArgumentException{
+		if (Double.isNaN(elapsedTime) || Double.isInfinite(elapsedTime) || elapsedTime < 0)
+			throw new IllegalArgumentException(elapsedTime+" is not a valid elapsed time.");
+		accumulatedTime += elapsedTime;
+
+		int nbTicks = 0;
+		while (accumulatedTime >= getTimeStep()){
+			if (nbTicks == getMaxTicksPerAdvance()){
+				// Drop the whole time steps that cannot be caught up with.
+				double droppedSteps = Math.floor(accumulatedTime/getTimeStep());
+				droppedTime += droppedSteps*getTimeStep();
+				accumulatedTime -= droppedSteps*getTimeStep();
+				break;
+			}
+			tick();
+			accumulatedTime -= getTimeStep();
+			if (nbTicks > 0)
+				nbCatchUpTicks++;
+			nbTicks++;
+		}
+		return nbTicks;
+	}
+
+	/**
+	 * Evolve every world of this runner with one time step.
+	 * Worlds that have been terminated are removed from this runner.
+	 *
+	 * @effect	| for each world in getWorlds():
+	 * 			|	if (!world.isTerminated())
+	 * 			|		then world.evolve(getTimeStep(), getCollisionListener())
+	 */
+	public void tick(){
+		long start = System.nanoTime();
+		if (nbTicks == 0)
+			firstTickStart = start;
+
+		Iterator<World> iterator = worlds.iterator();
+		while (iterator.hasNext()){
+			World world = iterator.next();
+			if (world.isTerminated())
+				iterator.remove();
+			else
+				world.evolve(getTimeStep(), getCollisionListener());
+		}
+
+		long end = System.nanoTime();
+		nbTicks++;
+		totalTickNanos += end-start;
+		maxTickNanos = Math.max(maxTickNanos, end-start);
+		lastTickEnd = end;
+	}
+
+	/**
+	 * Execute the given number of ticks as fast as possible.
+	 *
+	 * @param nbTicks
+	 * 			The number of ticks that have to be executed.
+	 * @effect	| for i in 1..nbTicks: tick()
+	 * @throws	IllegalArgumentException
+	 * 			| nbTicks < 0
+	 */
+	public void runTicks(int nbTicks) throws IllegalArgumentException{
+		if (nbTicks < 0)
+			throw new IllegalArgumentException("The number of ticks cannot be negative.");
+		for (int tick=0; tick < nbTicks; tick++)
+			tick();
+	}
+
+	/**
+	 * Run this runner in real time during the given duration, sleeping in between ticks.
+	 *
+	 * @param duration
+	 * 			The real time during which this runner runs, in seconds.
+	 * @effect	The real time that passes is repeatedly given to advance.
+	 * @throws	IllegalArgumentException
+	 * 			| Double.isNaN(duration) || Double.isInfinite(duration) || duration < 0
+	 * @throws	InterruptedException
+	 * 			The current thread was interrupted while it was sleeping.
+	 */
+	public void runRealTime(double duration) throws IllegalArgumentException, InterruptedException{
+		if (Double.isNaN(duration) || Double.isInfinite(duration) || duration < 0)
+			throw new IllegalArgumentException(duration+" is not a valid duration.");
+		long start = System.nanoTime();
+		long end = start+(long)(duration*1e9);
+		long previous = start;
+
+		long now = start;
+		while (now < end){
+			advance((now-previous)/1e9);
+			previous = now;
+			// Sleep until the accumulator holds a full time step again.
+			long sleepNanos = (long)((getTimeStep()-getAccumulatedTime())*1e9);
+			sleepNanos = Math.min(sleepNanos, end-System.nanoTime());
+			if (sleepNanos > 0)
+				Thread.sleep(sleepNanos/1000000, (int)(sleepNanos%1000000));
+			now = System.nanoTime();
+		}
+		advance((Math.min(now, end)-previous)/1e9);
+	}
+
+	/**
+	 * Return the real time that has been accumulated but not yet simulated, in seconds.
+	 * This time is always smaller than one time step, so it can be used to interpolate
+	 * in between two ticks.
+	 */
+	@Basic
+	public double getAccumulatedTime(){
+		return this.accumulatedTime;
+	}
+
+	/**
+	 * Variable registering the accumulated time of this runner.
+	 */
+	private double accumulatedTime = 0;
+
+
+	// Metrics
+	/**
+	 * Return the metrics of this runner since its creation or since its metrics were
+	 * reset for the last time.
+	 *
+	 * @see implementation
+	 */
+	public SimulationMetrics getMetrics(){
+		return new SimulationMetrics(nbTicks, nbCatchUpTicks, totalTickNanos, maxTickNanos,
+				(nbTicks == 0) ? 0 : lastTickEnd-firstTickStart, droppedTime);
+	}
+
+	/**
+	 * Reset the metrics of this runner.
+	 *
+	 * @post	| new.getMetrics().getNbTicks() == 0
+	 */
+	public void resetMetrics(){
+		nbTicks = 0;
+		nbCatchUpTicks = 0;
+		totalTickNanos = 0;
+		maxTickNanos = 0;
+		firstTickStart = 0;
+		lastTickEnd = 0;
+		droppedTime = 0;
+	}
+
+	/**
+	 * Variables registering the number of ticks and catch-up ticks of this runner.
+	 */
+	private long nbTicks = 0, nbCatchUpTicks = 0;
+
+	/**
+	 * Variables registering the total and the maximal duration of the ticks of this runner.
+	 */
+	private long totalTickNanos = 0, maxTickNanos = 0;
+
+	/**
+	 * Variables registering the start of the first tick and the end of the last tick.
+	 */
+	private long firstTickStart = 0, lastTickEnd = 0;
+
+	/**
+	 * Variable registering the simulated time that was dropped by this runner.
+	 */
+	private double droppedTime = 0;
+}
@@ -0,0 +1,405 @@
+package asteroids.simulation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import asteroids.model.Entity;
+import asteroids.model.World;
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * A class representing a stream of the state of a world to spectators, through a byte channel.
+ *
+ * - After every evolution of the world, one frame is written. Positions and velocities are
+ *   quantised to multiples of the resolutions of the stream.
+ * - A delta frame only holds the entities whose quantised position or velocity changed since
+ *   the last frame, as differences with the values that were sent before, and the
+ *   identifiers of the entities that left the world.
+ * - Every getKeyframeInterval() frames, starting with the first one, a keyframe holds all
+ *   entities of the world with their absolute values, so spectators can join at any moment.
+ * - Every frame starts with its length, followed by its type, its number and the time of the
+ *   world. Keyframes then hold the resolutions of the stream. Numbers within the entity
+ *   records are written as variable-length integers.
+ * - A stream is used by one thread, the thread that evolves its world.
+ *
+ * @invar	| isValidResolution(getPositionResolution())
+ * @invar	| isValidResolution(getVelocityResolution())
+ * @invar	| getKeyframeInterval() > 0
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+public class SpectatorStream {
+
+	/**
+	 * Initialize this new stream to the given channel with the given resolutions and
+	 * keyframe interval.
+	 *
+	 * @param channel
+	 * 			The channel to which the frames are written.
+	 * @param positionResolution
+	 * 			The resolution of positions, in kilometers.
+	 * @param velocityResolution
+	 * 			The resolution of velocities, in kilometers per second.
+	 * @param keyframeInterval
+	 * 			The number of frames from one keyframe to the next.
+	 * @post	| new.getPositionResolution() == positionResolution
+	 * @post	| new.getVelocityResolution() == velocityResolution
+	 * @post	| new.getKeyframeInterval() == keyframeInterval
+	 * @post	| new.getNbFrames() == 0
+	 * @throws	NullPointerException
+	 * 			| channel == null
+	 * @throws	IllegalArgumentException
+	 * 			| !isValidResolution(positionResolution) || !isValidResolution(velocityResolution)
+	 * 			|	|| keyframeInterval <= 0
+	 */
+	public SpectatorStream(WritableByteChannel channel, double positionResolution, double velocityResolution,
+			int keyframeInterval) throws NullPointerException, IllegalArgumentException{
+		if (channel == null)
+			throw new NullPointerException("The channel cannot be null.");
+		if (!isValidResolution(positionResolution) || !isValidResolution(velocityResolution))
+			throw new IllegalArgumentException("The resolutions must be positive.");
+		if (keyframeInterval <= 0)
+			throw new IllegalArgumentException(keyframeInterval+" is not a valid keyframe interval.");
+		this.channel = channel;
+		this.positionResolution = positionResolution;
+		this.velocityResolution = velocityResolution;
+		this.keyframeInterval = keyframeInterval;
+	}
+
+	/**
+	 * Initialize this new stream to the given channel with the default resolutions and
+	 * keyframe interval.
+	 *
+	 * @param channel
+	 * 			The channel to which the frames are written.
+	 * @effect	| this(channel, getDefaultResolution(), getDefaultResolution(), getDefaultKeyframeInterval())
+	 */
+	public SpectatorStream(WritableByteChannel channel) throws NullPointerException{
+		this(channel, getDefaultResolution(), getDefaultResolution(), getDefaultKeyframeInterval());
+	}
+
+
+	// Configuration
+	/**
+	 * Return the resolution of the positions in this stream, in kilometers.
+	 */
+	@Basic @Immutable
+	public double getPositionResolution(){
+		return this.positionResolution;
+	}
+
+	/**
+	 * Return the resolution of the velocities in this stream, in kilometers per second.
+	 */
+	@Basic @Immutable
+	public double getVelocityResolution(){
+		return this.velocityResolution;
+	}
+
+	/**
+	 * Check whether the given resolution is a valid resolution for a stream.
+	 *
+	 * @return	| result == (resolution > 0 && !Double.isInfinite(resolution))
+	 */
+	public static boolean isValidResolution(double resolution){
+		return resolution > 0 && !Double.isInfinite(resolution);
+	}
+
+	/**
+	 * Return the default resolution of positions and velocities.
+	 *
+	 * @see implementation
+	 */
+	@Immutable
+	public static double getDefaultResolution(){
+		return 1.0/16;
+	}
+
+	/**
+	 * Variables registering the resolutions of this stream.
+	 */
+	private final double positionResolution, velocityResolution;
+
+	/**
+	 * Return the number of frames from one keyframe to the next.
+	 */
+	@Basic @Immutable
+	public int getKeyframeInterval(){
+		return this.keyframeInterval;
+	}
+
+	/**
+	 * Return the default number of frames from one keyframe to the next.
+	 *
+	 * @see implementation
+	 */
+	@Immutable
+	public static int getDefaultKeyframeInterval(){
+		return 60;
+	}
+
+	/**
+	 * Variable registering the keyframe interval of this stream.
+	 */
+	private final int keyframeInterval;
+
+
+	// Frames
+	/**
+	 * Write the next frame of the given world to the channel of this stream.
+	 *
+	 * @param world
+	 * 			The world whose state is streamed.
+	 * @post	| new.getNbFrames() == getNbFrames()+1
+	 * @throws	NullPointerException
+	 * 			| world == null
+	 * @throws	IllegalArgumentException
+	 * 			| world.isTerminated()
+	 * @throws	IOException
+	 * 			If the frame cannot be written to the channel.
+	 */
+	public void writeFrame(World world) throws NullPointerException, IllegalArgumentException, IOException{
+		if (world == null)
+			throw new NullPointerException("The world cannot be null.");
+		if (world.isTerminated())
+			throw new IllegalArgumentException("A terminated world cannot be streamed.");
+		long frame = nbFrames;
+		boolean keyframe = frame % getKeyframeInterval() == 0;
+		int nbEntities = world.queryShips().size() + world.queryBullets().size()
+				+ world.queryAsteroids().size() + world.queryPlanetoids().size();
+		reserve(getMaxHeaderSize() + getMaxRecordSize()*(nbEntities+sentStates.size()));
+
+		buffer.clear();
+		buffer.putInt(0).put(keyframe ? KEYFRAME : DELTA).putLong(frame).putDouble(world.getTime());
+		if (keyframe)
+			buffer.putDouble(getPositionResolution()).putDouble(getVelocityResolution());
+		int countsPosition = buffer.position();
+		buffer.putInt(0).putInt(0);
+
+		int nbUpdates = 0;
+		for (Entity entity: world.queryShips())
+			nbUpdates += writeEntity(entity, SHIP, frame, keyframe);
+		for (Entity entity: world.queryBullets())
+			nbUpdates += writeEntity(entity, BULLET, frame, keyframe);
+		for (Entity entity: world.queryAsteroids())
+			nbUpdates += writeEntity(entity, ASTEROID, frame, keyframe);
+		for (Entity entity: world.queryPlanetoids())
+			nbUpdates += writeEntity(entity, PLANETOID, frame, keyframe);
+
+		int nbRemovals = 0;
+		Iterator<Map.Entry<Integer, SentState>> states = sentStates.entrySet().iterator();
+		while (states.hasNext()){
+			Map.Entry<Integer, SentState> state = states.next();
+			if (state.getValue().frame != frame){
+				putVarLong(buffer, state.getKey());
+				states.remove();
+				nbRemovals++;
+			}
+		}
+
+		buffer.putInt(0, buffer.position()-4);
+		buffer.putInt(countsPosition, nbUpdates).putInt(countsPosition+4, nbRemovals);
+		buffer.flip();
+		nbBytesWritten += buffer.remaining();
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+		nbFrames++;
+	}
+
+	/**
+	 * Write the record of the given entity of the given kind to the buffer of this stream, if
+	 * it has to be sent in the given frame, and return the number of records that were written.
+	 */
+	private int writeEntity(Entity entity, byte kind, long frame, boolean keyframe){
+		long x = quantise(entity.getPositionX(), positionResolution);
+		long y = quantise(entity.getPositionY(), positionResolution);
+		long velocityX = quantise(entity.getVelocityX(), velocityResolution);
+		long velocityY = quantise(entity.getVelocityY(), velocityResolution);
+		SentState state = sentStates.get(entity.getId());
+		int result = 1;
+
+		if (state == null || keyframe){
+			if (state == null){
+				state = new SentState();
+				sentStates.put(entity.getId(), state);
+			}
+			putVarLong(buffer, entity.getId());
+			buffer.put((byte)(NEW | POSITION | VELOCITY)).put(kind);
+			putVarLong(buffer, quantise(entity.getRadius(), positionResolution));
+			putVarLong(buffer, x);
+			putVarLong(buffer, y);
+			putVarLong(buffer, velocityX);
+			putVarLong(buffer, velocityY);
+		}
+		else {
+			boolean moved = x != state.x || y != state.y;
+			boolean accelerated = velocityX != state.velocityX || velocityY != state.velocityY;
+			if (moved || accelerated){
+				putVarLong(buffer, entity.getId());
+				buffer.put((byte)((moved ? POSITION : 0) | (accelerated ? VELOCITY : 0)));
+				if (moved){
+					putVarLong(buffer, x-state.x);
+					putVarLong(buffer, y-state.y);
+				}
+				if (accelerated){
+					putVarLong(buffer, velocityX-state.velocityX);
+					putVarLong(buffer, velocityY-state.velocityY);
+				}
+			}
+			else
+				result = 0;
+		}
+		state.x = x;
+		state.y = y;
+		state.velocityX = velocityX;
+		state.velocityY = velocityY;
+		state.frame = frame;
+		return result;
+	}
+
+	/**
+	 * Make sure that the buffer of this stream can hold the given number of bytes.
+	 */
+	private void reserve(int nbBytes){
+		if (buffer.capacity() < nbBytes)
+			buffer = ByteBuffer.allocate(Math.max(nbBytes, 2*buffer.capacity()));
+	}
+
+	/**
+	 * Return the number of frames that were written by this stream.
+	 */
+	@Basic
+	public long getNbFrames(){
+		return this.nbFrames;
+	}
+
+	/**
+	 * Return the number of bytes that were written by this stream.
+	 */
+	@Basic
+	public long getNbBytesWritten(){
+		return this.nbBytesWritten;
+	}
+
+	/**
+	 * Variable registering the channel to which this stream writes.
+	 */
+	private final WritableByteChannel channel;
+
+	/**
+	 * Variable registering the buffer in which the frames of this stream are composed.
+	 */
+	private ByteBuffer buffer = ByteBuffer.allocate(1 << 12);
+
+	/**
+	 * A map registering the values that were last sent for every entity, by identifier.
+	 */
+	private final Map<Integer, SentState> sentStates = new HashMap<Integer, SentState>();
+
+	/**
+	 * Variables registering the number of frames and bytes that were written by this stream.
+	 */
+	private long nbFrames = 0, nbBytesWritten = 0;
+
+	/**
+	 * A class of the quantised values that were last sent for an entity, and the number of
+	 * the last frame in which the entity was part of the world.
+	 */
+	private static final class SentState {
+
+		/**
+		 * Variables registering the quantised position and velocity.
+		 */
+		private long x, y, velocityX, velocityY;
+
+		/**
+		 * Variable registering the number of the last frame of the entity.
+		 */
+		private long frame;
+	}
+
+
+	// Format
+	/**
+	 * Return the given value, quantised to a multiple of the given resolution.
+	 *
+	 * @return	| result == Math.round(value/resolution)
+	 */
+	static long quantise(double value, double resolution){
+		return Math.round(value/resolution);
+	}
+
+	/**
+	 * Write the given value to the given buffer as a variable-length integer, with the sign
+	 * in its least significant bit and seven bits per byte.
+	 */
+	static void putVarLong(ByteBuffer buffer, long value){
+		long bits = (value << 1) ^ (value >> 63);
+		while ((bits & ~0x7FL) != 0){
+			buffer.put((byte)((bits & 0x7F) | 0x80));
+			bits >>>= 7;
+		}
+		buffer.put((byte)bits);
+	}
+
+	/**
+	 * Return the variable-length integer at the position of the given buffer.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			If the integer is longer than a long.
+	 */
+	static long getVarLong(ByteBuffer buffer) throws IllegalArgumentException{
+		long bits = 0;
+		for (int shift = 0; shift < 64; shift += 7){
+			byte next = buffer.get();
+			bits |= (long)(next & 0x7F) << shift;
+			if (next >= 0)
+				return (bits >>> 1) ^ -(bits & 1);
+		}
+		throw new IllegalArgumentException("The variable-length integer is too long.");
+	}
+
+	/**
+	 * Return the maximal number of bytes of the header of a frame.
+	 *
+	 * @see implementation
+	 */
+	static int getMaxHeaderSize(){
+		return 4 + 1 + 8 + 8 + 2*8 + 4 + 4;
+	}
+
+	/**
+	 * Return the maximal number of bytes of the record of one entity.
+	 *
+	 * @see implementation
+	 */
+	static int getMaxRecordSize(){
+		return 10 + 1 + 1 + 5*10;
+	}
+
+	/**
+	 * Constants registering the types of frames.
+	 */
+	static final byte KEYFRAME = 1, DELTA = 2;
+
+	/**
+	 * Constants registering the flags of an entity record: whether the entity is sent with
+	 * its kind, radius and absolute values, and whether its position and velocity are sent.
+	 */
+	static final byte NEW = 1, POSITION = 2, VELOCITY = 4;
+
+	/**
+	 * Constants registering the kinds of entities in a stream.
+	 */
+	public static final byte SHIP = 1, BULLET = 2, ASTEROID = 3, PLANETOID = 4;
+}
@@ -0,0 +1,287 @@
+package asteroids.simulation;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import asteroids.model.Vector;
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * A class representing the view of a spectator on a world, decoded from the frames of a
+ * spectator stream.
+ *
+ * - A view ignores the delta frames it reads before its first keyframe, so it can start
+ *   reading a stream at any frame.
+ * - After every frame, the view holds the quantised state of every entity of the world at
+ *   the time of that frame.
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+public class SpectatorView {
+
+	/**
+	 * Read the next frame from the given channel and apply it to this view.
+	 *
+	 * @param channel
+	 * 			The channel from which the frame is read.
+	 * @return	False if the channel ended before the frame, true otherwise.
+	 * @effect	| apply(frame)
+	 * @throws	NullPointerException
+	 * 			| channel == null
+	 * @throws	EOFException
+	 * 			If the channel ends in the middle of a frame.
+	 * @throws	IOException
+	 * 			If the frame cannot be read from the channel.
+	 */
+	public boolean readFrame(ReadableByteChannel channel) throws NullPointerException, IllegalArgumentException, IOException{
+		if (channel == null)
+			throw new NullPointerException("The channel cannot be null.");
+		buffer.clear().limit(4);
+		if (!readFully(channel, true))
+			return false;
+		int length = buffer.getInt(0);
+		if (length < 0)
+			throw new IllegalArgumentException(length+" is not a valid length of a frame.");
+		if (buffer.capacity() < length)
+			buffer = ByteBuffer.allocate(Math.max(length, 2*buffer.capacity()));
+		buffer.clear().limit(length);
+		readFully(channel, false);
+		buffer.flip();
+		apply(buffer);
+		return true;
+	}
+
+	/**
+	 * Read bytes from the given channel until the buffer of this view is full.
+	 *
+	 * @return	False if the channel ended before the first byte and the given flag is true.
+	 * @throws	EOFException
+	 * 			If the channel ends after the first byte, or before it and the given flag is false.
+	 */
+	private boolean readFully(ReadableByteChannel channel, boolean mayEnd) throws IOException{
+		while (buffer.hasRemaining())
+			if (channel.read(buffer) < 0){
+				if (mayEnd && buffer.position() == 0)
+					return false;
+				throw new EOFException("The stream ends in the middle of a frame.");
+			}
+		return true;
+	}
+
+	/**
+	 * Apply the frame at the position of the given buffer, without its length, to this view.
+	 * The frame ends at the limit of the buffer.
+	 *
+	 * @param frame
+	 * 			The buffer that holds the frame.
+	 * @post	| new.getNbFrames() == getNbFrames()+1
+	 * @throws	IllegalArgumentException
+	 * 			If the buffer does not hold a valid frame.
+	 */
+	public void apply(ByteBuffer frame) throws IllegalArgumentException{
+		byte type = frame.get();
+		if (type != SpectatorStream.KEYFRAME && type != SpectatorStream.DELTA)
+			throw new IllegalArgumentException(type+" is not a valid type of frame.");
+		nbFrames++;
+		long number = frame.getLong();
+		double time = frame.getDouble();
+		if (type == SpectatorStream.KEYFRAME){
+			positionResolution = frame.getDouble();
+			velocityResolution = frame.getDouble();
+			entities.clear();
+			hasKeyframe = true;
+		}
+		else if (!hasKeyframe){
+			frame.position(frame.limit());
+			return;
+		}
+		this.frameNumber = number;
+		this.time = time;
+
+		int nbUpdates = frame.getInt(), nbRemovals = frame.getInt();
+		for (int i = 0; i < nbUpdates; i++){
+			int id = (int)SpectatorStream.getVarLong(frame);
+			byte flags = frame.get();
+			State state = entities.get(id);
+			if ((flags & SpectatorStream.NEW) != 0){
+				if (state == null){
+					state = new State();
+					entities.put(id, state);
+				}
+				state.kind = frame.get();
+				state.radius = SpectatorStream.getVarLong(frame);
+				state.x = state.y = state.velocityX = state.velocityY = 0;
+			}
+			else if (state == null)
+				throw new IllegalArgumentException("The frame changes an entity that is not in the view.");
+			if ((flags & SpectatorStream.POSITION) != 0){
+				state.x += SpectatorStream.getVarLong(frame);
+				state.y += SpectatorStream.getVarLong(frame);
+			}
+			if ((flags & SpectatorStream.VELOCITY) != 0){
+				state.velocityX += SpectatorStream.getVarLong(frame);
+				state.velocityY += SpectatorStream.getVarLong(frame);
+			}
+		}
+		for (int i = 0; i < nbRemovals; i++)
+			entities.remove((int)SpectatorStream.getVarLong(frame));
+	}
+
+	/**
+	 * Variable registering the buffer in which frames are read.
+	 */
+	private ByteBuffer buffer = ByteBuffer.allocate(1 << 12);
+
+
+	// State
+	/**
+	 * Check whether this view has read a keyframe.
+	 */
+	@Basic
+	public boolean hasKeyframe(){
+		return this.hasKeyframe;
+	}
+
+	/**
+	 * Return the number of frames that were applied to this view, including the frames that
+	 * were ignored before the first keyframe.
+	 */
+	@Basic
+	public long getNbFrames(){
+		return this.nbFrames;
+	}
+
+	/**
+	 * Return the number of the last frame that was applied to the state of this view, or -1.
+	 */
+	@Basic
+	public long getFrameNumber(){
+		return this.frameNumber;
+	}
+
+	/**
+	 * Return the time of the world in the last frame that was applied to the state of this view.
+	 */
+	@Basic
+	public double getTime(){
+		return this.time;
+	}
+
+	/**
+	 * Return the identifiers of the entities in this view.
+	 *
+	 * @return	A read-only view on the identifiers.
+	 */
+	public Set<Integer> getIds(){
+		return Collections.unmodifiableSet(entities.keySet());
+	}
+
+	/**
+	 * Return the kind of the entity with the given identifier in this view, as one of the
+	 * kinds of the spectator stream.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			| !getIds().contains(id)
+	 */
+	public byte getKind(int id) throws IllegalArgumentException{
+		return getState(id).kind;
+	}
+
+	/**
+	 * Return the radius of the entity with the given identifier in this view.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			| !getIds().contains(id)
+	 */
+	public double getRadius(int id) throws IllegalArgumentException{
+		return getState(id).radius*positionResolution;
+	}
+
+	/**
+	 * Return the position of the entity with the given identifier in this view.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			| !getIds().contains(id)
+	 */
+	public Vector getPosition(int id) throws IllegalArgumentException{
+		State state = getState(id);
+		return new Vector(state.x*positionResolution, state.y*positionResolution);
+	}
+
+	/**
+	 * Return the velocity of the entity with the given identifier in this view.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			| !getIds().contains(id)
+	 */
+	public Vector getVelocity(int id) throws IllegalArgumentException{
+		State state = getState(id);
+		return new Vector(state.velocityX*velocityResolution, state.velocityY*velocityResolution);
+	}
+
+	/**
+	 * Return the state of the entity with the given identifier.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			| !getIds().contains(id)
+	 */
+	private State getState(int id) throws IllegalArgumentException{
+		State state = entities.get(id);
+		if (state == null)
+			throw new IllegalArgumentException("There is no entity with identifier "+id+" in this view.");
+		return state;
+	}
+
+	/**
+	 * Variable registering whether this view has read a keyframe.
+	 */
+	private boolean hasKeyframe = false;
+
+	/**
+	 * Variables registering the number of applied frames and the number of the last frame.
+	 */
+	private long nbFrames = 0, frameNumber = -1;
+
+	/**
+	 * Variable registering the time of the last frame.
+	 */
+	private double time = 0;
+
+	/**
+	 * Variables registering the resolutions of the stream of the last keyframe.
+	 */
+	private double positionResolution, velocityResolution;
+
+	/**
+	 * A map registering the quantised state of the entities in this view, by identifier.
+	 */
+	private final Map<Integer, State> entities = new HashMap<Integer, State>();
+
+	/**
+	 * A class of the quantised state of an entity in a view.
+	 */
+	private static final class State {
+
+		/**
+		 * Variable registering the kind of the entity.
+		 */
+		private byte kind;
+
+		/**
+		 * Variables registering the quantised radius, position and velocity of the entity.
+		 */
+		private long radius, x, y, velocityX, velocityY;
+	}
+}
@@ -0,0 +1,103 @@
+package asteroids.simulation;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * An immutable class that contains the tick latencies of one world of a scheduler.
+ * All latencies are expressed in nanoseconds.
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+@Value
+public class TickLatencies {
+
+	/**
+	 * Initialize these new latencies with the given values.
+	 *
+	 * @param nbTicks
+	 * 			The number of ticks of the world.
+	 * @param p50
+	 * 			The median latency of the recent ticks.
+	 * @param p90
+	 * 			The 90th percentile of the latency of the recent ticks.
+	 * @param p99
+	 * 			The 99th percentile of the latency of the recent ticks.
+	 * @param max
+	 * 			The maximal latency of the recent ticks.
+	 * @post	| new.getNbTicks() == nbTicks
+	 * @post	| new.getP50() == p50 && new.getP90() == p90 && new.getP99() == p99
+	 * @post	| new.getMax() == max
+	 */
+	public TickLatencies(long nbTicks, long p50, long p90, long p99, long max){
+		this.nbTicks = nbTicks;
+		this.p50 = p50;
+		this.p90 = p90;
+		this.p99 = p99;
+		this.max = max;
+	}
+
+	/**
+	 * Return the number of ticks of the world.
+	 */
+	@Basic @Immutable
+	public long getNbTicks(){
+		return this.nbTicks;
+	}
+
+	/**
+	 * Return the median latency of the recent ticks.
+	 */
+	@Basic @Immutable
+	public long getP50(){
+		return this.p50;
+	}
+
+	/**
+	 * Return the 90th percentile of the latency of the recent ticks.
+	 */
+	@Basic @Immutable
+	public long getP90(){
+		return this.p90;
+	}
+
+	/**
+	 * Return the 99th percentile of the latency of the recent ticks.
+	 */
+	@Basic @Immutable
+	public long getP99(){
+		return this.p99;
+	}
+
+	/**
+	 * Return the maximal latency of the recent ticks.
+	 */
+	@Basic @Immutable
+	public long getMax(){
+		return this.max;
+	}
+
+	/**
+	 * Variable registering the number of ticks of the world.
+	 */
+	private final long nbTicks;
+
+	/**
+	 * Variables registering the percentiles and the maximum of the latency.
+	 */
+	private final long p50, p90, p99, max;
+
+	/**
+	 * Return a textual representation of these latencies.
+	 */
+	@Override
+	public String toString(){
+		return "TickLatencies [ticks=" + getNbTicks() + ", p50=" + getP50() + ", p90=" + getP90() +
+				", p99=" + getP99() + ", max=" + getMax() + "]";
+	}
+}
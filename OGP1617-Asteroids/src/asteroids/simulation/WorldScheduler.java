@@ -0,0 +1,397 @@
+package asteroids.simulation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import asteroids.model.World;
+import asteroids.part2.CollisionListener;
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ *  GitHub repository : https://github.com/BensonDH/Project16-17
+ */
+
+/**
+ * A class representing a scheduler that evolves many independent game worlds in parallel.
+ *
+ * - During a tick, every world of the scheduler is evolved with one fixed time step.
+ * - The worlds are split in one batch per worker of a fork-join pool. Every world is
+ *   evolved by exactly one thread during a tick, so worlds and their entities are never
+ *   used by two threads at the same time.
+ * - A collision listener is notified on the thread that evolves its world. A listener
+ *   that is registered for several worlds must be safe to use by several threads.
+ * - The latency of every tick of every world is recorded, and the percentiles of the
+ *   recent latencies can be queried per world.
+ * - A world whose evolution fails does not keep the other worlds from evolving. It is
+ *   removed from the scheduler after the tick, and its failure is registered.
+ *
+ * @invar	| SimulationRunner.isValidTimeStep(getTimeStep())
+ *
+ * @version	1.0
+ * @author 	De Heel Benson (burgerlijk ingenieur computerwetenschappen - elektrotechniek,
+ * 			De Jaegere Xander burgerlijk ingenieur computerwetenschappen - elektrotechniek)
+ */
+public class WorldScheduler {
+
+	/**
+	 * Initialize this new scheduler with the given time step and fork-join pool.
+	 *
+	 * @param timeStep
+	 * 			The time with which the worlds evolve during one tick, in seconds.
+	 * @param pool
+	 * 			The pool whose workers evolve the worlds.
+	 * @post	| new.getTimeStep() == timeStep
+	 * @post	| new.getParallelism() == pool.getParallelism()
+	 * @throws	IllegalArgumentException
+	 * 			| !SimulationRunner.isValidTimeStep(timeStep)
+	 * @throws	NullPointerException
+	 * 			| pool == null
+	 */
+	public WorldScheduler(double timeStep, ForkJoinPool pool) throws IllegalArgumentException, NullPointerException{
+		if (!SimulationRunner.isValidTimeStep(timeStep))
+			throw new IllegalArgumentException(timeStep+" is not a valid time step.");
+		if (pool == null)
+			throw new NullPointerException("The pool cannot be null.");
+		this.timeStep = timeStep;
+		this.pool = pool;
+		this.ownsPool = false;
+	}
+
+	/**
+	 * Initialize this new scheduler with the given time step and a new pool with one
+	 * worker per available processor.
+	 *
+	 * @param timeStep
+	 * 			The time with which the worlds evolve during one tick, in seconds.
+	 * @effect	| this(timeStep, new ForkJoinPool(Runtime.getRuntime().availableProcessors()))
+	 */
+	public WorldScheduler(double timeStep) throws IllegalArgumentException{
+		this(timeStep, new ForkJoinPool(Runtime.getRuntime().availableProcessors()));
+		this.ownsPool = true;
+	}
+
+
+	// Time step and pool
+	/**
+	 * Return the time with which the worlds evolve during one tick, in seconds.
+	 */
+	@Basic @Immutable
+	public double getTimeStep(){
+		return this.timeStep;
+	}
+
+	/**
+	 * Variable registering the time step of this scheduler.
+	 */
+	private final double timeStep;
+
+	/**
+	 * Return the number of workers that evolve the worlds of this scheduler.
+	 *
+	 * @see implementation
+	 */
+	public int getParallelism(){
+		return pool.getParallelism();
+	}
+
+	/**
+	 * Shut down the pool of this scheduler, if this scheduler created it.
+	 */
+	public void shutdown(){
+		if (ownsPool)
+			pool.shutdown();
+	}
+
+	/**
+	 * Variable registering the pool whose workers evolve the worlds.
+	 */
+	private final ForkJoinPool pool;
+
+	/**
+	 * Variable registering whether this scheduler created its pool.
+	 */
+	private boolean ownsPool;
+
+
+	// Relation Scheduler-World
+	/**
+	 * Add the given world to this scheduler, with the given collision listener.
+	 *
+	 * @param world
+	 * 			The world that has to be added.
+	 * @param collisionListener
+	 * 			The listener that is notified of the collisions in the given world,
+	 * 			null if no listener has to be notified.
+	 * @post	| new.hasAsWorld(world)
+	 * @throws	NullPointerException
+	 * 			| world == null
+	 * @throws	IllegalArgumentException
+	 * 			| world.isTerminated() || hasAsWorld(world)
+	 */
+	public void addWorld(World world, CollisionListener collisionListener)
+			throws NullPointerException, IllegalArgumentException{
+		if (world == null)
+			throw new NullPointerException("The world cannot be null.");
+		if (world.isTerminated() || hasAsWorld(world))
+			throw new IllegalArgumentException("This world cannot be added.");
+		ScheduledWorld scheduledWorld = new ScheduledWorld(world, collisionListener);
+		scheduledWorlds.add(scheduledWorld);
+		scheduledWorldsByWorld.put(world, scheduledWorld);
+		failures.remove(world);
+	}
+
+	/**
+	 * Add the given world to this scheduler, without a collision listener.
+	 *
+	 * @effect	| addWorld(world, null)
+	 */
+	public void addWorld(World world) throws NullPointerException, IllegalArgumentException{
+		addWorld(world, null);
+	}
+
+	/**
+	 * Remove the given world from this scheduler.
+	 *
+	 * @param world
+	 * 			The world that has to be removed.
+	 * @post	| !new.hasAsWorld(world)
+	 */
+	public void removeWorld(World world){
+		ScheduledWorld scheduledWorld = scheduledWorldsByWorld.remove(world);
+		if (scheduledWorld != null)
+			scheduledWorlds.remove(scheduledWorld);
+	}
+
+	/**
+	 * Check whether the given world is evolved by this scheduler.
+	 *
+	 * @see implementation
+	 */
+	@Basic
+	public boolean hasAsWorld(World world){
+		return scheduledWorldsByWorld.containsKey(world);
+	}
+
+	/**
+	 * Return the worlds that are evolved by this scheduler, in the order in which they were added.
+	 */
+	public List<World> getWorlds(){
+		List<World> result = new ArrayList<World>();
+		for (ScheduledWorld scheduledWorld: scheduledWorlds)
+			result.add(scheduledWorld.world);
+		return result;
+	}
+
+	/**
+	 * A list registering the worlds of this scheduler, with their listener and latencies.
+	 */
+	private final List<ScheduledWorld> scheduledWorlds = new ArrayList<ScheduledWorld>();
+
+	/**
+	 * A Map that contains the scheduled world of every world of this scheduler as value
+	 * and that world as the corresponding key.
+	 */
+	private final Map<World, ScheduledWorld> scheduledWorldsByWorld = new IdentityHashMap<World, ScheduledWorld>();
+
+
+	// Stepping
+	/**
+	 * Evolve every world of this scheduler with one time step, in parallel.
+	 * Worlds that have been terminated are removed from this scheduler.
+	 *
+	 * @effect	| for each world in getWorlds():
+	 * 			|	if (!world.isTerminated())
+	 * 			|		then world.evolve(getTimeStep(), listener of world)
+	 * @post	A world whose evolution or collision listener throws an exception or assertion
+	 * 			error is removed from this scheduler, and that failure is registered for it.
+	 * 			The other worlds are evolved as usual.
+	 * 			| for each world in getWorlds():
+	 * 			|	if (the evolution of world failed with failure)
+	 * 			|		then !new.hasAsWorld(world) && new.getFailures().get(world) == failure
+	 * @throws	IllegalStateException
+	 * 			| the pool of this scheduler has been shut down
+	 */
+	public void tick() throws IllegalStateException{
+		if (pool.isShutdown())
+			throw new IllegalStateException("The pool of this scheduler has been shut down.");
+		Iterator<ScheduledWorld> iterator = scheduledWorlds.iterator();
+		while (iterator.hasNext()){
+			ScheduledWorld scheduledWorld = iterator.next();
+			if (scheduledWorld.world.isTerminated()){
+				iterator.remove();
+				scheduledWorldsByWorld.remove(scheduledWorld.world);
+			}
+		}
+		if (scheduledWorlds.isEmpty())
+			return;
+
+		// One batch per worker; invoke only returns when all batches are done, which also
+		// makes the recorded latencies visible to this thread.
+		ScheduledWorld[] worlds = scheduledWorlds.toArray(new ScheduledWorld[0]);
+		int nbBatches = Math.min(getParallelism(), worlds.length);
+		pool.invoke(new TickTask(worlds, getTimeStep(), nbBatches));
+		for (ScheduledWorld scheduledWorld: worlds)
+			if (scheduledWorld.failure != null){
+				removeWorld(scheduledWorld.world);
+				failures.put(scheduledWorld.world, scheduledWorld.failure);
+			}
+		nbTicks++;
+	}
+
+	/**
+	 * Execute the given number of ticks.
+	 *
+	 * @param nbTicks
+	 * 			The number of ticks that have to be executed.
+	 * @effect	| for i in 1..nbTicks: tick()
+	 * @throws	IllegalArgumentException
+	 * 			| nbTicks < 0
+	 */
+	public void runTicks(int nbTicks) throws IllegalArgumentException, IllegalStateException{
+		if (nbTicks < 0)
+			throw new IllegalArgumentException("The number of ticks cannot be negative.");
+		for (int tick=0; tick < nbTicks; tick++)
+			tick();
+	}
+
+	/**
+	 * Return the number of ticks that this scheduler executed.
+	 */
+	@Basic
+	public long getNbTicks(){
+		return this.nbTicks;
+	}
+
+	/**
+	 * Variable registering the number of ticks of this scheduler.
+	 */
+	private long nbTicks = 0;
+
+	/**
+	 * Return the failures of the worlds that were removed from this scheduler because their
+	 * evolution failed, in the order in which they failed.
+	 *
+	 * @return	A read-only map with the failure of every such world as value and that world
+	 * 			as the corresponding key. A world that is added again loses its failure.
+	 */
+	public Map<World, Throwable> getFailures(){
+		return Collections.unmodifiableMap(failures);
+	}
+
+	/**
+	 * A Map that contains the failure of every world that failed as value and that world as
+	 * the corresponding key, in the order in which the worlds failed.
+	 */
+	private final Map<World, Throwable> failures = new LinkedHashMap<World, Throwable>();
+
+
+	// Latencies
+	/**
+	 * Return the latencies of the recent ticks of the given world.
+	 *
+	 * @param world
+	 * 			The world whose latencies have to be returned.
+	 * @throws	IllegalArgumentException
+	 * 			| !hasAsWorld(world)
+	 */
+	public TickLatencies getTickLatencies(World world) throws IllegalArgumentException{
+		ScheduledWorld scheduledWorld = scheduledWorldsByWorld.get(world);
+		if (scheduledWorld == null)
+			throw new IllegalArgumentException("The given world is not scheduled.");
+		return scheduledWorld.latencies.getLatencies();
+	}
+
+	/**
+	 * Return the number of recent ticks of which the latencies are kept per world.
+	 *
+	 * @see implementation
+	 */
+	@Immutable
+	public static int getLatencyWindow(){
+		return 1024;
+	}
+
+
+	/**
+	 * A class representing a world of a scheduler, with its listener and latencies.
+	 */
+	private static class ScheduledWorld {
+
+		private ScheduledWorld(World world, CollisionListener collisionListener){
+			this.world = world;
+			this.collisionListener = collisionListener;
+		}
+
+		/**
+		 * Evolve the world with the given time step and record the latency, or register the
+		 * failure of the evolution.
+		 */
+		private void tick(double timeStep){
+			long start = System.nanoTime();
+			try {
+				world.evolve(timeStep, collisionListener);
+			} catch (RuntimeException | AssertionError exc){
+				// The other worlds of the batch still have to be evolved.
+				this.failure = exc;
+				return;
+			}
+			latencies.record(System.nanoTime()-start);
+		}
+
+		private final World world;
+
+		private final CollisionListener collisionListener;
+
+		private final LatencyRecorder latencies = new LatencyRecorder(getLatencyWindow());
+
+		private Throwable failure = null;
+	}
+
+
+	/**
+	 * A class representing the task that evolves a range of worlds. A task with more than
+	 * one batch splits itself in two halves.
+	 */
+	private static class TickTask extends RecursiveAction {
+
+		private TickTask(ScheduledWorld[] worlds, double timeStep, int nbBatches){
+			this(worlds, timeStep, 0, worlds.length, nbBatches);
+		}
+
+		private TickTask(ScheduledWorld[] worlds, double timeStep, int from, int to, int nbBatches){
+			this.worlds = worlds;
+			this.timeStep = timeStep;
+			this.from = from;
+			this.to = to;
+			this.nbBatches = nbBatches;
+		}
+
+		@Override
+		protected void compute(){
+			if (nbBatches <= 1){
+				for (int index=from; index < to; index++)
+					worlds[index].tick(timeStep);
+				return;
+			}
+			int firstBatches = nbBatches/2;
+			int middle = from+(int)((long)(to-from)*firstBatches/nbBatches);
+			invokeAll(new TickTask(worlds, timeStep, from, middle, firstBatches),
+					new TickTask(worlds, timeStep, middle, to, nbBatches-firstBatches));
+		}
+
+		private static final long serialVersionUID = 1L;
+
+		private final ScheduledWorld[] worlds;
+
+		private final double timeStep;
+
+		private final int from, to, nbBatches;
+	}
+}
@@ -0,0 +1,118 @@
+package asteroids.tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.*;
+
+import asteroids.model.Bullet;
+import asteroids.model.World;
+import asteroids.part2.CollisionListener;
+import asteroids.simulation.CollisionEventRing;
+
+
+public class CollisionEventRingTests {
+	private static final double EPSILON = 0.0001;
+
+
+	/**
+	 * A listener that records the collisions it receives.
+	 */
+	private static class RecordingListener implements CollisionListener {
+		final List<Object> entities = new ArrayList<Object>();
+		final List<Double> positionsX = new ArrayList<Double>();
+
+		@Override
+		public void boundaryCollision(Object entity, double x, double y){
+			entities.add(entity);
+			positionsX.add(x);
+		}
+
+		@Override
+		public void objectCollision(Object entity1, Object entity2, double x, double y){
+			entities.add(entity1);
+			entities.add(entity2);
+			positionsX.add(x);
+		}
+	}
+
+	CollisionEventRing ring;
+	@Before
+	public void SetUp(){
+		ring = new CollisionEventRing(4);
+	}
+
+	@Test
+	public void drainInPublishOrderTest(){
+		CollisionEventRing.Subscription subscription = ring.subscribe();
+		Object first = new Object(), second = new Object();
+		ring.boundaryCollision(first, 1, 2);
+		ring.objectCollision(first, second, 3, 4);
+
+		RecordingListener listener = new RecordingListener();
+		assertEquals(2, subscription.getNbPending());
+		assertEquals(2, subscription.drain(listener));
+		assertEquals(0, subscription.getNbPending());
+		assertEquals(3, listener.entities.size());
+		assertSame(second, listener.entities.get(2));
+		assertEquals(1, listener.positionsX.get(0), EPSILON);
+		assertEquals(3, listener.positionsX.get(1), EPSILON);
+		assertEquals(0, subscription.drain(listener));
+	}
+
+	@Test
+	public void dropWhenFullTest(){
+		CollisionEventRing.Subscription slow = ring.subscribe();
+		CollisionEventRing.Subscription fast = ring.subscribe();
+		for (int i=0; i < 6; i++){
+			ring.boundaryCollision(i, i, 0);
+			fast.drain(new RecordingListener());
+		}
+		// The slow subscription holds back the ring after 4 collisions.
+		assertEquals(4, ring.getNbPublished());
+		assertEquals(2, ring.getNbDropped());
+
+		RecordingListener listener = new RecordingListener();
+		assertEquals(4, slow.drain(listener));
+		assertEquals(3, listener.entities.get(3));
+
+		// Without the slow subscription, nothing is dropped any more.
+		ring.unsubscribe(slow);
+		for (int i=0; i < 8; i++){
+			ring.boundaryCollision(i, i, 0);
+			fast.drain(new RecordingListener());
+		}
+		assertEquals(2, ring.getNbDropped());
+	}
+
+	@Test
+	public void ringAsWorldListenerTest() throws InterruptedException{
+		CollisionEventRing worldRing = new CollisionEventRing();
+		CollisionEventRing.Subscription subscription = worldRing.subscribe();
+		World world = new World(150, 150);
+		Bullet bullet = new Bullet(11, 50, -5, 1, 1);
+		world.addEntity(bullet);
+
+		// The collision is drained by another thread than the one that evolves the world.
+		RecordingListener listener = new RecordingListener();
+		Thread consumer = new Thread(() -> {
+			long end = System.nanoTime() + 10000000000L;
+			while (listener.entities.isEmpty() && System.nanoTime() < end)
+				subscription.drain(listener);
+		});
+		consumer.setDaemon(true);
+		consumer.start();
+		world.evolve(3, worldRing);
+		consumer.join();
+		assertEquals(1, worldRing.getNbPublished());
+		assertEquals(1, listener.entities.size());
+		assertSame(bullet, listener.entities.get(0));
+	}
+
+	@Test (expected=IllegalArgumentException.class)
+	public void invalidCapacity(){
+		new CollisionEventRing(3);
+	}
+}
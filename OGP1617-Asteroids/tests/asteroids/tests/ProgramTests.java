@@ -0,0 +1,227 @@
+package asteroids.tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.*;
+
+import asteroids.model.Program;
+import asteroids.model.Ship;
+import asteroids.model.World;
+import asteroids.model.programs.CompilationMode;
+import asteroids.model.programs.ProgramFactory;
+import asteroids.part3.programs.internal.ProgramParser;
+
+
+public class ProgramTests {
+	private static final double EPSILON = 0.0001;
+
+
+	ProgramFactory factory;
+	World world;
+	Ship ship;
+	@Before
+	public void SetUp(){
+		factory = new ProgramFactory();
+		world = new World(1000, 1000);
+		ship = new Ship(100, 100, 0, 0, 20, 0);
+		world.addEntity(ship);
+	}
+
+	private Program load(String code){
+		Program program = ProgramParser.parseProgramFromString(code, factory);
+		ship.loadProgram(program);
+		return program;
+	}
+
+	// -*-*- Load tests -*-*-
+	@Test
+	public void loadProgramTest(){
+		Program program = load("print 1.0;");
+		assertEquals(program, ship.getProgram());
+		assertEquals(ship, program.getShip());
+
+		// Loading the program on another ship unloads it from this one.
+		Ship other = new Ship(300, 300, 0, 0, 20, 0);
+		other.loadProgram(program);
+		assertNull(ship.getProgram());
+		assertEquals(other, program.getShip());
+	}
+
+	@Test (expected = IllegalStateException.class)
+	public void executeWithoutProgramTest(){
+		ship.executeProgram(1.0);
+	}
+
+	// -*-*- Execution tests -*-*-
+	@Test
+	public void variablesTest(){
+		load("def f { a := $1 + 1.0; return a; } a := 5.0; b := f(a); print a; print b;");
+		List<Object> results = ship.executeProgram(0);
+		assertArrayEquals(new Object[] { 5.0, 6.0 }, results.toArray());
+	}
+
+	@Test
+	public void recursiveFunctionTest(){
+		load("def fib { if $1 < 1.5 { return $1; } return fib($1 + -1.0) + fib($1 + -2.0); } print fib(10.0);");
+		List<Object> results = ship.executeProgram(0);
+		assertArrayEquals(new Object[] { 55.0 }, results.toArray());
+	}
+
+	@Test
+	public void suspendAndResumeTest(){
+		load("a := 0.0; while a < 3.0 { print a; turn 0.5; a := a + 1.0; } print 9.0;");
+		assertNull(ship.executeProgram(0.3));
+		assertEquals(0.5, ship.getAngle(), EPSILON);
+		assertNull(ship.executeProgram(0.3));
+		assertEquals(1.0, ship.getAngle(), EPSILON);
+		List<Object> results = ship.executeProgram(0.3);
+		assertEquals(1.5, ship.getAngle(), EPSILON);
+		assertArrayEquals(new Object[] { 0.0, 1.0, 2.0, 9.0 }, results.toArray());
+		assertTrue(ship.getProgram().isFinished());
+	}
+
+	@Test
+	public void breakInFunctionTest(){
+		load("def stop { break; } a := 0.0; while a < 10.0 { skip; if 2.5 < a { b := stop(); } a := a + 1.0; } print a;");
+		List<Object> results = ship.executeProgram(10.0);
+		assertArrayEquals(new Object[] { 3.0 }, results.toArray());
+	}
+
+	@Test
+	public void resumeInBranchesTest(){
+		load("a := 0.0; while a < 5.0 { if a < 2.0 { skip; } else { turn 0.1; if 3.5 < a { break; } } a := a + 1.0; } print a;");
+		List<Object> results = null;
+		int nbCalls = 0;
+		while (results == null && nbCalls < 100){
+			results = ship.executeProgram(0.1);
+			nbCalls++;
+		}
+		assertNotNull(results);
+		assertArrayEquals(new Object[] { 4.0 }, results.toArray());
+		assertEquals(0.3, ship.getAngle(), EPSILON);
+	}
+
+	@Test
+	public void resumeAndBreakInFunctionTest(){
+		load("def stop { break; } a := 0.0; while a < 10.0 { skip; if 2.5 < a { b := stop(); } a := a + 1.0; } print a;");
+		for (int call=0; call < 3; call++)
+			assertNull(ship.executeProgram(0.2));
+		List<Object> results = ship.executeProgram(0.2);
+		assertArrayEquals(new Object[] { 3.0 }, results.toArray());
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void improperTypeTest(){
+		load("a := 1.0; a := self;");
+		ship.executeProgram(1.0);
+	}
+
+	@Test (expected = IllegalStateException.class)
+	public void undefinedVariableTest(){
+		load("print b;");
+		ship.executeProgram(1.0);
+	}
+
+	@Test (expected = IllegalStateException.class)
+	public void actionInFunctionTest(){
+		load("def f { fire; return 1.0; } print f();");
+		ship.executeProgram(1.0);
+	}
+
+	// -*-*- Compilation mode tests -*-*-
+	@Test
+	public void methodHandleModeTest(){
+		String code = "def fib { if $1 < 1.5 { return $1; } return fib($1 + -1.0) + fib($1 + -2.0); } "
+				+ "a := 0.0; s := 0.0; while a < 4.0 { b := 0.0; while 0.0 < 1.0 { if ! (b < a) { break; } "
+				+ "s := s + b * a; b := b + 1.0; } a := a + 1.0; } "
+				+ "print fib(10.0); print s; print getx self == 100.0; print sqrt 16.0; print - getradius self;";
+		load(code);
+		List<Object> expected = ship.executeProgram(0);
+		factory = new ProgramFactory(CompilationMode.METHOD_HANDLES);
+		assertEquals(CompilationMode.METHOD_HANDLES, factory.getCompilationMode());
+		load(code);
+		List<Object> results = ship.executeProgram(0);
+		assertEquals(expected, results);
+		assertEquals(55.0, results.get(0));
+		assertEquals(true, results.get(2));
+	}
+
+	@Test
+	public void methodHandleModeSuspendTest(){
+		factory = new ProgramFactory(CompilationMode.METHOD_HANDLES);
+		load("a := 0.0; while a < 3.0 { print a; turn 0.5; a := a + 1.0; } print 9.0;");
+		assertNull(ship.executeProgram(0.3));
+		assertNull(ship.executeProgram(0.3));
+		List<Object> results = ship.executeProgram(0.3);
+		assertEquals(1.5, ship.getAngle(), EPSILON);
+		assertArrayEquals(new Object[] { 0.0, 1.0, 2.0, 9.0 }, results.toArray());
+	}
+
+	@Test (expected = NullPointerException.class)
+	public void nullCompilationModeTest(){
+		new ProgramFactory(null);
+	}
+
+	// -*-*- Batch execution tests -*-*-
+	private Ship addShipWithProgram(double x, double y, String code){
+		Ship other = new Ship(x, y, 0, 0, 10, 0);
+		world.addEntity(other);
+		other.loadProgram(ProgramParser.parseProgramFromString(code, factory));
+		return other;
+	}
+
+	@Test
+	public void executeAllProgramsTest(){
+		load("turn 0.5; print getdir;");
+		Ship second = addShipWithProgram(300, 300, "turn 0.25; turn 0.25; turn 0.25; print 1.0;");
+		Ship third = new Ship(500, 500, 0, 0, 10, 0);
+		world.addEntity(third);
+		Map<Ship, List<Object>> results = world.executeAllPrograms(0.5);
+
+		// Programs see the world as it was before the execution, and ships without a program are skipped.
+		assertArrayEquals(new Object[] { ship, second }, results.keySet().toArray());
+		assertArrayEquals(new Object[] { 0.0 }, results.get(ship).toArray());
+		assertNull(results.get(second));
+		assertEquals(0.5, ship.getAngle(), EPSILON);
+		assertEquals(0.5, second.getAngle(), EPSILON);
+		assertEquals(0.0, third.getAngle(), EPSILON);
+
+		results = world.executeAllPrograms(0.5);
+		assertArrayEquals(new Object[] { 1.0 }, results.get(second).toArray());
+		assertEquals(0.75, second.getAngle(), EPSILON);
+	}
+
+	@Test
+	public void executeAllProgramsInChunksTest(){
+		List<Ship> ships = new ArrayList<Ship>();
+		for (int row=0; row < 15; row++)
+			for (int column=0; column < 15; column++)
+				if (row > 0 || column > 0)
+					ships.add(addShipWithProgram(30+60*column, 300+40*row, "a := getx self; turn 0.1; turn 0.1; print a;"));
+		assertTrue(ships.size() > World.getProgramChunkSize());
+		Map<Ship, List<Object>> results = world.executeAllPrograms(0.4);
+		assertEquals(ships.size(), results.size());
+		for (Ship other: ships){
+			assertArrayEquals(new Object[] { other.getPositionX() }, results.get(other).toArray());
+			assertEquals(0.2, other.getAngle(), EPSILON);
+		}
+	}
+
+	@Test
+	public void executeAllProgramsFailureTest(){
+		load("print b;");
+		Ship second = addShipWithProgram(300, 300, "turn 0.5;");
+		try {
+			world.executeAllPrograms(1.0);
+			fail();
+		} catch (IllegalStateException exc){
+			// The programs of the other ships are still executed.
+			assertEquals(0.5, second.getAngle(), EPSILON);
+			assertTrue(second.getProgram().isFinished());
+		}
+	}
+}
@@ -0,0 +1,132 @@
+package asteroids.tests;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.*;
+
+import asteroids.model.Bullet;
+import asteroids.model.Ship;
+import asteroids.model.World;
+import asteroids.model.WorldSnapshot;
+import asteroids.simulation.ReplayRecorder;
+import asteroids.simulation.ReplayResult;
+import asteroids.simulation.Replayer;
+
+
+public class ReplayTests {
+
+
+	World world;
+	Ship ship;
+	Path path;
+	@Before
+	public void SetUp() throws IOException{
+		world = new World(600, 600);
+		ship = new Ship(100, 100, 20, 10, 15, 0, 1E22, false, 300);
+		world.addEntity(ship);
+		world.addEntity(new Ship(400, 120, -30, 5, 25, 0));
+		world.addEntity(new Bullet(300, 400, 40, -25, 3));
+		path = Files.createTempFile("replay", ".log");
+	}
+
+	@After
+	public void TearDown() throws IOException{
+		Files.deleteIfExists(path);
+	}
+
+	@Test
+	public void replayReproducesMatchTest() throws IOException{
+		try (ReplayRecorder recorder = new ReplayRecorder(world, path)){
+			for (int step=0; step < 60; step++){
+				if (step == 10)
+					recorder.setThrust(ship, true);
+				if (step == 20)
+					recorder.turn(ship, 0.5);
+				if (step == 30)
+					recorder.setThrust(ship, false);
+				recorder.evolve(0.25, null);
+			}
+			assertEquals(60, recorder.getNbSteps());
+		}
+
+		ReplayResult result = Replayer.replay(path);
+		assertEquals(60, result.getNbSteps());
+		assertEquals(-1, result.getFirstDivergentStep());
+		assertTrue(result.isFinalSnapshotEqual());
+		assertTrue(result.isIdentical());
+		assertTrue(Arrays.equals(WorldSnapshot.toByteArray(world), WorldSnapshot.toByteArray(result.getWorld())));
+	}
+
+	@Test
+	public void replayReportsFirstDivergentStepTest() throws IOException{
+		int headerSize = 4+2+4+WorldSnapshot.toByteArray(world).length;
+		try (ReplayRecorder recorder = new ReplayRecorder(world, path)){
+			for (int step=0; step < 5; step++)
+				recorder.evolve(0.5, null);
+		}
+
+		// Change the digest of the third step, each step is logged in 17 bytes.
+		byte[] log = Files.readAllBytes(path);
+		log[headerSize+2*17+9]++;
+		Files.write(path, log);
+
+		ReplayResult result = Replayer.replay(path);
+		assertEquals(3, result.getFirstDivergentStep());
+		assertEquals(3, result.getNbSteps());
+		assertFalse(result.isIdentical());
+	}
+
+	@Test
+	public void replayReportsChangedAngleTest() throws IOException{
+		int headerSize = 4+2+4+WorldSnapshot.toByteArray(world).length;
+		try (ReplayRecorder recorder = new ReplayRecorder(world, path)){
+			recorder.evolve(0.5, null);
+			recorder.turn(ship, 0.5);
+			for (int step=0; step < 3; step++)
+				recorder.evolve(0.5, null);
+		}
+
+		// Change the angle of the turn, which only changes the angle of the ship.
+		byte[] log = Files.readAllBytes(path);
+		log[headerSize+17+1+4+7]++;
+		Files.write(path, log);
+
+		ReplayResult result = Replayer.replay(path);
+		assertEquals(2, result.getFirstDivergentStep());
+		assertEquals(2, result.getNbSteps());
+		assertFalse(result.isIdentical());
+	}
+
+	@Test
+	public void replayUnclosedLogTest() throws IOException{
+		ReplayRecorder recorder = new ReplayRecorder(world, path);
+		for (int step=0; step < 4; step++)
+			recorder.evolve(0.5, null);
+
+		ReplayResult result = Replayer.replay(path);
+		assertEquals(4, result.getNbSteps());
+		assertEquals(-1, result.getFirstDivergentStep());
+		assertFalse(result.isFinalSnapshotEqual());
+		recorder.close();
+		assertTrue(recorder.isClosed());
+	}
+
+	@Test (expected=IllegalArgumentException.class)
+	public void recordShipOfOtherWorld() throws IOException{
+		try (ReplayRecorder recorder = new ReplayRecorder(world, path)){
+			recorder.setThrust(new Ship(), true);
+		}
+	}
+
+	@Test (expected=IllegalStateException.class)
+	public void evolveClosedRecorder() throws IOException{
+		ReplayRecorder recorder = new ReplayRecorder(world, path);
+		recorder.close();
+		recorder.evolve(1, null);
+	}
+}
@@ -0,0 +1,90 @@
+package asteroids.tests;
+
+import static org.junit.Assert.*;
+
+import org.junit.*;
+
+import asteroids.model.Bullet;
+import asteroids.model.World;
+import asteroids.simulation.SimulationRunner;
+
+
+public class SimulationRunnerTests {
+	private static final double EPSILON = 0.0001;
+	
+	
+	SimulationRunner runner;
+	World world;
+	Bullet bullet;
+	@Before
+	public void SetUp(){
+		runner = new SimulationRunner(0.25, 4);
+		world = new World(1000, 1000);
+		bullet = new Bullet(100, 100, 10, 0, 1);
+		world.addEntity(bullet);
+		runner.addWorld(world);
+	}
+	
+	// -*-*- Constructor tests -*-*-
+	@Test
+	public void validConstructorTest(){
+		assertEquals(0.25, runner.getTimeStep(), EPSILON);
+		assertEquals(4, runner.getMaxTicksPerAdvance());
+		assertTrue(runner.hasAsWorld(world));
+	}
+	
+	@Test (expected = IllegalArgumentException.class)
+	public void invalidTimeStepTest(){
+		new SimulationRunner(0);
+	}
+	
+	// -*-*- advance tests -*-*-
+	@Test
+	public void advanceWithAccumulatorTest(){
+		// Less than one time step: nothing happens yet.
+		assertEquals(0, runner.advance(0.125));
+		assertEquals(100, bullet.getPosition().getX(), EPSILON);
+		
+		// The accumulated time completes two time steps.
+		assertEquals(2, runner.advance(0.5));
+		assertEquals(105, bullet.getPosition().getX(), EPSILON);
+		assertEquals(0.125, runner.getAccumulatedTime(), EPSILON);
+		assertEquals(0.5, world.getTime(), EPSILON);
+		assertEquals(2, runner.getMetrics().getNbTicks());
+		assertEquals(1, runner.getMetrics().getNbCatchUpTicks());
+	}
+	
+	@Test
+	public void advanceDropsTimeTest(){
+		// Six time steps pass, but only four ticks are allowed.
+		assertEquals(4, runner.advance(1.5));
+		assertEquals(1, world.getTime(), EPSILON);
+		assertEquals(0.5, runner.getMetrics().getDroppedTime(), EPSILON);
+		assertTrue(runner.getAccumulatedTime() < runner.getTimeStep());
+	}
+	
+	@Test
+	public void runTicksTest(){
+		World otherWorld = new World(1000, 1000);
+		runner.addWorld(otherWorld);
+		runner.runTicks(8);
+		
+		assertEquals(2, world.getTime(), EPSILON);
+		assertEquals(2, otherWorld.getTime(), EPSILON);
+		assertEquals(120, bullet.getPosition().getX(), EPSILON);
+		
+		// Terminated worlds are no longer evolved.
+		otherWorld.destroy();
+		runner.runTicks(1);
+		assertFalse(runner.hasAsWorld(otherWorld));
+		assertEquals(9, runner.getMetrics().getNbTicks());
+		
+		runner.resetMetrics();
+		assertEquals(0, runner.getMetrics().getNbTicks());
+	}
+	
+	@Test (expected = IllegalArgumentException.class)
+	public void advanceInvalidTimeTest(){
+		runner.advance(-1);
+	}
+}
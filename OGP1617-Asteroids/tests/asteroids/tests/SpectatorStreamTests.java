@@ -0,0 +1,121 @@
+package asteroids.tests;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+import org.junit.*;
+
+import asteroids.model.Bullet;
+import asteroids.model.Entity;
+import asteroids.model.Ship;
+import asteroids.model.World;
+import asteroids.simulation.SpectatorStream;
+import asteroids.simulation.SpectatorView;
+
+
+public class SpectatorStreamTests {
+	private static final double RESOLUTION = 1.0/16;
+
+
+	World world;
+	Ship ship;
+	Bullet bullet;
+	ByteArrayOutputStream output;
+	SpectatorStream stream;
+	@Before
+	public void SetUp(){
+		world = new World(500, 500);
+		ship = new Ship(100, 100, 0, 0, 15, 0);
+		bullet = new Bullet(300, 200, -20, 30, 3);
+		world.addEntity(ship);
+		world.addEntity(new Ship(400, 300, -10, 5, 20, 0));
+		world.addEntity(bullet);
+		output = new ByteArrayOutputStream();
+		stream = new SpectatorStream(Channels.newChannel(output), RESOLUTION, RESOLUTION, 10);
+	}
+
+	private ReadableByteChannel loopback(){
+		return Channels.newChannel(new ByteArrayInputStream(output.toByteArray()));
+	}
+
+	private void assertViewMatches(SpectatorView view){
+		assertEquals(world.queryEntities().size(), view.getIds().size());
+		for (Entity entity: world.queryEntities()){
+			assertEquals(entity.getPosition().getX(), view.getPosition(entity.getId()).getX(), RESOLUTION/2);
+			assertEquals(entity.getPosition().getY(), view.getPosition(entity.getId()).getY(), RESOLUTION/2);
+			assertEquals(entity.getVelocity().getX(), view.getVelocity(entity.getId()).getX(), RESOLUTION/2);
+			assertEquals(entity.getRadius(), view.getRadius(entity.getId()), RESOLUTION/2);
+		}
+	}
+
+	@Test
+	public void loopbackTest() throws IOException{
+		for (int tick=0; tick < 25; tick++){
+			world.evolve(0.1, null);
+			if (tick == 12)
+				bullet.die();
+			stream.writeFrame(world);
+		}
+		assertEquals(25, stream.getNbFrames());
+
+		SpectatorView view = new SpectatorView();
+		ReadableByteChannel channel = loopback();
+		while (view.readFrame(channel)){
+			if (view.getFrameNumber() == 5)
+				assertEquals(SpectatorStream.BULLET, view.getKind(2));
+		}
+		assertEquals(25, view.getNbFrames());
+		assertEquals(world.getTime(), view.getTime(), 1E-9);
+		assertFalse(view.getIds().contains(2));
+		assertViewMatches(view);
+	}
+
+	@Test
+	public void unchangedEntitiesAreNotSentTest() throws IOException{
+		World staticWorld = new World(500, 500);
+		staticWorld.addEntity(new Ship(100, 100, 0, 0, 15, 0));
+		staticWorld.addEntity(new Ship(300, 300, 0, 0, 15, 0));
+		stream.writeFrame(staticWorld);
+		long keyframeSize = stream.getNbBytesWritten();
+		stream.writeFrame(staticWorld);
+		long deltaSize = stream.getNbBytesWritten()-keyframeSize;
+		assertTrue(deltaSize < keyframeSize);
+
+		// A delta frame of a world in which nothing moves only holds its header.
+		stream.writeFrame(staticWorld);
+		assertEquals(deltaSize, stream.getNbBytesWritten()-keyframeSize-deltaSize);
+	}
+
+	@Test
+	public void lateSpectatorWaitsForKeyframeTest() throws IOException{
+		for (int tick=0; tick < 15; tick++){
+			world.evolve(0.1, null);
+			stream.writeFrame(world);
+		}
+		// Skip the first frames, until the second keyframe the view has no state.
+		ReadableByteChannel channel = loopback();
+		SpectatorView skipped = new SpectatorView();
+		for (int frame=0; frame < 3; frame++)
+			skipped.readFrame(channel);
+
+		SpectatorView view = new SpectatorView();
+		view.readFrame(channel);
+		assertFalse(view.hasKeyframe());
+		assertTrue(view.getIds().isEmpty());
+		while (view.readFrame(channel))
+			;
+		assertTrue(view.hasKeyframe());
+		assertEquals(14, view.getFrameNumber());
+		assertViewMatches(view);
+	}
+
+	@Test (expected=IllegalArgumentException.class)
+	public void invalidResolution(){
+		new SpectatorStream(Channels.newChannel(output), 0, 1, 10);
+	}
+}
@@ -1,6 +1,9 @@
 package asteroids.tests;
 
 import static org.junit.Assert.*;
+
+import java.util.Objects;
+
 import org.junit.*;
 import asteroids.model.Vector;
 
@@ -67,4 +70,17 @@ public class VectorTests {
 		assertFalse(vector2.equals(vector3));
 		
 	}
+	
+	@Test
+	public void squaredNorm(){
+		assertEquals(25, vector1.squaredNorm(), EPSILON);
+		assertEquals(5, vector2.squaredNorm(), EPSILON);
+	}
+	
+	@Test
+	public void hashCodeTest(){
+		assertEquals(new Vector(3, 4).hashCode(), vector1.hashCode());
+		assertEquals(Objects.hash(3.0, 4.0), vector1.hashCode());
+		assertEquals(Objects.hash(-0.5, 1e300), new Vector(-0.5, 1e300).hashCode());
+	}
 }
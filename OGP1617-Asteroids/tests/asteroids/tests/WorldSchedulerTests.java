@@ -0,0 +1,152 @@
+package asteroids.tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.*;
+
+import asteroids.model.Bullet;
+import asteroids.model.Entity;
+import asteroids.model.Ship;
+import asteroids.model.World;
+import asteroids.part2.CollisionListener;
+import asteroids.simulation.TickLatencies;
+import asteroids.simulation.WorldScheduler;
+
+
+public class WorldSchedulerTests {
+	private static final double EPSILON = 0.0001;
+	
+	
+	WorldScheduler scheduler;
+	@Before
+	public void SetUp(){
+		scheduler = new WorldScheduler(1.0/32, new ForkJoinPool(4));
+	}
+	
+	@After
+	public void TearDown(){
+		scheduler.shutdown();
+	}
+	
+	private static List<Entity> fillWorld(World world, long seed){
+		Random random = new Random(seed);
+		List<Entity> entities = new ArrayList<Entity>();
+		while (entities.size() < 20){
+			Entity entity;
+			if (random.nextBoolean())
+				entity = new Ship(20+460*random.nextDouble(), 20+460*random.nextDouble(), 
+						100*random.nextDouble()-50, 100*random.nextDouble()-50, 10, 0);
+			else
+				entity = new Bullet(20+460*random.nextDouble(), 20+460*random.nextDouble(), 
+						100*random.nextDouble()-50, 100*random.nextDouble()-50, 3);
+			if (world.canHaveAsEntity(entity)){
+				world.addEntity(entity);
+				entities.add(entity);
+			}
+		}
+		return entities;
+	}
+	
+	@Test
+	public void parallelTicksMatchSequentialEvolutionTest(){
+		List<List<Entity>> scheduledEntities = new ArrayList<List<Entity>>();
+		List<List<Entity>> sequentialEntities = new ArrayList<List<Entity>>();
+		List<World> sequentialWorlds = new ArrayList<World>();
+		for (int index=0; index < 16; index++){
+			World scheduledWorld = new World(500, 500);
+			scheduledEntities.add(fillWorld(scheduledWorld, index));
+			scheduler.addWorld(scheduledWorld);
+			
+			World sequentialWorld = new World(500, 500);
+			sequentialEntities.add(fillWorld(sequentialWorld, index));
+			sequentialWorlds.add(sequentialWorld);
+		}
+		
+		scheduler.runTicks(64);
+		for (World world: sequentialWorlds)
+			for (int tick=0; tick < 64; tick++)
+				world.evolve(1.0/32, null);
+		
+		assertEquals(64, scheduler.getNbTicks());
+		for (int index=0; index < 16; index++){
+			World world = scheduler.getWorlds().get(index);
+			assertEquals(2, world.getTime(), EPSILON);
+			for (int entity=0; entity < 20; entity++){
+				assertEquals(sequentialEntities.get(index).get(entity).getPosition(), 
+						scheduledEntities.get(index).get(entity).getPosition());
+				assertEquals(sequentialEntities.get(index).get(entity).isDead(), 
+						scheduledEntities.get(index).get(entity).isDead());
+			}
+			TickLatencies latencies = scheduler.getTickLatencies(world);
+			assertEquals(64, latencies.getNbTicks());
+			assertTrue(latencies.getP50() <= latencies.getP90());
+			assertTrue(latencies.getP90() <= latencies.getP99());
+			assertTrue(latencies.getP99() <= latencies.getMax());
+		}
+	}
+	
+	@Test
+	public void terminatedWorldsAreRemovedTest(){
+		World world = new World(100, 100);
+		scheduler.addWorld(world);
+		world.destroy();
+		scheduler.tick();
+		assertFalse(scheduler.hasAsWorld(world));
+	}
+	
+	@Test (expected = IllegalArgumentException.class)
+	public void addWorldTwiceTest(){
+		World world = new World(100, 100);
+		scheduler.addWorld(world);
+		scheduler.addWorld(world);
+	}
+	
+	@Test (expected = IllegalArgumentException.class)
+	public void latenciesOfUnknownWorldTest(){
+		scheduler.getTickLatencies(new World());
+	}
+	
+	@Test
+	public void failingWorldDoesNotStopOtherWorldsTest(){
+		// A single worker evolves all worlds in one batch.
+		scheduler.shutdown();
+		scheduler = new WorldScheduler(1.0/32, new ForkJoinPool(1));
+		World failingWorld = new World(500, 500);
+		failingWorld.addEntity(new Bullet(20, 250, -100, 10, 3));
+		final RuntimeException failure = new IllegalStateException();
+		CollisionListener failingListener = new CollisionListener(){
+			@Override
+			public void boundaryCollision(Object entity, double x, double y){
+				throw failure;
+			}
+			
+			@Override
+			public void objectCollision(Object entity1, Object entity2, double x, double y){
+				throw failure;
+			}
+		};
+		List<World> worlds = new ArrayList<World>();
+		for (int index=0; index < 4; index++){
+			World world = new World(500, 500);
+			fillWorld(world, index);
+			worlds.add(world);
+			scheduler.addWorld(world);
+			if (index == 1)
+				scheduler.addWorld(failingWorld, failingListener);
+		}
+		
+		scheduler.runTicks(8);
+		assertEquals(8, scheduler.getNbTicks());
+		assertFalse(scheduler.hasAsWorld(failingWorld));
+		assertSame(failure, scheduler.getFailures().get(failingWorld));
+		assertEquals(worlds, scheduler.getWorlds());
+		for (World world: worlds)
+			assertEquals(0.25, world.getTime(), EPSILON);
+	}
+}
+
@@ -0,0 +1,112 @@
+package asteroids.tests;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.*;
+
+import asteroids.model.Bullet;
+import asteroids.model.Entity;
+import asteroids.model.Ship;
+import asteroids.model.World;
+import asteroids.model.WorldSnapshot;
+
+
+public class WorldSnapshotTests {
+	private static final double EPSILON = 0.0001;
+
+
+	World world;
+	Ship ship;
+	Bullet bullet;
+	@Before
+	public void SetUp(){
+		world = new World(500, 400);
+		world.setMaxCollisionsPerStep(50);
+		ship = new Ship(100, 100, 10, -5, 15, 1.5, 1E22, true, 200);
+		bullet = new Bullet(300, 200, -20, 30, 3);
+		world.addEntity(ship);
+		world.addEntity(new Ship(400, 300, -10, 0, 20, 0));
+		world.addEntity(bullet);
+		bullet.setNbTimesBounced(1);
+		bullet.setSourceShip(ship);
+		world.evolve(1.5, null);
+	}
+
+	// -*-*- Identifier tests -*-*-
+	@Test
+	public void entityIdTest(){
+		assertEquals(0, ship.getId());
+		assertEquals(2, bullet.getId());
+		assertSame(bullet, world.getEntity(2));
+		assertEquals(3, world.getNextEntityId());
+
+		// Identifiers are not reused after an entity is removed.
+		world.removeEntity(bullet);
+		assertEquals(-1, bullet.getId());
+		assertNull(world.getEntity(2));
+		world.addEntity(bullet);
+		assertEquals(3, bullet.getId());
+		assertEquals(4, world.getNextEntityId());
+	}
+
+	// -*-*- Snapshot tests -*-*-
+	@Test
+	public void roundTripTest(){
+		byte[] snapshot = WorldSnapshot.toByteArray(world);
+		World restored = WorldSnapshot.fromByteArray(snapshot);
+
+		assertEquals(world.getWidth(), restored.getWidth(), EPSILON);
+		assertEquals(world.getHeight(), restored.getHeight(), EPSILON);
+		assertEquals(world.getTime(), restored.getTime(), 0);
+		assertEquals(50, restored.getMaxCollisionsPerStep());
+		assertEquals(world.getNextEntityId(), restored.getNextEntityId());
+		assertEquals(3, restored.queryEntities().size());
+
+		Ship restoredShip = (Ship)restored.getEntity(ship.getId());
+		assertEquals(ship.getPosition(), restoredShip.getPosition());
+		assertEquals(ship.getVelocity(), restoredShip.getVelocity());
+		assertEquals(ship.getAngle(), restoredShip.getAngle(), 0);
+		assertEquals(ship.getBaseMass(), restoredShip.getBaseMass(), 0);
+		assertEquals(200, restoredShip.getSpeedLimit(), 0);
+		assertTrue(restoredShip.isShipThrusterActive());
+
+		Bullet restoredBullet = (Bullet)restored.getEntity(bullet.getId());
+		assertEquals(bullet.getPosition(), restoredBullet.getPosition());
+		assertEquals(bullet.getNbTimesBounced(), restoredBullet.getNbTimesBounced());
+		assertSame(restoredShip, restoredBullet.getSourceShip());
+
+		// The snapshot of the restored world is equal to the original snapshot.
+		assertTrue(Arrays.equals(snapshot, WorldSnapshot.toByteArray(restored)));
+	}
+
+	@Test
+	public void restoredWorldEvolvesIdenticallyTest(){
+		World restored = WorldSnapshot.fromByteArray(WorldSnapshot.toByteArray(world));
+		world.evolve(20, null);
+		restored.evolve(20, null);
+		assertTrue(Arrays.equals(WorldSnapshot.toByteArray(world), WorldSnapshot.toByteArray(restored)));
+		for (Entity entity: world.queryEntities())
+			assertEquals(entity.getPosition(), restored.getEntity(entity.getId()).getPosition());
+	}
+
+	@Test (expected=IllegalArgumentException.class)
+	public void readInvalidSnapshot(){
+		byte[] snapshot = WorldSnapshot.toByteArray(world);
+		snapshot[0]++;
+		WorldSnapshot.fromByteArray(snapshot);
+	}
+
+	@Test (expected=IllegalArgumentException.class)
+	public void readIncompleteSnapshot(){
+		byte[] snapshot = WorldSnapshot.toByteArray(world);
+		WorldSnapshot.fromByteArray(Arrays.copyOf(snapshot, snapshot.length-1));
+	}
+
+	@Test (expected=IllegalStateException.class)
+	public void writeTerminatedWorld(){
+		world.destroy();
+		WorldSnapshot.toByteArray(world);
+	}
+}
@@ -2,15 +2,22 @@ package asteroids.tests;
 
 import static org.junit.Assert.*;
 
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
 import org.junit.*;
 
+import asteroids.facade.Facade;
 import asteroids.model.World;
+import asteroids.model.BroadPhaseMode;
 import asteroids.model.Bullet;
 import asteroids.model.Entity;
 import asteroids.model.Collision;
 import asteroids.model.Ship;
 import asteroids.model.Vector;
+import asteroids.util.ModelException;
 
 
 public class WorldTests {
@@ -205,6 +212,98 @@ public class WorldTests {
 		assertTrue(ships.contains(testEntity3));
 		assertTrue(ships.contains(testEntity4));
 	}
+	
+	@Test
+	public void queryShipsLiveView(){
+		World testWorld = new World(150,150);
+		Ship testShip1 = new Ship(30, 30, 0, 0, 10, 0);
+		testWorld.addEntity(testShip1);
+		Set<Ship> ships = testWorld.queryShips();
+		Set<Bullet> bullets = testWorld.queryBullets();
+		assertTrue(ships.size() == 1);
+		
+		// The views reflect later additions and removals.
+		Ship testShip2 = new Ship(70, 70, 0, 0, 10, 0);
+		testWorld.addEntity(testShip2);
+		Bullet testBullet = new Bullet(110, 110, 0, 0, 5);
+		testWorld.addEntity(testBullet);
+		assertTrue(ships.size() == 2);
+		assertTrue(ships.contains(testShip2));
+		assertTrue(bullets.size() == 1);
+		assertTrue(bullets.contains(testBullet));
+		
+		testWorld.removeEntity(testShip1);
+		assertTrue(ships.size() == 1);
+		assertFalse(ships.contains(testShip1));
+		assertTrue(testWorld.queryShips() == ships);
+		
+		// The ships are iterated in the order in which they were added.
+		testWorld.addEntity(testShip1);
+		Iterator<Ship> iterator = ships.iterator();
+		assertTrue(iterator.next() == testShip2);
+		assertTrue(iterator.next() == testShip1);
+		
+		testWorld.destroy();
+		assertTrue(ships.isEmpty());
+		assertTrue(bullets.isEmpty());
+	}
+	
+	@Test
+	public void removeEntityKeepsMembership(){
+		World testWorld = new World(1000, 1000);
+		Entity[] testEntities = new Entity[20];
+		for (int index=0; index < testEntities.length; index++){
+			testEntities[index] = new Bullet(25+index*40, 500, 0, 0, 10);
+			testWorld.addEntity(testEntities[index]);
+		}
+		// Remove the first, a middle and the last entity, then the others in turn.
+		int[] removed = {0, 7, 19, 1, 18, 8, 6};
+		for (int count=0; count < removed.length; count++){
+			testWorld.removeEntity(testEntities[removed[count]]);
+			for (int index=0; index < testEntities.length; index++){
+				boolean isRemoved = false;
+				for (int other=0; other <= count; other++)
+					isRemoved |= (removed[other] == index);
+				assertTrue(testWorld.isInWorld(testEntities[index]) != isRemoved);
+			}
+			assertTrue(testWorld.queryEntities().size() == testEntities.length-count-1);
+		}
+		
+		// A removed entity can be added to another world, without lying in this one.
+		World otherWorld = new World(1000, 1000);
+		otherWorld.addEntity(testEntities[0]);
+		assertFalse(testWorld.isInWorld(testEntities[0]));
+		assertTrue(otherWorld.isInWorld(testEntities[0]));
+		assertFalse(otherWorld.isInWorld(testEntities[2]));
+		assertFalse(testWorld.isInWorld(null));
+	}
+	
+	@Test
+	public void facadeQueryWhileFiring() throws ModelException{
+		Facade facade = new Facade();
+		World testWorld = new World(150,150);
+		Ship testShip1 = new Ship(30, 30, 0, 0, 10, 0);
+		Ship testShip2 = new Ship(70, 70, 0, 0, 10, 0);
+		testWorld.addEntity(testShip1);
+		testWorld.addEntity(testShip2);
+		Set<? extends Ship> ships = facade.getWorldShips(testWorld);
+		assertSame(ships, facade.getWorldShips(testWorld));
+		
+		// Every ship fires while the ships are iterated, and the ship that is hit dies.
+		for (Ship ship: ships){
+			facade.fireBullet(ship);
+			facade.terminateShip(ship == testShip1 ? testShip2 : testShip1);
+		}
+		assertTrue(ships.size() == 2);
+		assertTrue(facade.getWorldShips(testWorld).isEmpty());
+		assertTrue(testWorld.queryShips().isEmpty());
+	}
+	
+	@Test(expected=UnsupportedOperationException.class)
+	public void queryShipsReadOnly(){
+		World testWorld = new World(150,150);
+		testWorld.queryShips().add(new Ship(30, 30, 0, 0, 10, 0));
+	}
 
 	// -*-*- getEntityAtPosition tests -*-*-
 	@Test
@@ -220,6 +319,24 @@ public class WorldTests {
 		resultEntity = testWorld.getEntityAtPosition(100, 50);
 		assertTrue(resultEntity == null);
 	}
+	
+	@Test
+	public void getEntityAtPositionAfterMoveTests(){
+		World testWorld = new World(150, 150);
+		Entity testEntity = new Ship(50, 50, 10, 0, 10, 0);
+		testWorld.addEntity(testEntity);
+		
+		testWorld.evolve(2, null);
+		assertTrue(testWorld.getEntityAtPosition(50, 50) == null);
+		assertTrue(testWorld.getEntityAtPosition(70, 50) == testEntity);
+		
+		testEntity.setPosition(100, 100);
+		assertTrue(testWorld.getEntityAtPosition(70, 50) == null);
+		assertTrue(testWorld.getEntityAtPosition(100, 100) == testEntity);
+		
+		testWorld.removeEntity(testEntity);
+		assertTrue(testWorld.getEntityAtPosition(100, 100) == null);
+	}
 
 	// -*-*- contains tests -*-*-
 	@Test
@@ -292,6 +409,33 @@ public class WorldTests {
 		
 	}
 	
+	@Test
+	public void timeToCollisionWithBoundariesAfterEvolveTest(){
+		for (boolean usingEntityStore: new boolean[] { false, true }){
+			World testWorld = new World(1000, 200);
+			testWorld.setUsingEntityStore(usingEntityStore);
+			Ship ship = new Ship(100, 100, 10, 0, 10, 0);
+			testWorld.addEntity(ship);
+			assertEquals(89, testWorld.getTimeToCollisionWithBoundaries(ship), EPSILON);
+			
+			// The ship moves freely, so its time to collision only decreases.
+			testWorld.evolve(1, null);
+			assertEquals(88, testWorld.getTimeToCollisionWithBoundaries(ship), EPSILON);
+			testWorld.evolve(2.5, null);
+			assertEquals(85.5, testWorld.getTimeToCollisionWithBoundaries(ship), EPSILON);
+			
+			// Setting the velocity or the position of the ship changes its time to collision.
+			ship.setVelocity(-10, 0);
+			assertEquals(12.5, testWorld.getTimeToCollisionWithBoundaries(ship), EPSILON);
+			ship.setPosition(500, 100);
+			assertEquals(49, testWorld.getTimeToCollisionWithBoundaries(ship), EPSILON);
+			
+			// A ship that no longer lies in the world never collides with its boundaries.
+			testWorld.removeEntity(ship);
+			assertEquals(Double.POSITIVE_INFINITY, testWorld.getTimeToCollisionWithBoundaries(ship), EPSILON);
+		}
+	}
+	
 	// -*-*- evolve tests -*-*-
 	@Test
 	public void evolveWithShipCollisionTest(){
@@ -444,6 +588,230 @@ public class WorldTests {
 		assertFalse(testWorld.isInWorld(testBullet));
 		assertNull(testBullet.getWorld());
 	}
+	@Test
+	public void getFirstCollisionWithGridTest(){
+		// Enough entities for the world to use its uniform grid
+		World testWorld = new World(1000, 1000);
+		Random random = new Random(1617);
+		while (testWorld.queryEntities().size() < 3*World.getGridThreshold()){
+			Bullet bullet = new Bullet(20+960*random.nextDouble(), 20+960*random.nextDouble(),
+					100*random.nextDouble()-50, 100*random.nextDouble()-50, 2+5*random.nextDouble());
+			if (testWorld.canHaveAsEntity(bullet))
+				testWorld.addEntity(bullet);
+		}
+		
+		// The first collision of all pairs and boundaries, computed without the grid
+		double expectedTime = Double.POSITIVE_INFINITY;
+		for (Entity first: testWorld.queryEntities()){
+			expectedTime = Math.min(expectedTime, testWorld.getTimeToCollisionWithBoundaries(first));
+			for (Entity second: testWorld.queryEntities())
+				if (first != second)
+					expectedTime = Math.min(expectedTime, first.getTimeToCollision(second));
+		}
+		
+		assertEquals(expectedTime, testWorld.getFirstCollision(expectedTime).getTimeToCollision(), EPSILON);
+		assertEquals(expectedTime, testWorld.getFirstCollision(2*expectedTime).getTimeToCollision(), EPSILON);
+		assertEquals(expectedTime, testWorld.getFirstCollision().getTimeToCollision(), EPSILON);
+		// Collisions after the horizon are not looked for
+		assertTrue(testWorld.getFirstCollision(expectedTime/2).getTimeToCollision() > expectedTime/2);
+	}
+	
+	@Test
+	public void evolveWithSweepAndPruneTest(){
+		// The same scene must evolve identically with every broad phase.
+		World pairwiseWorld = new World(1000, 1000);
+		pairwiseWorld.setBroadPhaseMode(BroadPhaseMode.PAIRWISE);
+		World sweepWorld = new World(1000, 1000);
+		sweepWorld.setBroadPhaseMode(BroadPhaseMode.SWEEP_AND_PRUNE);
+		assertEquals(BroadPhaseMode.SWEEP_AND_PRUNE, sweepWorld.getBroadPhaseMode());
+		
+		Random random = new Random(1617);
+		java.util.List<Entity> pairwiseEntities = new java.util.ArrayList<Entity>();
+		java.util.List<Entity> sweepEntities = new java.util.ArrayList<Entity>();
+		while (pairwiseEntities.size() < 2*World.getGridThreshold()){
+			double x = 20+960*random.nextDouble(), y = 20+960*random.nextDouble();
+			double vx = 100*random.nextDouble()-50, vy = 100*random.nextDouble()-50;
+			double radius = 2+5*random.nextDouble();
+			Bullet bullet = new Bullet(x, y, vx, vy, radius);
+			if (pairwiseWorld.canHaveAsEntity(bullet)){
+				pairwiseWorld.addEntity(bullet);
+				pairwiseEntities.add(bullet);
+				Bullet copy = new Bullet(x, y, vx, vy, radius);
+				sweepWorld.addEntity(copy);
+				sweepEntities.add(copy);
+			}
+		}
+		
+		assertEquals(pairwiseWorld.getFirstCollision().getTimeToCollision(), 
+				sweepWorld.getFirstCollision().getTimeToCollision(), EPSILON);
+		for (int step=0; step < 20; step++){
+			pairwiseWorld.evolve(0.5, null);
+			sweepWorld.evolve(0.5, null);
+		}
+		for (int i=0; i < pairwiseEntities.size(); i++){
+			assertEquals(pairwiseEntities.get(i).isDead(), sweepEntities.get(i).isDead());
+			assertEquals(pairwiseEntities.get(i).getPosition(), sweepEntities.get(i).getPosition());
+		}
+	}
+	
+	@Test
+	public void firstCollisionAfterVelocityChangeTest(){
+		World testWorld = new World(1000, 1000);
+		Bullet first = new Bullet(400, 500, -1, 0, 10);
+		Bullet second = new Bullet(600, 500, 1, 0, 10);
+		testWorld.addEntity(first);
+		testWorld.addEntity(second);
+		// Both bullets move apart, so they only collide with the boundaries.
+		assertNull(testWorld.getFirstCollision().getSecondInvolvedEntity());
+		testWorld.evolve(10, null);
+		assertNull(testWorld.getFirstCollision().getSecondInvolvedEntity());
+		
+		// Once one of both bullets turns around, they collide with each other.
+		second.setVelocity(-10, 0);
+		Collision collision = testWorld.getFirstCollision();
+		assertNotNull(collision.getSecondInvolvedEntity());
+		assertTrue(collision.getFistInvolvedEntity() == first || collision.getSecondInvolvedEntity() == first);
+		assertEquals(200.0/9, collision.getTimeToCollision(), EPSILON);
+		testWorld.evolve(5, null);
+		assertEquals(200.0/9-5, testWorld.getFirstCollision().getTimeToCollision(), EPSILON);
+	}
+	
+	@Test (expected = NullPointerException.class)
+	public void setInvalidBroadPhaseMode(){
+		globWorld.setBroadPhaseMode(null);
+	}
+	
+	@Test
+	public void evolveWithSuccessiveCollisionsTest(){
+		// A bullet will bounce off the left and the right boundary during one evolution
+		World testWorld = new World(150, 150);
+		
+		Bullet testBullet = new Bullet(11, 10, -5, 0, 1);
+		testWorld.addEntity(testBullet);
+		
+		testWorld.evolve(2+29.6+1, null);
+		
+		assertEquals(-5, testBullet.getVelocity().getX(), EPSILON);
+		assertEquals(144, testBullet.getPosition().getX(), EPSILON);
+		assertEquals(2, testBullet.getNbTimesBounced());
+		assertEquals(32.6, testWorld.getTime(), EPSILON);
+	}
+	
+	@Test
+	public void evolveWithEntityStoreTest(){
+		// The same scene must evolve identically with and without the entity store.
+		World objectWorld = new World(200, 200);
+		World storeWorld = new World(200, 200);
+		storeWorld.setUsingEntityStore(true);
+		assertTrue(storeWorld.isUsingEntityStore());
+		
+		Entity[] objectEntities = {new Ship(50, 50, 10, 5, 10, 0.3), new Bullet(120, 80, -7, 3, 2), new Bullet(20, 150, 4, -9, 3)};
+		Entity[] storeEntities = {new Ship(50, 50, 10, 5, 10, 0.3), new Bullet(120, 80, -7, 3, 2), new Bullet(20, 150, 4, -9, 3)};
+		((Ship)objectEntities[0]).setThrust(true);
+		((Ship)storeEntities[0]).setThrust(true);
+		for (int i=0; i < objectEntities.length; i++){
+			objectWorld.addEntity(objectEntities[i]);
+			storeWorld.addEntity(storeEntities[i]);
+		}
+		
+		objectWorld.evolve(30, null);
+		storeWorld.evolve(30, null);
+		for (int i=0; i < objectEntities.length; i++){
+			assertEquals(objectEntities[i].getPosition(), storeEntities[i].getPosition());
+			assertEquals(objectEntities[i].getVelocity(), storeEntities[i].getVelocity());
+		}
+		
+		// An entity keeps its state when it leaves the store.
+		Vector position = storeEntities[1].getPosition();
+		storeWorld.removeEntity(storeEntities[1]);
+		assertEquals(position, storeEntities[1].getPosition());
+		storeWorld.setUsingEntityStore(false);
+		assertEquals(objectEntities[2].getPosition(), storeEntities[2].getPosition());
+	}
+	
+	@Test
+	public void evolveWithCollisionBudgetTest(){
+		World testWorld = new World(150, 150);
+		
+		Bullet testBullet = new Bullet(11, 10, -5, 0, 1);
+		testWorld.addEntity(testBullet);
+		
+		// Without a limit, both bounces are handled in 3 sub-steps.
+		testWorld.evolve(2+29.6+1, null);
+		assertEquals(3, testWorld.getLastEvolveStatistics().getNbSubSteps());
+		assertEquals(2, testWorld.getLastEvolveStatistics().getNbCollisions());
+		assertFalse(testWorld.getLastEvolveStatistics().isBudgetExceeded());
+		
+		// With a budget of one collision, the evolution stops at the first bounce.
+		testWorld = new World(150, 150);
+		testBullet = new Bullet(11, 10, -5, 0, 1);
+		testWorld.addEntity(testBullet);
+		testWorld.setMaxCollisionsPerStep(1);
+		
+		testWorld.evolve(2+29.6+1, null);
+		assertEquals(1, testWorld.getLastEvolveStatistics().getNbCollisions());
+		assertTrue(testWorld.getLastEvolveStatistics().isBudgetExceeded());
+		assertEquals(30.6, testWorld.getLastEvolveStatistics().getUnsimulatedTime(), EPSILON);
+		assertEquals(2, testWorld.getTime(), EPSILON);
+		assertEquals(1, testBullet.getPosition().getX(), EPSILON);
+		assertEquals(5, testBullet.getVelocity().getX(), EPSILON);
+	}
+	
+	@Test (expected=IllegalArgumentException.class)
+	public void setInvalidCollisionBudget(){
+		globWorld.setMaxCollisionsPerStep(0);
+	}
+	
+	@Test
+	public void evolveWithCollisionWindowTest(){
+		World testWorld = new World(150, 150);
+		testWorld.setCollisionWindow(0.01);
+		assertEquals(0.01, testWorld.getCollisionWindow(), EPSILON);
+		
+		Bullet[] testBullets = {new Bullet(11, 10, -5, 0, 1), new Bullet(11.01, 50, -5, 0, 1), new Bullet(11, 90, -5, 0, 1)};
+		for (Bullet bullet: testBullets)
+			testWorld.addEntity(bullet);
+		
+		// All three bounces lie within the window, so they are handled in one sub-step.
+		testWorld.evolve(3, null);
+		assertEquals(2, testWorld.getLastEvolveStatistics().getNbSubSteps());
+		assertEquals(3, testWorld.getLastEvolveStatistics().getNbCollisions());
+		for (Bullet bullet: testBullets)
+			assertEquals(5, bullet.getVelocity().getX(), EPSILON);
+		
+		// Without a window, only the bounces at the same time share a sub-step.
+		testWorld = new World(150, 150);
+		testWorld.setCollisionWindow(0);
+		testBullets = new Bullet[] {new Bullet(11, 10, -5, 0, 1), new Bullet(11.01, 50, -5, 0, 1), new Bullet(11, 90, -5, 0, 1)};
+		for (Bullet bullet: testBullets)
+			testWorld.addEntity(bullet);
+		testWorld.evolve(3, null);
+		assertEquals(3, testWorld.getLastEvolveStatistics().getNbSubSteps());
+		assertEquals(3, testWorld.getLastEvolveStatistics().getNbCollisions());
+	}
+	
+	@Test
+	public void evolveWithThrustingShipTest(){
+		World testWorld = new World(1000, 1000);
+		Ship thrustingShip = new Ship(100, 500, -100, 1, 20, 0, 1E22);
+		Ship testShip = new Ship(500, 200, 1, -100, 20, 0);
+		testWorld.addEntity(thrustingShip);
+		testWorld.addEntity(testShip);
+		thrustingShip.setThrust(true);
+		
+		// The thrusting ship hits the left boundary first, the other ship still bounces at t=1.8.
+		testWorld.evolve(2, null);
+		assertEquals(2, testWorld.getLastEvolveStatistics().getNbCollisions());
+		assertEquals(100, testShip.getVelocity().getY(), EPSILON);
+		assertEquals(40, testShip.getPosition().getY(), EPSILON);
+		assertTrue(testWorld.contains(testShip));
+	}
+	
+	@Test (expected=IllegalArgumentException.class)
+	public void setInvalidCollisionWindow(){
+		globWorld.setCollisionWindow(-1);
+	}
+	
 	// -*-*- Termination tests -*-*-
 	@Test
 	public void terminationTests(){
@@ -471,4 +839,106 @@ public class WorldTests {
 		
 		assertTrue(testWorld.isTerminated());
 	}
-}
\ No newline at end of file
+	
+	// -*-*- getNearestEntity tests -*-*-
+	@Test
+	public void nearestEntityTest(){
+		World testWorld = new World(2000, 2000);
+		Random random = new Random(7);
+		for (int row=0; row < 20; row++)
+			for (int column=0; column < 20; column++){
+				double x = 50+100*column+40*(random.nextDouble()-0.5);
+				double y = 50+100*row+40*(random.nextDouble()-0.5);
+				if ((row+column) % 3 == 0)
+					testWorld.addEntity(new Ship(x, y, 0, 0, 10, 0));
+				else
+					testWorld.addEntity(new Bullet(x, y, 0, 0, 5));
+			}
+		
+		List<Class<? extends Entity>> types = Arrays.asList(Entity.class, Ship.class, Bullet.class);
+		for (Entity entity: testWorld.queryEntities()){
+			for (Class<? extends Entity> type: types){
+				Entity expected = null;
+				for (Entity other: testWorld.queryEntities())
+					if (other != entity && type.isInstance(other) && (expected == null ||
+							entity.getDistanceBetweenCenters(other) < entity.getDistanceBetweenCenters(expected)))
+						expected = other;
+				Entity nearest = testWorld.getNearestEntity(entity, type);
+				assertTrue(type.isInstance(nearest));
+				assertEquals(entity.getDistanceBetweenCenters(expected), entity.getDistanceBetweenCenters(nearest), EPSILON);
+			}
+		}
+	}
+	
+	@Test
+	public void nearestEntityAfterMoveTest(){
+		Ship ship = new Ship(15, 15, 0, 0, 10, 0);
+		Ship near = new Ship(40, 15, 0, 0, 10, 0);
+		Ship far = new Ship(85, 85, 0, 0, 10, 0);
+		globWorld.addEntity(ship);
+		globWorld.addEntity(near);
+		globWorld.addEntity(far);
+		assertEquals(near, globWorld.getNearestEntity(ship, Ship.class));
+		assertNull(globWorld.getNearestEntity(ship, Bullet.class));
+		assertEquals(far, globWorld.getNearestEntity(ship, Ship.class, other -> other != near));
+		
+		near.setPosition(85, 55);
+		assertEquals(far, globWorld.getNearestEntity(near, Ship.class));
+		assertEquals(near, globWorld.getNearestEntity(ship, Ship.class));
+		globWorld.removeEntity(near);
+		assertEquals(far, globWorld.getNearestEntity(ship, Ship.class));
+	}
+	
+	@Test (expected=IllegalArgumentException.class)
+	public void nearestEntityOutsideWorldTest(){
+		globWorld.getNearestEntity(new Ship(15, 15, 0, 0, 10, 0), Ship.class);
+	}
+	
+	@Test
+	public void intersectingEntityTest(){
+		World testWorld = new World(2000, 2000);
+		Random random = new Random(11);
+		for (int round=0; round < 200; round++){
+			// Add and remove entities between the queries, without moving any of them.
+			Bullet bullet = new Bullet(10+1980*random.nextDouble(), 10+1980*random.nextDouble(), 0, 0, 5+5*random.nextDouble());
+			if (testWorld.canHaveAsEntity(bullet))
+				testWorld.addEntity(bullet);
+			if (round % 3 == 0){
+				Entity[] entities = testWorld.queryEntities().toArray(new Entity[0]);
+				testWorld.removeEntity(entities[random.nextInt(entities.length)]);
+			}
+			
+			Ship probe = new Ship(30+1940*random.nextDouble(), 30+1940*random.nextDouble(), 0, 0, 10+20*random.nextDouble(), 0);
+			boolean expected = false;
+			for (Entity other: testWorld.queryEntities())
+				expected |= probe.getDistanceBetweenCenters(other) <= probe.getRadius()+other.getRadius();
+			Entity intersecting = testWorld.getIntersectingEntity(probe, null);
+			assertEquals(expected, intersecting != null);
+			if (intersecting != null){
+				assertTrue(testWorld.isInWorld(intersecting));
+				assertTrue(probe.getDistanceBetweenCenters(intersecting) <= probe.getRadius()+intersecting.getRadius());
+			}
+		}
+	}
+	
+	@Test
+	public void intersectingEntityAfterReAddTest(){
+		Ship ship = new Ship(15, 15, 0, 0, 10, 0);
+		Ship other = new Ship(85, 85, 0, 0, 10, 0);
+		globWorld.addEntity(ship);
+		globWorld.addEntity(other);
+		Bullet probe = new Bullet(20, 20, 0, 0, 5);
+		assertEquals(ship, globWorld.getIntersectingEntity(probe, null));
+		assertNull(globWorld.getIntersectingEntity(probe, entity -> entity != ship));
+		
+		// The ship is moved while it does not lie in the world.
+		globWorld.removeEntity(ship);
+		assertNull(globWorld.getIntersectingEntity(probe, null));
+		ship.setPosition(50, 50);
+		globWorld.addEntity(ship);
+		assertNull(globWorld.getIntersectingEntity(probe, null));
+		assertEquals(ship, globWorld.getIntersectingEntity(new Bullet(55, 50, 0, 0, 5), null));
+		assertEquals(other, globWorld.getNearestEntity(ship, Ship.class));
+		assertFalse(globWorld.canHaveAsEntity(new Ship(60, 60, 0, 0, 10, 0)));
+	}
+}